@@ -6,10 +6,15 @@ import dev.brus.downstream.updater.git.GitCommit;
 import dev.brus.downstream.updater.git.GitRepository;
 import dev.brus.downstream.updater.git.JGitRepository;
 import dev.brus.downstream.updater.issue.DownstreamIssueManager;
+import dev.brus.downstream.updater.issue.DownstreamIssueMutationQueue;
 import dev.brus.downstream.updater.issue.Issue;
 import dev.brus.downstream.updater.issue.IssueCustomerPriority;
+import dev.brus.downstream.updater.issue.IssueExecutors;
+import dev.brus.downstream.updater.issue.IssueLinkGraph;
 import dev.brus.downstream.updater.issue.IssueManager;
+import dev.brus.downstream.updater.issue.IssueHttpArchive;
 import dev.brus.downstream.updater.issue.IssueManagerFactory;
+import dev.brus.downstream.updater.issue.IssueResponseCache;
 import dev.brus.downstream.updater.issue.IssuePatchPriority;
 import dev.brus.downstream.updater.issue.IssueReference;
 import dev.brus.downstream.updater.issue.IssueSecurityImpact;
@@ -38,12 +43,16 @@ import java.nio.charset.Charset;
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -87,14 +96,28 @@ public class App {
    private static final String DOWNSTREAM_ISSUES_PATCH_PRIORITY = "downstream-issues-patch-priority";
    private static final String DOWNSTREAM_ISSUES_SECURITY_IMPACT = "downstream-issues-security-impact";
    private static final String DOWNSTREAM_ISSUES_REQUIRED = "downstream-issues-required";
+   private static final String DOWNSTREAM_ISSUES_FILTER_OPTION = "downstream-issues-filter";
+   private static final String DOWNSTREAM_ISSUES_RECONCILIATION_DAYS_OPTION = "downstream-issues-reconciliation-days";
+   private static final String DOWNSTREAM_ISSUES_WRITE_BEHIND_OPTION = "downstream-issues-write-behind";
+   private static final String DOWNSTREAM_ISSUES_METADATA_HOURS_OPTION = "downstream-issues-metadata-hours";
    private static final String RELEASE_OPTION = "release";
    private static final String TARGET_RELEASE_FORMAT_OPTION = "target-release-format";
    private static final String ASSIGNEE_OPTION = "assignee";
    private static final String CHECK_INCOMPLETE_COMMITS_OPTION = "check-incomplete-commits";
    private static final String CHECK_COMMAND_OPTION = "check-command";
    private static final String CHECK_TESTS_COMMAND_OPTION = "check-tests-command";
+   private static final String UPSTREAM_ISSUES_LOADING_OPTION = "upstream-issues-loading";
+   private static final String ISSUES_IO_THREADS_OPTION = "issues-io-threads";
+   private static final String ISSUES_VIRTUAL_THREADS_OPTION = "issues-virtual-threads";
+   private static final String ISSUES_HTTP_CACHE_SIZE_OPTION = "issues-http-cache-size";
+   private static final String ISSUES_HTTP_ARCHIVE_OPTION = "issues-http-archive";
+   private static final String ISSUES_HTTP_ARCHIVE_MODE_OPTION = "issues-http-archive-mode";
+   private static final String ISSUES_HTTP_REPLAY_LATENCY_OPTION = "issues-http-replay-latency";
 
 
+   private static final String ISSUES_LOADING_FULL = "full";
+   private static final String ISSUES_LOADING_DEMAND = "demand";
+
    public static void main(String[] args) throws Exception {
       // Initialize target directory
       File targetDir = new File("target");
@@ -134,6 +157,7 @@ public class App {
       parser.addOption(null, UPSTREAM_ISSUES_SERVER_URL_OPTION, false, true, false, "the server URL to access upstream issues, i.e. https://issues.apache.org/jira/rest/api/2");
       parser.addOption(null, UPSTREAM_ISSUES_AUTH_STRING_OPTION, false, true, false, "the auth string to access upstream issues, i.e. \"Bearer ...\"");
       parser.addOption(null, UPSTREAM_ISSUES_PROJECT_KEY_OPTION, false, true, false, "the project key to access upstream issues, i.e. ARTEMIS");
+      parser.addOption(null, UPSTREAM_ISSUES_LOADING_OPTION, false, true, false, "the loading mode of upstream issues, i.e. full or demand to load only the issues referenced by the commits and the downstream issues");
       parser.addOption(null, DOWNSTREAM_ISSUES_SERVER_URL_OPTION, false, true, false, "the server URL to access downstream issues, i.e. https://issues.redhat.com/rest/api/2");
       parser.addOption(null, DOWNSTREAM_ISSUES_AUTH_STRING_OPTION, false, true, false, "the auth string to access downstream issues, i.e. \"Bearer ...\"");
       parser.addOption(null, DOWNSTREAM_ISSUES_PROJECT_KEY_OPTION, false, true, false, "the project key to access downstream issues, i.e. ENTMQBR");
@@ -141,11 +165,22 @@ public class App {
       parser.addOption(null, DOWNSTREAM_ISSUES_PATCH_PRIORITY, false, true, false, "the patch priority to filter downstream issues, i.e. HIGH");
       parser.addOption(null, DOWNSTREAM_ISSUES_SECURITY_IMPACT, false, true, false, "the security impact to filter downstream issues, i.e. IMPORTANT");
       parser.addOption(null, DOWNSTREAM_ISSUES_REQUIRED, false, false, true, "the downstream issues are required");
+      parser.addOption(null, DOWNSTREAM_ISSUES_FILTER_OPTION, false, true, false, "the filter to load downstream issues, i.e. upstream,unresolved or a JQL clause");
+      parser.addOption(null, DOWNSTREAM_ISSUES_RECONCILIATION_DAYS_OPTION, false, true, false, "the days between reconciliations of filtered downstream issues, i.e. 7");
+      parser.addOption(null, DOWNSTREAM_ISSUES_WRITE_BEHIND_OPTION, false, true, false, "apply downstream issue changes in background, i.e. true");
+      parser.addOption(null, DOWNSTREAM_ISSUES_METADATA_HOURS_OPTION, false, true, false, "the hours before refreshing cached downstream fields and transitions, i.e. 24");
 
       parser.addOption(null, CHECK_INCOMPLETE_COMMITS_OPTION, false, false, true, "check tasks of cherry-picked commits");
       parser.addOption(null, CHECK_COMMAND_OPTION, false, true, true, "command to check cherry-picked commits");
       parser.addOption(null, CHECK_TESTS_COMMAND_OPTION, false, true, true, "command to test cherry-picked commits with tests");
 
+      parser.addOption(null, ISSUES_IO_THREADS_OPTION, false, true, false, "the max number of threads to access issues, i.e. 16");
+      parser.addOption(null, ISSUES_VIRTUAL_THREADS_OPTION, false, true, false, "use virtual threads to access issues when available, i.e. true");
+      parser.addOption(null, ISSUES_HTTP_CACHE_SIZE_OPTION, false, true, false, "the max megabytes of cached issue responses, 0 to disable, i.e. 256");
+      parser.addOption(null, ISSUES_HTTP_ARCHIVE_OPTION, false, true, false, "the archive file to record or replay issue requests, i.e. target/issues.jsonl.gz");
+      parser.addOption(null, ISSUES_HTTP_ARCHIVE_MODE_OPTION, false, true, false, "the mode of the issue requests archive, i.e. record or replay");
+      parser.addOption(null, ISSUES_HTTP_REPLAY_LATENCY_OPTION, false, true, false, "the milliseconds to delay each replayed issue request, i.e. 50");
+
       CommandLine line;
 
       try {
@@ -226,10 +261,23 @@ public class App {
       boolean downstreamIssuesRequired = Boolean.parseBoolean(line.getOptionValue(DOWNSTREAM_ISSUES_REQUIRED,
          projectStream.getDownstreamIssuesRequired().toString()));
 
+      String downstreamIssuesFilter = line.getOptionValue(DOWNSTREAM_ISSUES_FILTER_OPTION);
+
+      String downstreamIssuesReconciliationDays = line.getOptionValue(DOWNSTREAM_ISSUES_RECONCILIATION_DAYS_OPTION);
+
+      boolean downstreamIssuesWriteBehind = Boolean.parseBoolean(line.getOptionValue(DOWNSTREAM_ISSUES_WRITE_BEHIND_OPTION, "false"));
+
+      String downstreamIssuesMetadataHours = line.getOptionValue(DOWNSTREAM_ISSUES_METADATA_HOURS_OPTION);
+
       String upstreamIssuesServerURL = line.getOptionValue(UPSTREAM_ISSUES_SERVER_URL_OPTION, project.getUpstreamIssuesServer());
       String upstreamIssuesAuthString = line.getOptionValue(UPSTREAM_ISSUES_AUTH_STRING_OPTION);
       String upstreamIssuesProjectKey = line.getOptionValue(UPSTREAM_ISSUES_PROJECT_KEY_OPTION, project.getUpstreamIssuesProjectKey());
 
+      String upstreamIssuesLoading = line.getOptionValue(UPSTREAM_ISSUES_LOADING_OPTION, ISSUES_LOADING_FULL);
+      if (!ISSUES_LOADING_FULL.equals(upstreamIssuesLoading) && !ISSUES_LOADING_DEMAND.equals(upstreamIssuesLoading)) {
+         throw new IllegalArgumentException("Invalid upstream issues loading: " + upstreamIssuesLoading);
+      }
+
       String commitsFilename = line.getOptionValue(COMMITS_OPTION);
 
       String confirmedCommitsFilename = line.getOptionValue(CONFIRMED_COMMITS_OPTION, "confirmed-commits.json");
@@ -262,6 +310,22 @@ public class App {
 
       String checkTestsCommand = line.getOptionValue(CHECK_TESTS_COMMAND_OPTION, project.getCheckTestCommand());
 
+      int issuesIOThreads = Integer.parseInt(line.getOptionValue(ISSUES_IO_THREADS_OPTION,
+         String.valueOf(IssueExecutors.getIoThreads())));
+
+      boolean issuesVirtualThreads = Boolean.parseBoolean(line.getOptionValue(ISSUES_VIRTUAL_THREADS_OPTION,
+         String.valueOf(IssueExecutors.isVirtualThreads())));
+
+      long issuesHttpCacheSize = Long.parseLong(line.getOptionValue(ISSUES_HTTP_CACHE_SIZE_OPTION,
+         String.valueOf(IssueResponseCache.DEFAULT_MAX_SIZE / (1024 * 1024))));
+
+      String issuesHttpArchive = line.getOptionValue(ISSUES_HTTP_ARCHIVE_OPTION);
+
+      IssueHttpArchive.Mode issuesHttpArchiveMode = IssueHttpArchive.Mode.fromName(
+         line.getOptionValue(ISSUES_HTTP_ARCHIVE_MODE_OPTION, IssueHttpArchive.Mode.RECORD.name()));
+
+      long issuesHttpReplayLatency = Long.parseLong(line.getOptionValue(ISSUES_HTTP_REPLAY_LATENCY_OPTION, "0"));
+
       // Set assignee as default user
       userResolver.setDefaultUser(userResolver.getUserFromUsername(assignee));
 
@@ -297,8 +361,54 @@ public class App {
       gitRepository.checkout(downstreamBranch);
 
 
+      // Load upstream commits
+      Deque<GitCommit> upstreamCommits = new ArrayDeque<>();
+      Queue<Map.Entry<GitCommit, String>> upstreamRevertingCommits = new LinkedList<>();
+      for (GitCommit commit : gitRepository.log("upstream/" + upstreamBranch, "origin/" + downstreamBranch)) {
+         if (!commit.getShortMessage().startsWith("Merge pull request")) {
+            upstreamCommits.push(commit);
+
+            Matcher revertedCommitMatcher = revertedCommitPattern.matcher(commit.getFullMessage());
+
+            if (revertedCommitMatcher.find()) {
+               String revertedCommitName = revertedCommitMatcher.group(1);
+               logger.info("upstream reverting commit: " + revertedCommitName);
+               upstreamRevertingCommits.add(new AbstractMap.SimpleEntry<>(commit, revertedCommitMatcher.group(1)));
+            }
+         }
+      }
+
+
+      //Load upstream reverting chains
+      Map<String, List<String>> upstreamRevertingChains = new HashMap<>();
+      for (Map.Entry<GitCommit, String> upstreamRevertingCommitEntry : upstreamRevertingCommits) {
+         if (!upstreamRevertingChains.containsKey(upstreamRevertingCommitEntry.getKey().getName())) {
+            List<String> upstreamRevertingChain = new ArrayList();
+            loadRevertingChain(upstreamRevertingCommitEntry, 0, upstreamRevertingCommits, upstreamRevertingChain);
+            for(String upstreamRevertingChainItem : upstreamRevertingChain) {
+               upstreamRevertingChains.put(upstreamRevertingChainItem, upstreamRevertingChain);
+            }
+         }
+      }
+
+
+      // Initialize issue executors
+      IssueExecutors.configure(issuesIOThreads, issuesVirtualThreads);
+
       // Initialize IssueManagerFactory
       IssueManagerFactory issueManagerFactory = new IssueManagerFactory();
+      if (issuesHttpCacheSize > 0) {
+         // Responses are revalidated unless their fields are not expected to change
+         issueManagerFactory.setResponseCache(new IssueResponseCache(
+            new File(targetDir, "issues-http-cache"), issuesHttpCacheSize * 1024 * 1024)
+            .setExpiration("/field$", TimeUnit.HOURS.toMillis(1)));
+      }
+      IssueHttpArchive issueHttpArchive = null;
+      if (issuesHttpArchive != null) {
+         issueHttpArchive = new IssueHttpArchive(new File(issuesHttpArchive), issuesHttpArchiveMode)
+            .setLatency(issuesHttpReplayLatency);
+         issueManagerFactory.setArchive(issueHttpArchive);
+      }
 
 
       // Load upstream issues
@@ -306,23 +416,54 @@ public class App {
       IssueManager upstreamIssueManager = issueManagerFactory.getIssueManager(
          upstreamIssuesServerURL, upstreamIssuesAuthString, upstreamIssuesProjectKey);
       upstreamIssueManager.load();
-      if (upstreamIssuesFile.exists()) {
-         upstreamIssueManager.loadIssues( upstreamIssuesFile);
 
-         for (Issue issue : upstreamIssueManager.getIssues()) {
-            issue.getIssues().clear();
+      // Load the links before the issues to mirror them while loading
+      File issueLinksFile = new File(targetDir, downstreamRepositoryBaseName + "-issue-links.json");
+      IssueLinkGraph issueLinkGraph = upstreamIssueManager.getLinkGraph();
+      if (issueLinksFile.exists()) {
+         issueLinkGraph.load(issueLinksFile);
+      }
+
+      if (ISSUES_LOADING_DEMAND.equals(upstreamIssuesLoading)) {
+         // Load only the upstream issues referenced by the upstream commits and the confirmed/excluded upstream issues
+         Set<String> upstreamIssueKeys = new HashSet<>();
+         for (GitCommit upstreamCommit : upstreamCommits) {
+            upstreamIssueKeys.addAll(upstreamIssueManager.parseIssueKeys(upstreamCommit.getShortMessage()));
          }
+         if (confirmedUpstreamIssueKeys != null) {
+            upstreamIssueKeys.addAll(Arrays.asList(confirmedUpstreamIssueKeys.split(",")));
+         }
+         if (excludedUpstreamIssueKeys != null) {
+            upstreamIssueKeys.addAll(Arrays.asList(excludedUpstreamIssueKeys.split(",")));
+         }
+
+         upstreamIssueManager.setReadThrough(true);
+         upstreamIssueManager.loadIssues(upstreamIssueKeys);
+      } else if (upstreamIssuesFile.exists()) {
+         upstreamIssueManager.loadIssues( upstreamIssuesFile);
       } else {
          upstreamIssueManager.loadIssues();
       }
-      upstreamIssueManager.storeIssues(upstreamIssuesFile);
+      if (ISSUES_LOADING_FULL.equals(upstreamIssuesLoading)) {
+         upstreamIssueManager.storeIssues(upstreamIssuesFile);
+      }
 
 
       // Load downstream issues
       File downstreamIssuesFile = new File(targetDir, downstreamRepositoryBaseName + "-downstream-issues.json");
       DownstreamIssueManager downstreamIssueManager = issueManagerFactory.getDownstreamIssueManager(
          downstreamIssuesServerURL, downstreamIssuesAuthString, downstreamIssuesProjectKey, upstreamIssueManager);
+      downstreamIssueManager.setMetadataFile(new File(targetDir, downstreamRepositoryBaseName + "-downstream-metadata.json"));
+      if (downstreamIssuesMetadataHours != null) {
+         downstreamIssueManager.setMetadataExpiration(
+            TimeUnit.HOURS.toMillis(Long.parseLong(downstreamIssuesMetadataHours)));
+      }
       downstreamIssueManager.load();
+      downstreamIssueManager.setIssuesFilter(downstreamIssuesFilter);
+      if (downstreamIssuesReconciliationDays != null) {
+         downstreamIssueManager.setIssuesReconciliationInterval(
+            TimeUnit.DAYS.toMillis(Long.parseLong(downstreamIssuesReconciliationDays)));
+      }
       if (downstreamIssuesFile.exists()) {
          downstreamIssueManager.loadIssues(downstreamIssuesFile);
       } else {
@@ -330,24 +471,31 @@ public class App {
       }
       downstreamIssueManager.storeIssues(downstreamIssuesFile);
 
-      // Link upstream issues
-      for (Issue issue : downstreamIssueManager.getIssues()) {
-         for (String upstreamIssueKey : issue.getIssues()) {
-            Issue upstreamIssue = upstreamIssueManager.getIssue(upstreamIssueKey);
+      // Load the upstream issues linked to downstream issues
+      if (ISSUES_LOADING_DEMAND.equals(upstreamIssuesLoading)) {
+         Set<String> loadedUpstreamIssueKeys = upstreamIssueManager.getIssues().stream()
+            .map(Issue::getKey).collect(Collectors.toSet());
+         Set<String> linkedUpstreamIssueKeys = issueLinkGraph.getLinkedUpstreamIssueKeys().stream()
+            .filter(upstreamIssueKey -> !loadedUpstreamIssueKeys.contains(upstreamIssueKey)).collect(Collectors.toSet());
+         upstreamIssueManager.loadIssues(linkedUpstreamIssueKeys);
+      }
 
-            if (upstreamIssue != null) {
-               logger.debug("upstream issue " + upstreamIssueKey + " linked to downstream issue " + issue.getKey());
-               if (!upstreamIssue.getIssues().contains(issue.getKey())) {
-                  upstreamIssue.getIssues().add(issue.getKey());
-               }
-            } else {
-               logger.warn("upstream issue " + upstreamIssueKey + " not found for downstream issue " + issue.getKey());
-            }
+      // Mirror the links of the downstream issues to the upstream issues
+      mirrorUnlinkedIssues(issueLinkGraph, upstreamIssueManager, downstreamIssueManager);
+      for (String upstreamIssueKey : issueLinkGraph.getLinkedUpstreamIssueKeys()) {
+         if (upstreamIssueManager.getIssue(upstreamIssueKey) != null) {
+            upstreamIssueManager.reindexIssue(upstreamIssueKey);
+         } else {
+            logger.warn("upstream issue " + upstreamIssueKey + " not found for downstream issues " +
+               issueLinkGraph.getDownstreamIssueKeys(upstreamIssueKey));
          }
       }
+      if (issueLinkGraph.isChanged()) {
+         issueLinkGraph.store(issueLinksFile);
+      }
 
       // Store upstream issues
-      if (!upstreamIssuesFile.exists()) {
+      if (ISSUES_LOADING_FULL.equals(upstreamIssuesLoading) && !upstreamIssuesFile.exists()) {
          upstreamIssueManager.storeIssues(upstreamIssuesFile);
       }
 
@@ -357,37 +505,6 @@ public class App {
          downstreamIssueManager.storeIssues(downstreamIssuesFile);
       }
 
-      // Load upstream commits
-      Deque<GitCommit> upstreamCommits = new ArrayDeque<>();
-      Queue<Map.Entry<GitCommit, String>> upstreamRevertingCommits = new LinkedList<>();
-      for (GitCommit commit : gitRepository.log("upstream/" + upstreamBranch, "origin/" + downstreamBranch)) {
-         if (!commit.getShortMessage().startsWith("Merge pull request")) {
-            upstreamCommits.push(commit);
-
-            Matcher revertedCommitMatcher = revertedCommitPattern.matcher(commit.getFullMessage());
-
-            if (revertedCommitMatcher.find()) {
-               String revertedCommitName = revertedCommitMatcher.group(1);
-               logger.info("upstream reverting commit: " + revertedCommitName);
-               upstreamRevertingCommits.add(new AbstractMap.SimpleEntry<>(commit, revertedCommitMatcher.group(1)));
-            }
-         }
-      }
-
-
-      //Load upstream reverting chains
-      Map<String, List<String>> upstreamRevertingChains = new HashMap<>();
-      for (Map.Entry<GitCommit, String> upstreamRevertingCommitEntry : upstreamRevertingCommits) {
-         if (!upstreamRevertingChains.containsKey(upstreamRevertingCommitEntry.getKey().getName())) {
-            List<String> upstreamRevertingChain = new ArrayList();
-            loadRevertingChain(upstreamRevertingCommitEntry, 0, upstreamRevertingCommits, upstreamRevertingChain);
-            for(String upstreamRevertingChainItem : upstreamRevertingChain) {
-               upstreamRevertingChains.put(upstreamRevertingChainItem, upstreamRevertingChain);
-            }
-         }
-      }
-
-
       // Load cherry-picked commits
       Map<String, GitCommit> downstreamRevertedCommits = new HashMap<>();
       Deque<Map.Entry<GitCommit, ReleaseVersion>> downstreamCommits = new ArrayDeque<>();
@@ -519,6 +636,10 @@ public class App {
       commitProcessor.setCheckCommand(checkCommand);
       commitProcessor.setCheckTestsCommand(checkTestsCommand);
       commitProcessor.setCommitsDir(commitsDir);
+      if (downstreamIssuesWriteBehind) {
+         commitProcessor.setMutationQueue(new DownstreamIssueMutationQueue()
+            .setLabelsMutation(downstreamIssueManager::writeIssuesLabels));
+      }
 
       //Delete current commits file
       File commitsFile;
@@ -557,6 +678,9 @@ public class App {
             }
          }
       } finally {
+         // Wait for the downstream issue changes to update the commit tasks
+         commitProcessor.awaitIssueMutations();
+
          // Store commits
 
          // Ignore SKIPPED commits and DONE commits without EXECUTED tasks
@@ -575,11 +699,22 @@ public class App {
          FileUtils.writeStringToFile(commitsFile, gson.toJson(commits), Charset.defaultCharset());
 
          // Store upstream issues
-         upstreamIssueManager.storeIssues(upstreamIssuesFile);
+         if (ISSUES_LOADING_FULL.equals(upstreamIssuesLoading)) {
+            upstreamIssueManager.storeIssues(upstreamIssuesFile);
+         }
 
 
          // Store downstream issues
          downstreamIssueManager.storeIssues(downstreamIssuesFile);
+
+         mirrorUnlinkedIssues(issueLinkGraph, upstreamIssueManager, downstreamIssueManager);
+         if (issueLinkGraph.isChanged()) {
+            issueLinkGraph.store(issueLinksFile);
+         }
+
+         if (issueHttpArchive != null) {
+            issueHttpArchive.close();
+         }
       }
 
       File payloadFile;
@@ -617,6 +752,19 @@ public class App {
       gitRepository.close();
    }
 
+   // Prunes the links of the downstream issues not loaded and mirrors the unlinked upstream issues,
+   // reindexIssue does not read through so the upstream issues not loaded are skipped
+   private static void mirrorUnlinkedIssues(IssueLinkGraph issueLinkGraph, IssueManager upstreamIssueManager,
+                                            DownstreamIssueManager downstreamIssueManager) {
+      Set<String> downstreamIssueKeys = downstreamIssueManager.getIssues().stream()
+         .map(Issue::getKey).collect(Collectors.toSet());
+      issueLinkGraph.retainDownstreamIssueKeys(downstreamIssueKeys::contains);
+
+      for (String upstreamIssueKey : issueLinkGraph.pollUnlinkedUpstreamIssueKeys()) {
+         upstreamIssueManager.reindexIssue(upstreamIssueKey);
+      }
+   }
+
    private static Map<String, Issue> loadIssues(String issueKeys, IssueManager issueManager) {
       Map<String, Issue> issues = null;
       if (issueKeys != null) {
@@ -20,12 +20,15 @@ package dev.brus.downstream.updater;
 import dev.brus.downstream.updater.git.GitCommit;
 import dev.brus.downstream.updater.git.GitRepository;
 import dev.brus.downstream.updater.issue.DownstreamIssueManager;
+import dev.brus.downstream.updater.issue.DownstreamIssueMutationQueue;
 import dev.brus.downstream.updater.issue.Issue;
 import dev.brus.downstream.updater.issue.IssueCustomerPriority;
+import dev.brus.downstream.updater.issue.IssueLink;
 import dev.brus.downstream.updater.issue.IssueManager;
 import dev.brus.downstream.updater.issue.IssuePatchPriority;
 import dev.brus.downstream.updater.issue.IssueReference;
 import dev.brus.downstream.updater.issue.IssueSecurityImpact;
+import dev.brus.downstream.updater.issue.IssueUpdate;
 import dev.brus.downstream.updater.project.ProjectConfig;
 import dev.brus.downstream.updater.project.ProjectStream;
 import dev.brus.downstream.updater.user.User;
@@ -52,6 +55,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -95,6 +101,13 @@ public class CommitProcessor {
    private String checkCommand;
    private String checkTestsCommand;
    private File commitsDir;
+   private Map<String, Map.Entry<IssueUpdate, List<CommitTask>>> pendingIssueUpdates = new HashMap<>();
+   private DownstreamIssueMutationQueue mutationQueue;
+   private List<Map.Entry<CompletableFuture<Void>, List<CommitTask>>> pendingIssueMutations = new ArrayList<>();
+
+
+   // Upstream issue keys by commit, the commits are parsed again as items of the reverting chains
+   private Map<String, List<String>> upstreamCommitIssueKeys = new HashMap<>();
 
    public GitRepository getGitRepository() {
       return gitRepository;
@@ -255,6 +268,15 @@ public class CommitProcessor {
       return this;
    }
 
+   public DownstreamIssueMutationQueue getMutationQueue() {
+      return mutationQueue;
+   }
+
+   public CommitProcessor setMutationQueue(DownstreamIssueMutationQueue mutationQueue) {
+      this.mutationQueue = mutationQueue;
+      return this;
+   }
+
    public CommitProcessor(
       ReleaseVersion candidateReleaseVersion,
       String targetReleaseFormat,
@@ -346,13 +368,13 @@ public class CommitProcessor {
 
       List<String> upstreamRevertingChain = upstreamRevertingChains.get(upstreamCommit.getName());
 
-      List<String> upstreamIssueKeys = upstreamIssueManager.parseIssueKeys(upstreamCommit.getShortMessage());
+      List<String> upstreamIssueKeys = parseUpstreamIssueKeys(upstreamCommit);
 
       if (upstreamIssueKeys.isEmpty()) {
          if (upstreamRevertingChain != null) {
             for(String upstreamRevertingChainItem : upstreamRevertingChain) {
                GitCommit upstreamRevertingChainCommit = gitRepository.resolveCommit(upstreamRevertingChainItem);
-               List<String> upstreamRevertingIssueKeys = upstreamIssueManager.parseIssueKeys(upstreamRevertingChainCommit.getShortMessage());
+               List<String> upstreamRevertingIssueKeys = parseUpstreamIssueKeys(upstreamRevertingChainCommit);
 
                if (upstreamRevertingIssueKeys.size() > 0) {
                   upstreamIssueKeys.addAll(upstreamRevertingIssueKeys);
@@ -728,19 +750,18 @@ public class CommitProcessor {
       return commit;
    }
 
+   private List<String> parseUpstreamIssueKeys(GitCommit upstreamCommit) {
+      return new ArrayList<>(upstreamCommitIssueKeys.computeIfAbsent(upstreamCommit.getName(),
+         name -> upstreamIssueManager.parseIssueKeys(upstreamCommit.getShortMessage())));
+   }
+
    private boolean isCurrentOrFutureRelease(String currentRelease, String release) {
       return currentRelease.equals(release) || FUTURE_GA_RELEASE.equals(release);
    }
 
    private boolean isAnyPreviousDownstreamIssueDone(ReleaseVersion candidateReleaseVersion, List<Issue> downstreamIssues, boolean allReleaseStreams) {
       for (Issue downstreamIssue : downstreamIssues) {
-         ReleaseVersion targetReleaseVersion;
-
-         try {
-            targetReleaseVersion = ReleaseVersion.fromString(downstreamIssue.getTargetRelease());
-         } catch (Exception e) {
-            targetReleaseVersion = null;
-         }
+         ReleaseVersion targetReleaseVersion = downstreamIssue.getTargetReleaseVersion();
 
          if (downstreamIssueManager.getIssueResolutionDone().equals(downstreamIssue.getResolution()) &&
             targetReleaseVersion != null && targetReleaseVersion.compareWithoutCandidateTo(candidateReleaseVersion) < 0 &&
@@ -754,13 +775,7 @@ public class CommitProcessor {
 
    private boolean isAnyNextDownstreamIssueCreated(ReleaseVersion candidateReleaseVersion, List<Issue> downstreamIssues, boolean allReleaseStreams) {
       for (Issue downstreamIssue : downstreamIssues) {
-         ReleaseVersion targetReleaseVersion;
-
-         try {
-            targetReleaseVersion = ReleaseVersion.fromString(downstreamIssue.getTargetRelease());
-         } catch (Exception e) {
-            targetReleaseVersion = null;
-         }
+         ReleaseVersion targetReleaseVersion = downstreamIssue.getTargetReleaseVersion();
 
          if (targetReleaseVersion != null && targetReleaseVersion.compareWithoutCandidateTo(candidateReleaseVersion) > 0 &&
             (allReleaseStreams || targetReleaseVersion.compareReleaseStreamTo(candidateReleaseVersion) == 0)) {
@@ -804,13 +819,7 @@ public class CommitProcessor {
 
    private boolean isUpstreamIssueBackportBlocked(List<Issue> downstreamIssues) {
       for (Issue downstreamIssue : downstreamIssues) {
-         ReleaseVersion targetReleaseVersion;
-
-         try {
-            targetReleaseVersion = ReleaseVersion.fromString(downstreamIssue.getTargetRelease());
-         } catch (Exception e) {
-            targetReleaseVersion = null;
-         }
+         ReleaseVersion targetReleaseVersion = downstreamIssue.getTargetReleaseVersion();
 
          if (downstreamIssue.getLabels().contains(downstreamIssueManager.getIssueLabelNoBackportNeeded()) &&
             ((targetReleaseVersion == null && downstreamIssue.getTargetRelease() == null) ||
@@ -871,6 +880,9 @@ public class CommitProcessor {
             }
          }
 
+         //Send the staged field and label changes with a single request before transitioning
+         executed &= flushIssueUpdate(downstreamIssue.getKey());
+
          if (downstreamIssueManager.getIssueStateMachine().getStateIndex(downstreamIssue.getState()) <
             downstreamIssueManager.getIssueStateMachine().getStateIndex(
                downstreamIssueManager.getIssueStateMachine().getIssueStateDevComplete())) {
@@ -1032,18 +1044,18 @@ public class CommitProcessor {
             Boolean.parseBoolean(commitTask.getUserArgs().get(USER_ARG_SKIP_TESTS)));
          commitTask.setResult(cherryPickedCommit.getName());
       } else if (commitTask.getType() == CommitTask.Type.ADD_LABEL_TO_DOWNSTREAM_ISSUE) {
-         downstreamIssueManager.addIssueLabels(commitTask.getArgs().get("issueKey"), commitTask.getArgs().get("label"));
+         stageIssueUpdate(commitTask).addLabels(commitTask.getArgs().get("label"));
       } else if (commitTask.getType() == CommitTask.Type.ADD_UPSTREAM_ISSUE_TO_DOWNSTREAM_ISSUE) {
-         downstreamIssueManager.addIssueUpstreamIssues(commitTask.getArgs().get("issueKey"), commitTask.getArgs().get("upstreamIssue"));
+         stageIssueUpdate(commitTask).addUpstreamIssues(commitTask.getArgs().get("upstreamIssue"));
       } else if (commitTask.getType() == CommitTask.Type.SET_DOWNSTREAM_ISSUE_TARGET_RELEASE) {
-         downstreamIssueManager.setIssueTargetRelease(commitTask.getArgs().get("issueKey"), commitTask.getArgs().get("targetRelease"));
+         stageIssueUpdate(commitTask).setTargetRelease(commitTask.getArgs().get("targetRelease"));
       } else if (commitTask.getType() == CommitTask.Type.TRANSITION_DOWNSTREAM_ISSUE) {
-         downstreamIssueManager.transitionIssue(commitTask.getArgs().get("issueKey"), commitTask.getArgs().get("state"));
+         transitionDownstreamIssue(commitTask.getArgs().get("issueKey"), commitTask.getArgs().get("state"), List.of(commitTask));
       } else if (commitTask.getType() == CommitTask.Type.CLONE_DOWNSTREAM_ISSUE) {
-         Issue clonedIssue = cloneDownstreamIssue(release, commitTask.getArgs().get("issueKey"));
+         Issue clonedIssue = cloneDownstreamIssue(release, commitTask.getArgs().get("issueKey"), List.of(commitTask));
          commitTask.setResult(clonedIssue.getKey());
       } else if (commitTask.getType() == CommitTask.Type.CLONE_UPSTREAM_ISSUE) {
-         Issue downstreamIssue = cloneUpstreamIssue(commit, release, commitTask.getArgs().get("issueKey"));
+         Issue downstreamIssue = cloneUpstreamIssue(commit, release, commitTask.getArgs().get("issueKey"), commitTask);
          commitTask.setResult(downstreamIssue.getKey());
       } else if (commitTask.getType() == CommitTask.Type.EXCLUDE_UPSTREAM_ISSUE) {
          String issueKey = commitTask.getArgs().get("issueKey");
@@ -1063,7 +1075,110 @@ public class CommitProcessor {
       commitTask.setState(CommitTask.State.DONE);
    }
 
-   private Issue cloneDownstreamIssue(String release, String issueKey) throws Exception {
+   private IssueUpdate stageIssueUpdate(CommitTask commitTask) {
+      Map.Entry<IssueUpdate, List<CommitTask>> pendingIssueUpdate = pendingIssueUpdates.computeIfAbsent(
+         commitTask.getArgs().get("issueKey"), issueKey -> new AbstractMap.SimpleEntry<>(new IssueUpdate(issueKey), new ArrayList<>()));
+
+      pendingIssueUpdate.getValue().add(commitTask);
+
+      return pendingIssueUpdate.getKey();
+   }
+
+   private boolean flushIssueUpdate(String issueKey) {
+      Map.Entry<IssueUpdate, List<CommitTask>> pendingIssueUpdate = pendingIssueUpdates.remove(issueKey);
+
+      if (pendingIssueUpdate == null || pendingIssueUpdate.getKey().isEmpty()) {
+         return true;
+      }
+
+      try {
+         updateDownstreamIssue(pendingIssueUpdate.getKey(), pendingIssueUpdate.getValue());
+      } catch (Exception e) {
+         logger.error("Issue update failed: " + e);
+         for (CommitTask commitTask : pendingIssueUpdate.getValue()) {
+            commitTask.setState(CommitTask.State.FAILED);
+            commitTask.setResult(e.getMessage());
+         }
+         return false;
+      }
+
+      return true;
+   }
+
+   public void awaitIssueMutations() {
+      if (mutationQueue != null) {
+         mutationQueue.await();
+      }
+
+      for (Map.Entry<CompletableFuture<Void>, List<CommitTask>> pendingIssueMutation : pendingIssueMutations) {
+         try {
+            pendingIssueMutation.getKey().join();
+         } catch (CompletionException | CancellationException e) {
+            for (CommitTask commitTask : pendingIssueMutation.getValue()) {
+               commitTask.setState(CommitTask.State.FAILED);
+               commitTask.setResult(DownstreamIssueMutationQueue.getCause(e).getMessage());
+            }
+         }
+      }
+
+      pendingIssueMutations.clear();
+   }
+
+   private void submitIssueMutation(String issueKey, List<CommitTask> commitTasks, DownstreamIssueMutationQueue.Mutation mutation) {
+      pendingIssueMutations.add(new AbstractMap.SimpleEntry<>(mutationQueue.submit(issueKey, mutation), commitTasks));
+   }
+
+   private void updateDownstreamIssue(IssueUpdate issueUpdate, List<CommitTask> commitTasks) throws Exception {
+      if (mutationQueue == null) {
+         downstreamIssueManager.updateIssue(issueUpdate);
+         return;
+      }
+
+      // Apply the update optimistically to the cached issue before writing it behind,
+      // the mutation only reads a snapshot of the update and of the upstream issues
+      Issue issue = downstreamIssueManager.getIssue(issueUpdate.getIssueKey());
+      List<String> upstreamIssueKeys = null;
+      if (issue != null) {
+         issueUpdate.applyTo(issue);
+         downstreamIssueManager.reindexIssue(issue.getKey());
+
+         if (!issueUpdate.getUpstreamIssues().isEmpty()) {
+            upstreamIssueKeys = List.copyOf(issue.getIssues());
+         }
+      }
+
+      // Labels of different issues are added together by the mutation queue
+      if (issueUpdate.getTargetRelease() == null && issueUpdate.getUpstreamIssues().isEmpty()) {
+         pendingIssueMutations.add(new AbstractMap.SimpleEntry<>(
+            mutationQueue.submitLabels(issueUpdate.getIssueKey(), issueUpdate.getLabels()), commitTasks));
+         return;
+      }
+
+      IssueUpdate writingIssueUpdate = issueUpdate.copy();
+      List<String> writingUpstreamIssueKeys = upstreamIssueKeys;
+      submitIssueMutation(issueUpdate.getIssueKey(), commitTasks,
+         () -> downstreamIssueManager.writeIssueUpdate(writingIssueUpdate, writingUpstreamIssueKeys));
+   }
+
+   private void transitionDownstreamIssue(String issueKey, String state, List<CommitTask> commitTasks) throws Exception {
+      if (mutationQueue != null) {
+         // Apply the transition optimistically to the cached issue before writing it behind
+         Issue issue = downstreamIssueManager.getIssue(issueKey);
+         String fromState = issue != null ? issue.getState() : null;
+         String issueType = issue != null ? issue.getType() : null;
+         if (issue != null) {
+            issue.setState(state);
+            downstreamIssueManager.reindexIssue(issueKey);
+         }
+
+         submitIssueMutation(issueKey, commitTasks,
+            () -> downstreamIssueManager.writeIssueTransition(issueKey, issueType, fromState, state));
+      } else {
+         downstreamIssueManager.transitionIssue(issueKey, state);
+      }
+   }
+
+   private Issue cloneDownstreamIssue(String release, String issueKey, List<CommitTask> commitTasks) throws Exception {
       Issue cloningIssue = downstreamIssueManager.getIssue(issueKey);
       ReleaseVersion releaseVersion = ReleaseVersion.fromString(release);
       String summaryPrefix = "[" + releaseVersion.getMajor() + "." + releaseVersion.getMinor() + "]";
@@ -1077,32 +1192,49 @@ public class CommitProcessor {
 
       String summary = summaryPrefix + " " + cloningIssue.getSummary();
 
-      Issue existingIssue = downstreamIssueManager.getIssues().stream().filter(
-         issue -> summary.equals(issue.getSummary())).findFirst().orElse(null);
+      Issue existingIssue = downstreamIssueManager.getIssuesBySummary(summary).stream().findFirst().orElse(null);
 
       if (existingIssue != null) {
          throw new IllegalStateException("Downstream issue with same summary already exist : " + existingIssue);
       }
 
-      Issue clonedIssue = downstreamIssueManager.createIssue(
-         summary, cloningIssue.getDescription(), cloningIssue.getType(),
-         cloningIssue.getAssignee(), release, labels);
+      String linkType = "Cloners";
+      String state = downstreamIssueManager.getIssueStateMachine().getIssueStateToDo();
+
+      Issue clonedIssue;
+      if (mutationQueue != null) {
+         // Only the creation is written through because the key of the cloned issue is required,
+         // the upstream issues, the link and the transition are written behind
+         clonedIssue = downstreamIssueManager.createClonedIssue(issueKey, summary, release, labels);
 
-      downstreamIssueManager.copyIssueUpstreamIssues(cloningIssue.getKey(), clonedIssue.getKey());
+         if (clonedIssue.getIssues().isEmpty() && !cloningIssue.getIssues().isEmpty()) {
+            updateDownstreamIssue(new IssueUpdate(clonedIssue.getKey()).addUpstreamIssues(
+               cloningIssue.getIssues().toArray(String[]::new)), commitTasks);
+         }
 
-      downstreamIssueManager.linkIssue(clonedIssue.getKey(), issueKey, "Cloners");
+         clonedIssue.getIssueLinks().add(new IssueLink(linkType, IssueLink.Direction.OUTWARD, issueKey));
+         cloningIssue.getIssueLinks().add(new IssueLink(linkType, IssueLink.Direction.INWARD, clonedIssue.getKey()));
+         String clonedIssueKey = clonedIssue.getKey();
+         downstreamIssueManager.reindexIssue(clonedIssueKey);
+         downstreamIssueManager.reindexIssue(issueKey);
+         submitIssueMutation(clonedIssueKey, commitTasks,
+            () -> downstreamIssueManager.writeIssueLink(clonedIssueKey, issueKey, linkType));
 
-      downstreamIssueManager.transitionIssue(clonedIssue.getKey(), downstreamIssueManager.getIssueStateMachine().getIssueStateToDo());
+         transitionDownstreamIssue(clonedIssueKey, state, commitTasks);
+      } else {
+         // Create the issue with the upstream issues, link and transition it with the minimum requests
+         clonedIssue = downstreamIssueManager.cloneIssue(issueKey, summary, release, labels, linkType, state);
+      }
 
+      // Mirror the links of the cloned issue to its upstream issues
       for (String upstreamIssueKey : clonedIssue.getIssues()) {
-         Issue upstreamIssue = upstreamIssueManager.getIssue(upstreamIssueKey);
-         upstreamIssue.getIssues().add(clonedIssue.getKey());
+         upstreamIssueManager.reindexIssue(upstreamIssueKey);
       }
 
       return clonedIssue;
    }
 
-   private Issue cloneUpstreamIssue(Commit commit, String release, String issueKey) throws Exception {
+   private Issue cloneUpstreamIssue(Commit commit, String release, String issueKey, CommitTask commitTask) throws Exception {
       Issue upstreamIssue = upstreamIssueManager.getIssue(issueKey);
 
       User assignee = userResolver.getUserFromUsername(commit.getAssignee());
@@ -1111,11 +1243,11 @@ public class CommitProcessor {
          upstreamIssue.getSummary(), upstreamIssue.getDescription(), downstreamIssueManager.getIssueTypeBug(),
          assignee.getDownstreamUserId(), release, Collections.emptyList());
 
-      downstreamIssueManager.addIssueUpstreamIssues(downstreamIssue.getKey(), upstreamIssue.getKey());
+      updateDownstreamIssue(new IssueUpdate(downstreamIssue.getKey()).addUpstreamIssues(upstreamIssue.getKey()), List.of(commitTask));
 
-      downstreamIssueManager.transitionIssue(downstreamIssue.getKey(), downstreamIssueManager.getIssueStateMachine().getIssueStateToDo());
+      transitionDownstreamIssue(downstreamIssue.getKey(), downstreamIssueManager.getIssueStateMachine().getIssueStateToDo(), List.of(commitTask));
 
-      upstreamIssue.getIssues().add(downstreamIssue.getKey());
+      upstreamIssueManager.reindexIssue(upstreamIssue.getKey());
 
       commit.getDownstreamIssues().add(new IssueReference(downstreamIssue));
 
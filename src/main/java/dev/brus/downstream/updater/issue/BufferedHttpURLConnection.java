@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// A completed response whose decoded body is kept in memory
+public class BufferedHttpURLConnection extends HttpURLConnection {
+   private final byte[] body;
+   private final Map<String, List<String>> headers;
+
+   public BufferedHttpURLConnection(URL url, int responseCode, Map<String, List<String>> headers, byte[] body) {
+      super(url);
+      this.responseCode = responseCode;
+      this.headers = headers;
+      this.body = body;
+      this.connected = true;
+   }
+
+   public byte[] getBody() {
+      return body;
+   }
+
+   @Override
+   public void connect() {
+   }
+
+   @Override
+   public void disconnect() {
+   }
+
+   @Override
+   public boolean usingProxy() {
+      return false;
+   }
+
+   @Override
+   public int getResponseCode() {
+      return responseCode;
+   }
+
+   @Override
+   public InputStream getInputStream() throws IOException {
+      if (responseCode >= HTTP_BAD_REQUEST) {
+         throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+      }
+      return new ByteArrayInputStream(body);
+   }
+
+   @Override
+   public InputStream getErrorStream() {
+      return responseCode >= HTTP_BAD_REQUEST ? new ByteArrayInputStream(body) : null;
+   }
+
+   @Override
+   public String getContentEncoding() {
+      // The body is stored decoded
+      return null;
+   }
+
+   @Override
+   public String getHeaderField(String name) {
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+         if (header.getKey() != null && header.getKey().equalsIgnoreCase(name) && header.getValue().size() > 0) {
+            return header.getValue().get(header.getValue().size() - 1);
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public Map<String, List<String>> getHeaderFields() {
+      return Collections.unmodifiableMap(headers);
+   }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+// Captures the request configured by a connection consumer without connecting
+public class CapturedHttpURLConnection extends HttpURLConnection {
+   private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+
+   public CapturedHttpURLConnection(URL url) {
+      super(url);
+   }
+
+   public byte[] getRequestBody() {
+      return requestBody.toByteArray();
+   }
+
+   @Override
+   public void connect() {
+   }
+
+   @Override
+   public void disconnect() {
+   }
+
+   @Override
+   public boolean usingProxy() {
+      return false;
+   }
+
+   @Override
+   public int getResponseCode() {
+      throw new IllegalStateException("Captured requests have no response");
+   }
+
+   @Override
+   public OutputStream getOutputStream() {
+      return requestBody;
+   }
+
+   public void applyTo(HttpURLConnection connection) throws IOException {
+      connection.setRequestMethod(getRequestMethod());
+      for (Map.Entry<String, List<String>> requestProperty : getRequestProperties().entrySet()) {
+         for (String value : requestProperty.getValue()) {
+            connection.setRequestProperty(requestProperty.getKey(), value);
+         }
+      }
+
+      if (getDoOutput()) {
+         connection.setDoOutput(true);
+         try (OutputStream outputStream = connection.getOutputStream()) {
+            requestBody.writeTo(outputStream);
+         }
+      }
+   }
+}
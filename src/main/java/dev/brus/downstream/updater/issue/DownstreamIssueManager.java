@@ -17,12 +17,23 @@
 
 package dev.brus.downstream.updater.issue;
 
+import java.io.File;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DownstreamIssueManager extends IssueManager {
 
    DownstreamIssueStateMachine getIssueStateMachine();
 
+   void setIssuesFilter(String issuesFilter);
+
+   void setIssuesReconciliationInterval(long issuesReconciliationInterval);
+
+   void setMetadataFile(File metadataFile);
+
+   void setMetadataExpiration(long metadataExpiration);
+
    String getIssueLabelNoBackportNeeded();
 
    String getIssueLabelNoTestingNeeded();
@@ -31,17 +42,41 @@ public interface DownstreamIssueManager extends IssueManager {
 
    void addIssueLabels(String issueKey, String... labels) throws Exception;
 
+   // Writes the labels without changing the cached issues, i.e. when they are written behind,
+   // returns the exceptions of the issues whose labels could not be added
+   Map<String, Exception> writeIssuesLabels(Map<String, ? extends Collection<String>> issuesLabels) throws Exception;
+
    void addIssueUpstreamIssues(String issueKey, String... upstreamIssues) throws Exception;
 
    void copyIssueUpstreamIssues(String fromIssueKey, String toIssueKey) throws Exception;
 
    void setIssueTargetRelease(String issueKey, String targetRelease) throws Exception;
 
+   void updateIssue(IssueUpdate issueUpdate) throws Exception;
+
+   // Writes the update without reading or changing the cached issue, i.e. when it is written behind,
+   // the upstream issue keys are the whole value of the upstream field or null to read it from the server
+   void writeIssueUpdate(IssueUpdate issueUpdate, List<String> upstreamIssueKeys) throws Exception;
+
    void transitionIssue(String issueKey, String finalStatus) throws Exception;
 
+   void transitionIssue(String issueKey, String fromStatus, String finalStatus) throws Exception;
+
+   // Writes the transition without reading or changing the cached issue, i.e. when it is written behind
+   void writeIssueTransition(String issueKey, String issueType, String fromStatus, String finalStatus) throws Exception;
+
    Issue createIssue(String summary, String description, String type, String assignee, String targetRelease, List<String> labels) throws Exception;
 
+   Issue cloneIssue(String cloningIssueKey, String summary, String targetRelease, List<String> labels, String linkType, String finalStatus) throws Exception;
+
+   // Creates the issue without linking and transitioning it, i.e. when they are written behind,
+   // the upstream issues of the cloning issue are only added when the create screen allows it
+   Issue createClonedIssue(String cloningIssueKey, String summary, String targetRelease, List<String> labels) throws Exception;
+
    void linkIssue(String issueKey, String cloningIssueKey, String linkType) throws Exception;
 
+   // Writes the link without changing the cached issues, i.e. when it is written behind
+   void writeIssueLink(String issueKey, String cloningIssueKey, String linkType) throws Exception;
+
    boolean isDuplicateIssue(String issueKey);
 }
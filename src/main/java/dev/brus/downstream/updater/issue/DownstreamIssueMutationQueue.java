@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class DownstreamIssueMutationQueue {
+   private final static Logger logger = LoggerFactory.getLogger(DownstreamIssueMutationQueue.class);
+
+   public final static int DEFAULT_MAX_RETRIES = 3;
+   public final static long DEFAULT_RETRY_DELAY = 1000;
+   public final static int DEFAULT_LABELS_BATCH_SIZE = 1000;
+   public final static long DEFAULT_LABELS_BATCH_DELAY = 100;
+
+   public interface Mutation {
+      void apply() throws Exception;
+   }
+
+   public interface LabelsMutation {
+      // Returns the exceptions of the issues whose labels could not be added
+      Map<String, Exception> apply(Map<String, ? extends Collection<String>> issuesLabels) throws Exception;
+   }
+
+   private final int maxRetries;
+   private final long retryDelay;
+   private final Executor executor;
+
+   // Last mutation of each issue, mutations of the same issue are applied in order
+   private final Map<String, CompletableFuture<Void>> issueMutations = new ConcurrentHashMap<>();
+
+   // Labels ready to be added, they are written with a single mutation after the batch delay
+   private final Map<String, Map.Entry<Set<String>, CompletableFuture<Void>>> pendingLabels = new LinkedHashMap<>();
+
+   private LabelsMutation labelsMutation;
+   private int labelsBatchSize = DEFAULT_LABELS_BATCH_SIZE;
+   private long labelsBatchDelay = DEFAULT_LABELS_BATCH_DELAY;
+
+   private final AtomicInteger pendingMutationCount = new AtomicInteger();
+   private final AtomicInteger failedMutationCount = new AtomicInteger();
+
+   public DownstreamIssueMutationQueue() {
+      this(DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY, IssueExecutors.getIoExecutor());
+   }
+
+   public DownstreamIssueMutationQueue(int maxRetries, long retryDelay, Executor executor) {
+      this.maxRetries = maxRetries;
+      this.retryDelay = retryDelay;
+      this.executor = executor;
+   }
+
+   public LabelsMutation getLabelsMutation() {
+      return labelsMutation;
+   }
+
+   public DownstreamIssueMutationQueue setLabelsMutation(LabelsMutation labelsMutation) {
+      this.labelsMutation = labelsMutation;
+      return this;
+   }
+
+   public int getLabelsBatchSize() {
+      return labelsBatchSize;
+   }
+
+   public DownstreamIssueMutationQueue setLabelsBatchSize(int labelsBatchSize) {
+      this.labelsBatchSize = labelsBatchSize;
+      return this;
+   }
+
+   public long getLabelsBatchDelay() {
+      return labelsBatchDelay;
+   }
+
+   public DownstreamIssueMutationQueue setLabelsBatchDelay(long labelsBatchDelay) {
+      this.labelsBatchDelay = labelsBatchDelay;
+      return this;
+   }
+
+   public int getPendingMutationCount() {
+      return pendingMutationCount.get();
+   }
+
+   public int getFailedMutationCount() {
+      return failedMutationCount.get();
+   }
+
+   public CompletableFuture<Void> submit(String issueKey, Mutation mutation) {
+      return submit(issueKey, () -> apply(issueKey, mutation, 0));
+   }
+
+   // Labels of different issues are added together, after the previous mutations of each issue
+   public CompletableFuture<Void> submitLabels(String issueKey, Collection<String> labels) {
+      if (labelsMutation == null) {
+         throw new IllegalStateException("Labels mutation not set");
+      }
+
+      Set<String> writingLabels = new LinkedHashSet<>(labels);
+      return submit(issueKey, () -> batchLabels(issueKey, writingLabels));
+   }
+
+   private CompletableFuture<Void> submit(String issueKey, Supplier<CompletableFuture<Void>> mutationApplier) {
+      pendingMutationCount.incrementAndGet();
+
+      CompletableFuture<Void> mutationFuture = issueMutations.compute(issueKey, (key, previousMutationFuture) ->
+         (previousMutationFuture != null ? previousMutationFuture.handle((result, e) -> (Void)null) :
+            CompletableFuture.<Void>completedFuture(null)).thenCompose(result -> mutationApplier.get())
+            .whenComplete((result, e) -> {
+               pendingMutationCount.decrementAndGet();
+               if (e != null) {
+                  failedMutationCount.incrementAndGet();
+                  logger.error("Failed to apply mutation to issue " + issueKey + ": " + getCause(e));
+               }
+            }));
+
+      mutationFuture.whenComplete((result, e) -> issueMutations.remove(issueKey, mutationFuture));
+
+      return mutationFuture;
+   }
+
+   public void await() {
+      CompletableFuture<?>[] mutationFutures = issueMutations.values().toArray(CompletableFuture[]::new);
+
+      logger.info("Waiting for " + pendingMutationCount.get() + " pending issue mutations");
+
+      CompletableFuture.allOf(mutationFutures).handle((result, e) -> null).join();
+
+      logger.info("Applied issue mutations, " + failedMutationCount.get() + " failed");
+   }
+
+   public static Throwable getCause(Throwable e) {
+      return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+   }
+
+   private CompletableFuture<Void> batchLabels(String issueKey, Set<String> labels) {
+      CompletableFuture<Void> labelsFuture = new CompletableFuture<>();
+
+      int pendingLabelsCount;
+      synchronized (pendingLabels) {
+         pendingLabels.put(issueKey, new AbstractMap.SimpleEntry<>(labels, labelsFuture));
+         pendingLabelsCount = pendingLabels.size();
+      }
+
+      if (pendingLabelsCount >= labelsBatchSize) {
+         executor.execute(this::flushLabels);
+      } else if (pendingLabelsCount == 1) {
+         CompletableFuture.runAsync(this::flushLabels,
+            CompletableFuture.delayedExecutor(labelsBatchDelay, TimeUnit.MILLISECONDS, executor));
+      }
+
+      return labelsFuture;
+   }
+
+   private void flushLabels() {
+      Map<String, Map.Entry<Set<String>, CompletableFuture<Void>>> batchLabels;
+      synchronized (pendingLabels) {
+         if (pendingLabels.isEmpty()) {
+            return;
+         }
+         batchLabels = new LinkedHashMap<>(pendingLabels);
+         pendingLabels.clear();
+      }
+
+      Map<String, Set<String>> issuesLabels = new LinkedHashMap<>();
+      batchLabels.forEach((issueKey, labelsEntry) -> issuesLabels.put(issueKey, labelsEntry.getKey()));
+
+      logger.debug("Adding labels to " + issuesLabels.size() + " issues");
+
+      Map<String, Exception> results;
+      try {
+         results = labelsMutation.apply(issuesLabels);
+      } catch (Exception e) {
+         results = new HashMap<>();
+         for (String issueKey : issuesLabels.keySet()) {
+            results.put(issueKey, e);
+         }
+      }
+
+      // The labels of the failed issues are retried one by one
+      for (Map.Entry<String, Map.Entry<Set<String>, CompletableFuture<Void>>> batchLabelsEntry : batchLabels.entrySet()) {
+         String issueKey = batchLabelsEntry.getKey();
+         Set<String> labels = batchLabelsEntry.getValue().getKey();
+         CompletableFuture<Void> labelsFuture = batchLabelsEntry.getValue().getValue();
+         Exception result = results != null ? results.get(issueKey) : null;
+
+         if (result == null) {
+            labelsFuture.complete(null);
+         } else {
+            Mutation mutation = () -> {
+               Exception e = labelsMutation.apply(Map.of(issueKey, labels)).get(issueKey);
+               if (e != null) {
+                  throw e;
+               }
+            };
+
+            retry(issueKey, mutation, 0, result).whenComplete((retryResult, e) -> {
+               if (e != null) {
+                  labelsFuture.completeExceptionally(getCause(e));
+               } else {
+                  labelsFuture.complete(null);
+               }
+            });
+         }
+      }
+   }
+
+   private CompletableFuture<Void> apply(String issueKey, Mutation mutation, int attempt) {
+      return CompletableFuture.runAsync(() -> {
+         try {
+            mutation.apply();
+         } catch (Exception e) {
+            throw new CompletionException(e);
+         }
+      }, executor).handle((result, e) -> e).thenCompose(e -> e == null ?
+         CompletableFuture.completedFuture(null) : retry(issueKey, mutation, attempt, e));
+   }
+
+   private CompletableFuture<Void> retry(String issueKey, Mutation mutation, int attempt, Throwable e) {
+      if (attempt + 1 >= maxRetries) {
+         return CompletableFuture.failedFuture(getCause(e));
+      }
+
+      long delay = retryDelay << attempt;
+      logger.debug("Failed to apply mutation to issue " + issueKey + ", retrying in " + delay + " milliseconds: " + e);
+      Executor delayedExecutor = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor);
+      return CompletableFuture.supplyAsync(() -> attempt + 1, delayedExecutor)
+         .thenCompose(nextAttempt -> apply(issueKey, mutation, nextAttempt));
+   }
+}
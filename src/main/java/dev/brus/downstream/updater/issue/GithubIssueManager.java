@@ -20,25 +20,25 @@ package dev.brus.downstream.updater.issue;
 import java.io.File;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.Charset;
+import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,12 +49,13 @@ public class GithubIssueManager implements IssueManager {
 
    private final static String dateFormatPattern = "yyyy-MM-dd'T'HH:mm:SS'Z'";
 
-   private final static Pattern serverURLPattern = Pattern.compile("https://api.github.com/repos/([^/]+)/([^/]+)/issues");
+   private final static Pattern serverURLPattern = Pattern.compile("https?://[^/]+/repos/([^/]+)/([^/]+)/issues");
 
    private String serverURL;
    private String authString;
    private String projectKey;
    private String issueBaseUrl;
+   private IssueHttpTransport transport;
 
    private String owner;
 
@@ -62,11 +63,22 @@ public class GithubIssueManager implements IssueManager {
 
    private Map<String, Issue> issues;
 
+   private IssueIndex issueIndex;
+
+   private IssueLinkGraph linkGraph;
+
+   private Set<String> missingIssueKeys;
+
+   // Issues changed since the last store
+   private Set<String> dirtyIssueKeys;
+
+   private volatile boolean readThrough;
+
    protected final SimpleDateFormat defaultDateFormat = new SimpleDateFormat(dateFormatPattern);
 
-   private Gson gson = new GsonBuilder().setDateFormat(dateFormatPattern).setPrettyPrinting().create();
+   private IssueStore issueStore;
 
-   private Pattern issueKeyPattern;
+   private IssueKeyScanner issueKeyScanner;
 
    @Override
    public void load() throws Exception {
@@ -93,6 +105,11 @@ public class GithubIssueManager implements IssueManager {
       return issueBaseUrl;
    }
 
+   @Override
+   public IssueHttpTransport getTransport() {
+      return transport;
+   }
+
    public GithubIssueManager(String serverURL, String authString, String projectKey) {
       Matcher serverURLMatcher = serverURLPattern.matcher(serverURL);
 
@@ -103,17 +120,58 @@ public class GithubIssueManager implements IssueManager {
       this.serverURL = serverURL;
       this.authString = authString;
       this.projectKey = projectKey;
-      this.issues = new HashMap<>();
+      this.issues = new ConcurrentHashMap<>();
+      this.issueIndex = new IssueIndex();
+      this.linkGraph = new IssueLinkGraph();
+      this.missingIssueKeys = ConcurrentHashMap.newKeySet();
+      this.dirtyIssueKeys = ConcurrentHashMap.newKeySet();
+      this.transport = new IssueHttpTransport(serverURL, authString,
+         Map.of("Accept", "application/vnd.github+json"));
 
       this.owner = serverURLMatcher.group(1);
       this.repo = serverURLMatcher.group(2);
       this.issueBaseUrl = "https://github.com/" + owner + "/" + repo + "/issues";
-      this.issueKeyPattern = Pattern.compile("(https://github.com/" + this.owner + "/" + this.repo + "/issues/|" + projectKey + "-|\\[#)([0-9]+)");
+      this.issueKeyScanner = new IssueKeyScanner()
+         .addPrefix("https://github.com/" + this.owner + "/" + this.repo + "/issues/", projectKey + "-")
+         .addPrefix(projectKey + "-")
+         .addPrefix("[#", projectKey + "-");
   }
 
+   @Override
+   public IssueLinkGraph getLinkGraph() {
+      return linkGraph;
+   }
+
+   @Override
+   public void setLinkGraph(IssueLinkGraph linkGraph) {
+      this.linkGraph = linkGraph;
+   }
+
+   @Override
+   public boolean isReadThrough() {
+      return readThrough;
+   }
+
+   @Override
+   public void setReadThrough(boolean readThrough) {
+      this.readThrough = readThrough;
+   }
+
    @Override
    public Issue getIssue(String key) {
-      return issues.get(key);
+      Issue issue = issues.get(key);
+
+      if (issue == null && readThrough && key != null && !missingIssueKeys.contains(key) &&
+         key.startsWith(projectKey + "-")) {
+         try {
+            loadIssues(List.of(key));
+            issue = issues.get(key);
+         } catch (Exception e) {
+            logger.warn("Error loading issue " + key + ": " + e);
+         }
+      }
+
+      return issue;
    }
 
    @Override
@@ -121,6 +179,38 @@ public class GithubIssueManager implements IssueManager {
       return issues.values();
    }
 
+   @Override
+   public List<Issue> getIssuesBySummary(String summary) {
+      // Issue summaries could change after being indexed
+      return issueIndex.getIssueKeysBySummary(summary).stream().map(issues::get)
+         .filter(issue -> issue != null && summary.equals(issue.getSummary())).collect(Collectors.toList());
+   }
+
+   @Override
+   public void reindexIssue(String key) {
+      Issue issue = issues.get(key);
+      if (issue != null) {
+         updateLinks(issue);
+         issueIndex.update(issue);
+         dirtyIssueKeys.add(key);
+      } else {
+         issueIndex.remove(key);
+      }
+   }
+
+   private void addIssue(Issue issue) {
+      issue.compact();
+      updateLinks(issue);
+      issues.put(issue.getKey(), issue);
+      issueIndex.update(issue);
+      dirtyIssueKeys.add(issue.getKey());
+   }
+
+   // The linked issues of the upstream issues mirror the links of the downstream issues
+   private void updateLinks(Issue issue) {
+      linkGraph.mirrorTo(issue);
+   }
+
    @Override
    public String getIssueTypeBug() {
       return ISSUE_TYPE_BUG;
@@ -160,6 +250,7 @@ public class GithubIssueManager implements IssueManager {
       long endTimestamp = System.nanoTime();
 
       logger.info("Loaded " + count + " issues in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+      logger.info("Transferred " + transport.getStatistics());
    }
 
 
@@ -168,15 +259,15 @@ public class GithubIssueManager implements IssueManager {
 
       HttpURLConnection connection = createConnection("?page=" + page + "&per_page=" + maxResults + query);
       try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
+         try (InputStreamReader inputStreamReader = new InputStreamReader(transport.getInputStream(connection))) {
             JsonArray issuesArray = JsonParser.parseReader(inputStreamReader).getAsJsonArray();
 
             for (JsonElement issueElement : issuesArray) {
                JsonObject issueObject = issueElement.getAsJsonObject();
 
-               Issue issue = parseIssue(issueObject);
+               Issue issue = parseIssue(issueObject, defaultDateFormat);
 
-               issues.put(issue.getKey(), issue);
+               addIssue(issue);
 
                result++;
             }
@@ -189,45 +280,91 @@ public class GithubIssueManager implements IssueManager {
    }
 
    @Override
-   public void loadIssues(File file) throws Exception {
-      Date lastUpdated = null;
+   public void loadIssues(Collection<String> keys) throws Exception {
+      List<String> issueNumbers = keys.stream().filter(key -> key != null && key.startsWith(projectKey + "-"))
+         .map(key -> key.substring(projectKey.length() + 1)).distinct().collect(Collectors.toList());
 
-      Issue[] issuesArray = gson.fromJson(FileUtils.readFileToString(
-         file, Charset.defaultCharset()), Issue[].class);
+      long beginTimestamp = System.nanoTime();
 
-      if (issuesArray != null) {
-         for (Issue issue : issuesArray) {
-            issues.put(issue.getKey(), issue);
+      int count = 0;
+      List<Future<Boolean>> loadFutures = new ArrayList<>();
+      for (String issueNumber : issueNumbers) {
+         if (IssueExecutors.isIoThread()) {
+            // Avoid waiting for I/O tasks from an I/O thread
+            count += loadIssue(issueNumber) ? 1 : 0;
+         } else {
+            loadFutures.add(IssueExecutors.getIoExecutor().submit(() -> loadIssue(issueNumber)));
+         }
+      }
 
-            if (lastUpdated == null || lastUpdated.before(issue.getUpdated())) {
-               lastUpdated = issue.getUpdated();
-            }
+      try {
+         for (Future<Boolean> loadFuture : loadFutures) {
+            count += loadFuture.get() ? 1 : 0;
+         }
+      } catch (Exception e) {
+         loadFutures.forEach(future -> future.cancel(true));
+         throw e;
+      }
+
+      long endTimestamp = System.nanoTime();
+      logger.info("Loaded " + count + "/" + issueNumbers.size() + " requested issues in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+   }
+
+   private boolean loadIssue(String issueNumber) throws Exception {
+      HttpURLConnection connection = createConnection("/" + issueNumber);
+      try {
+         if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+            missingIssueKeys.add(projectKey + "-" + issueNumber);
+            return false;
+         }
+
+         try (InputStreamReader inputStreamReader = new InputStreamReader(transport.getInputStream(connection))) {
+            Issue issue = parseIssue(JsonParser.parseReader(inputStreamReader).getAsJsonObject(),
+               new SimpleDateFormat(dateFormatPattern));
+
+            addIssue(issue);
          }
+      } finally {
+         connection.disconnect();
       }
 
-      loadIssues(lastUpdated);
+      return true;
    }
 
    @Override
-   public void storeIssues(File file) throws Exception {
-      FileUtils.writeStringToFile(file, gson.toJson(issues.values()), Charset.defaultCharset());
+   public void loadIssues(File file) throws Exception {
+      AtomicLong lastUpdated = new AtomicLong(Issue.NO_TIME);
+
+      // The cached issues are loaded in parallel and the watermark is computed on the fly
+      getIssueStore(file).load(issue -> {
+         addIssue(issue);
+
+         lastUpdated.accumulateAndGet(issue.getUpdatedTime(), Math::max);
+      });
+      dirtyIssueKeys.clear();
+
+      loadIssues(lastUpdated.get() != Issue.NO_TIME ? new Date(lastUpdated.get()) : null);
    }
 
    @Override
-   public List<String> parseIssueKeys(String s) {
-      List <String> issueKeys = new ArrayList<>();
-      Matcher issueKeyMatcher = issueKeyPattern.matcher(s);
+   public void storeIssues(File file) throws Exception {
+      getIssueStore(file).store(issues, dirtyIssueKeys);
+   }
 
-      while (issueKeyMatcher.find()) {
-         String issueNumber = issueKeyMatcher.group(2);
-         String upstreamIssueKey = projectKey + "-" + issueNumber;
-         issueKeys.add(upstreamIssueKey);
+   public synchronized IssueStore getIssueStore(File file) {
+      if (issueStore == null || !issueStore.getFile().equals(file)) {
+         issueStore = new IssueStore(file, dateFormatPattern);
       }
+      return issueStore;
+   }
 
-      return issueKeys;
+   @Override
+   public List<String> parseIssueKeys(String s) {
+      // The callers could change the parsed keys
+      return new ArrayList<>(issueKeyScanner.scan(s));
    }
 
-   private Issue parseIssue(JsonObject issueObject) throws Exception {
+   private Issue parseIssue(JsonObject issueObject, DateFormat dateFormat) throws Exception {
       int issueNumber = issueObject.getAsJsonPrimitive("number").getAsInt();
       String issueKey = projectKey + "-" + issueNumber;
       logger.debug("loading issue " + issueKey);
@@ -247,8 +384,8 @@ public class GithubIssueManager implements IssueManager {
          issueType = "Enhancement";
       }
       String issueSummary = issueObject.getAsJsonPrimitive("title").getAsString();
-      Date issueCreated = defaultDateFormat.parse(issueObject.getAsJsonPrimitive("created_at").getAsString());
-      Date issueUpdated = defaultDateFormat.parse(issueObject.getAsJsonPrimitive("updated_at").getAsString());
+      Date issueCreated = dateFormat.parse(issueObject.getAsJsonPrimitive("created_at").getAsString());
+      Date issueUpdated = dateFormat.parse(issueObject.getAsJsonPrimitive("updated_at").getAsString());
       String issueUrl = issueObject.getAsJsonPrimitive("html_url").getAsString();
 
       Issue issue = new Issue()
@@ -286,14 +423,6 @@ public class GithubIssueManager implements IssueManager {
    }
 
    private HttpURLConnection createConnection(String url) throws Exception {
-      URL upstreamJIRA = new URL(serverURL + url);
-      HttpURLConnection connection = (HttpURLConnection)upstreamJIRA.openConnection();
-      connection.setRequestProperty("Accept", "application/vnd.github+json");
-
-      if (authString != null) {
-         connection.setRequestProperty("Authorization", authString);
-      }
-
-      return connection;
+      return transport.createConnection(url, null);
    }
 }
@@ -20,8 +20,19 @@ package dev.brus.downstream.updater.issue;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+
+import dev.brus.downstream.updater.util.ReleaseVersion;
 
 public class Issue {
+   public final static long NO_TIME = Long.MIN_VALUE;
+   public final static long NO_DESCRIPTION_REF = -1;
+
+   // Low-cardinality values like states, types, users and labels are shared by all the issues
+   private final static Map<String, String> values = new ConcurrentHashMap<>();
+
    private String key;
    private String creator;
    private String assignee;
@@ -33,8 +44,9 @@ public class Issue {
    private List<String> components;
    private List<String> labels;
    private List<String> issues;
-   private Date created;
-   private Date updated;
+   private List<IssueLink> issueLinks;
+   private long created = NO_TIME;
+   private long updated = NO_TIME;
    private String url;
 
    private boolean customer;
@@ -43,24 +55,85 @@ public class Issue {
    private boolean security;
    private IssueSecurityImpact securityImpact;
    private String targetRelease;
+   private transient ReleaseVersion targetReleaseVersion;
    private boolean documentation;
    private String resolution;
 
+   // Descriptions offloaded to an issue store are loaded on demand, the reference is boxed
+   // to be serialized apart from the timestamps and it is null when the description is not offloaded
+   private Long descriptionRef;
+   private transient LongFunction<String> descriptionLoader;
+
+   public static String intern(String value) {
+      if (value == null) {
+         return null;
+      }
+      String internedValue = values.putIfAbsent(value, value);
+      return internedValue != null ? internedValue : value;
+   }
+
    public String getDescription() {
+      if (description == null && descriptionLoader != null) {
+         return descriptionLoader.apply(descriptionRef);
+      }
       return description;
    }
 
    public Issue setDescription(String description) {
       this.description = description;
+      this.descriptionRef = null;
+      this.descriptionLoader = null;
+      return this;
+   }
+
+   String getLoadedDescription() {
+      return description;
+   }
+
+   long getDescriptionRef() {
+      return descriptionRef != null ? descriptionRef : NO_DESCRIPTION_REF;
+   }
+
+   void offloadDescription(long descriptionRef, LongFunction<String> descriptionLoader) {
+      this.description = null;
+      this.descriptionRef = descriptionRef;
+      this.descriptionLoader = descriptionLoader;
+   }
+
+   // Interns the values set without the setters, i.e. by Gson
+   public Issue compact() {
+      creator = intern(creator);
+      assignee = intern(assignee);
+      reporter = intern(reporter);
+      state = intern(state);
+      type = intern(type);
+      targetRelease = intern(targetRelease);
+      targetReleaseVersion = ReleaseVersion.parse(targetRelease);
+      resolution = intern(resolution);
+      compact(components);
+      compact(labels);
+      if (issueLinks != null) {
+         issueLinks.forEach(IssueLink::compact);
+         if (issueLinks instanceof ArrayList) {
+            ((ArrayList<IssueLink>)issueLinks).trimToSize();
+         }
+      }
       return this;
    }
 
+   private static void compact(List<String> list) {
+      if (list instanceof ArrayList) {
+         list.replaceAll(Issue::intern);
+         ((ArrayList<String>)list).trimToSize();
+      }
+   }
+
    public String getAssignee() {
       return assignee;
    }
 
    public Issue setAssignee(String assignee) {
-      this.assignee = assignee;
+      this.assignee = intern(assignee);
       return this;
    }
 
@@ -69,7 +142,7 @@ public class Issue {
    }
 
    public Issue setReporter(String reporter) {
-      this.reporter = reporter;
+      this.reporter = intern(reporter);
       return this;
    }
 
@@ -78,10 +151,19 @@ public class Issue {
    }
 
    public Issue setTargetRelease(String targetRelease) {
-      this.targetRelease = targetRelease;
+      this.targetRelease = intern(targetRelease);
+      this.targetReleaseVersion = ReleaseVersion.parse(targetRelease);
       return this;
    }
 
+   // Null if the target release is missing or invalid, parsed when the issue is loaded
+   public ReleaseVersion getTargetReleaseVersion() {
+      if (targetReleaseVersion == null && targetRelease != null) {
+         targetReleaseVersion = ReleaseVersion.parse(targetRelease);
+      }
+      return targetReleaseVersion;
+   }
+
    public boolean isCustomer() {
       return customer;
    }
@@ -132,7 +214,7 @@ public class Issue {
    }
 
    public Issue setCreator(String creator) {
-      this.creator = creator;
+      this.creator = intern(creator);
       return this;
    }
 
@@ -141,7 +223,7 @@ public class Issue {
    }
 
    public Issue setState(String state) {
-      this.state = state;
+      this.state = intern(state);
       return this;
    }
 
@@ -163,6 +245,30 @@ public class Issue {
       return issues;
    }
 
+   // Most of the issues have no links so the list is created when required
+   public List<IssueLink> getIssueLinks() {
+      if (issueLinks == null) {
+         issueLinks = new ArrayList<>();
+      }
+      return issueLinks;
+   }
+
+   public boolean hasIssueLinks() {
+      return issueLinks != null && !issueLinks.isEmpty();
+   }
+
+   public List<String> getLinkedIssueKeys(String type, IssueLink.Direction direction) {
+      List<String> linkedIssueKeys = new ArrayList<>();
+      if (issueLinks != null) {
+         for (IssueLink issueLink : issueLinks) {
+            if (issueLink.getDirection() == direction && type.equals(issueLink.getType())) {
+               linkedIssueKeys.add(issueLink.getKey());
+            }
+         }
+      }
+      return linkedIssueKeys;
+   }
+
    public String getKey() {
       return key;
    }
@@ -177,7 +283,7 @@ public class Issue {
    }
 
    public Issue setType(String type) {
-      this.type = type;
+      this.type = intern(type);
       return this;
    }
 
@@ -191,19 +297,37 @@ public class Issue {
    }
 
    public Date getCreated() {
-      return created;
+      return created != NO_TIME ? new Date(created) : null;
    }
 
    public Issue setCreated(Date created) {
+      this.created = created != null ? created.getTime() : NO_TIME;
+      return this;
+   }
+
+   public long getCreatedTime() {
+      return created;
+   }
+
+   public Issue setCreatedTime(long created) {
       this.created = created;
       return this;
    }
 
    public Date getUpdated() {
-      return updated;
+      return updated != NO_TIME ? new Date(updated) : null;
    }
 
    public Issue setUpdated(Date updated) {
+      this.updated = updated != null ? updated.getTime() : NO_TIME;
+      return this;
+   }
+
+   public long getUpdatedTime() {
+      return updated;
+   }
+
+   public Issue setUpdatedTime(long updated) {
       this.updated = updated;
       return this;
    }
@@ -231,7 +355,7 @@ public class Issue {
    }
 
    public Issue setResolution(String resolution) {
-      this.resolution = resolution;
+      this.resolution = intern(resolution);
       return this;
    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public final class IssueExecutors {
+   private final static Logger logger = LoggerFactory.getLogger(IssueExecutors.class);
+
+   public final static String IO_THREADS_PROPERTY = "downstream.updater.issues.io.threads";
+   public final static String VIRTUAL_THREADS_PROPERTY = "downstream.updater.issues.virtual.threads";
+
+   private final static String IO_THREAD_NAME_PREFIX = "issues-io-";
+   private final static String CPU_THREAD_NAME_PREFIX = "issues-cpu-";
+
+   private static int ioThreads = Integer.getInteger(IO_THREADS_PROPERTY,
+      Math.min(Runtime.getRuntime().availableProcessors() * 3, 50));
+
+   private static boolean virtualThreads = Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY);
+
+   // Tasks running on the I/O executor must not block waiting for other I/O tasks
+   private static ExecutorService ioExecutor;
+
+   private static ExecutorService cpuExecutor;
+
+   private IssueExecutors() {
+   }
+
+   public static synchronized int getIoThreads() {
+      return ioThreads;
+   }
+
+   public static synchronized boolean isVirtualThreads() {
+      return virtualThreads;
+   }
+
+   public static synchronized void configure(int ioThreads, boolean virtualThreads) {
+      if (ioThreads < 1) {
+         throw new IllegalArgumentException("Invalid number of I/O threads: " + ioThreads);
+      }
+
+      if (ioExecutor != null && (IssueExecutors.ioThreads != ioThreads || IssueExecutors.virtualThreads != virtualThreads)) {
+         ioExecutor.shutdown();
+         ioExecutor = null;
+      }
+
+      IssueExecutors.ioThreads = ioThreads;
+      IssueExecutors.virtualThreads = virtualThreads;
+   }
+
+   public static synchronized ExecutorService getIoExecutor() {
+      if (ioExecutor == null) {
+         ioExecutor = createExecutor(ioThreads, createThreadFactory(IO_THREAD_NAME_PREFIX, virtualThreads));
+         logger.debug("Created I/O executor with " + ioThreads + (virtualThreads ? " virtual" : "") + " threads");
+      }
+
+      return ioExecutor;
+   }
+
+   public static synchronized ExecutorService getCpuExecutor() {
+      if (cpuExecutor == null) {
+         int cpuThreads = Runtime.getRuntime().availableProcessors();
+         cpuExecutor = createExecutor(cpuThreads, createThreadFactory(CPU_THREAD_NAME_PREFIX, false));
+         logger.debug("Created CPU executor with " + cpuThreads + " threads");
+      }
+
+      return cpuExecutor;
+   }
+
+   public static boolean isIoThread() {
+      return Thread.currentThread().getName().startsWith(IO_THREAD_NAME_PREFIX);
+   }
+
+   private static ExecutorService createExecutor(int threads, ThreadFactory threadFactory) {
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+         60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+   }
+
+   private static ThreadFactory createThreadFactory(String namePrefix, boolean virtual) {
+      if (virtual) {
+         try {
+            // Thread.ofVirtual() is only available on Java 21+, the build targets Java 11
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+         } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads not available, falling back to platform threads: " + e);
+         }
+      }
+
+      AtomicInteger threadCount = new AtomicInteger();
+      return runnable -> {
+         Thread thread = new Thread(runnable, namePrefix + threadCount.getAndIncrement());
+         thread.setDaemon(true);
+         return thread;
+      };
+   }
+}
@@ -0,0 +1,207 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IssueHttpArchive implements Closeable {
+   private final static Logger logger = LoggerFactory.getLogger(IssueHttpArchive.class);
+
+   public enum Mode {
+      RECORD,
+      REPLAY;
+
+      public static Mode fromName(String name) {
+         return Mode.valueOf(name.toUpperCase());
+      }
+   }
+
+   private final File file;
+   private final Mode mode;
+
+   private final Gson gson = new Gson();
+
+   private Writer writer;
+
+   // Recorded exchanges by request, replayed in the recorded order
+   private final Map<String, Deque<Exchange>> exchanges = new ConcurrentHashMap<>();
+
+   private long latency;
+   private long latencyJitter;
+
+   private final AtomicLong exchangeCount = new AtomicLong();
+
+   public IssueHttpArchive(File file, Mode mode) throws IOException {
+      this.file = file;
+      this.mode = mode;
+
+      if (mode == Mode.RECORD) {
+         writer = new BufferedWriter(new OutputStreamWriter(
+            new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8));
+      } else {
+         try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+               Exchange exchange = gson.fromJson(line, Exchange.class);
+               exchanges.computeIfAbsent(getRequestKey(exchange.method, exchange.url, exchange.requestHash),
+                  key -> new ArrayDeque<>()).add(exchange);
+               exchangeCount.incrementAndGet();
+            }
+         }
+
+         logger.info("Loaded " + exchangeCount.get() + " exchanges from " + file);
+      }
+   }
+
+   public File getFile() {
+      return file;
+   }
+
+   public Mode getMode() {
+      return mode;
+   }
+
+   public long getLatency() {
+      return latency;
+   }
+
+   public IssueHttpArchive setLatency(long latency) {
+      this.latency = latency;
+      return this;
+   }
+
+   public long getLatencyJitter() {
+      return latencyJitter;
+   }
+
+   public IssueHttpArchive setLatencyJitter(long latencyJitter) {
+      this.latencyJitter = latencyJitter;
+      return this;
+   }
+
+   public long getExchangeCount() {
+      return exchangeCount.get();
+   }
+
+   public void record(String method, URL url, byte[] requestBody, int responseCode,
+                      Map<String, List<String>> headers, byte[] responseBody) throws IOException {
+      Exchange exchange = new Exchange();
+      exchange.method = method;
+      exchange.url = url.toString();
+      exchange.requestHash = hash(requestBody);
+      exchange.responseCode = responseCode;
+      exchange.headers = headers;
+      exchange.body = new String(responseBody, StandardCharsets.UTF_8);
+
+      String line = gson.toJson(exchange);
+      synchronized (this) {
+         writer.write(line);
+         writer.write('\n');
+      }
+      exchangeCount.incrementAndGet();
+   }
+
+   public HttpURLConnection replay(String method, URL url, byte[] requestBody) throws Exception {
+      String requestKey = getRequestKey(method, url.toString(), hash(requestBody));
+      Deque<Exchange> requestExchanges = exchanges.get(requestKey);
+      if (requestExchanges == null) {
+         throw new IOException("No recorded exchange for " + method + " " + url);
+      }
+
+      Exchange exchange;
+      synchronized (requestExchanges) {
+         // The last exchange of a request is replayed for any further identical request
+         exchange = requestExchanges.size() > 1 ? requestExchanges.poll() : requestExchanges.peek();
+      }
+
+      long delay = latency + (latencyJitter > 0 ? ThreadLocalRandom.current().nextLong(latencyJitter) : 0);
+      if (delay > 0) {
+         Thread.sleep(delay);
+      }
+
+      return new BufferedHttpURLConnection(url, exchange.responseCode, exchange.headers,
+         exchange.body.getBytes(StandardCharsets.UTF_8));
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      if (writer != null) {
+         writer.close();
+         writer = null;
+
+         logger.info("Recorded " + exchangeCount.get() + " exchanges to " + file);
+      }
+   }
+
+   private static String getRequestKey(String method, String url, String requestHash) {
+      return method + " " + url + (requestHash != null ? " " + requestHash : "");
+   }
+
+   private static String hash(byte[] requestBody) {
+      if (requestBody == null || requestBody.length == 0) {
+         return null;
+      }
+
+      try {
+         MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+         StringBuilder hash = new StringBuilder();
+         for (byte digestByte : messageDigest.digest(requestBody)) {
+            hash.append(String.format("%02x", digestByte));
+         }
+         return hash.toString();
+      } catch (Exception e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   private static class Exchange {
+      private String method;
+      private String url;
+      private String requestHash;
+      private int responseCode;
+      private Map<String, List<String>> headers;
+      private String body;
+   }
+}
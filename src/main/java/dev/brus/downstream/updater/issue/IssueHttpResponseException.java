@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.IOException;
+
+// Thrown when the server returned an error response, unlike the transport errors the request was not processed
+public class IssueHttpResponseException extends IOException {
+   private final int responseCode;
+   private final String responseError;
+
+   public IssueHttpResponseException(int responseCode, String responseError, Throwable cause) {
+      super("Server returned HTTP response error: " + responseError, cause);
+      this.responseCode = responseCode;
+      this.responseError = responseError;
+   }
+
+   public int getResponseCode() {
+      return responseCode;
+   }
+
+   public String getResponseError() {
+      return responseError;
+   }
+}
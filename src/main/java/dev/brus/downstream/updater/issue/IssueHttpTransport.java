@@ -0,0 +1,292 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IssueHttpTransport {
+   private final static Logger logger = LoggerFactory.getLogger(IssueHttpTransport.class);
+
+   private final static int MAX_RETRIES = 9;
+
+   private final static String GZIP_ENCODING = "gzip";
+
+   private final String serverURL;
+   private final String authString;
+   private final Map<String, String> requestProperties;
+
+   private final AtomicLong requestCount = new AtomicLong();
+   private final AtomicLong receivedBytes = new AtomicLong();
+   private final AtomicLong decodedBytes = new AtomicLong();
+
+   private IssueResponseCache responseCache;
+
+   private IssueHttpArchive archive;
+
+   public IssueHttpTransport(String serverURL, String authString, Map<String, String> requestProperties) {
+      this.serverURL = serverURL;
+      this.authString = authString;
+      this.requestProperties = requestProperties;
+   }
+
+   public String getServerURL() {
+      return serverURL;
+   }
+
+   public IssueResponseCache getResponseCache() {
+      return responseCache;
+   }
+
+   public IssueHttpTransport setResponseCache(IssueResponseCache responseCache) {
+      this.responseCache = responseCache;
+      return this;
+   }
+
+   public IssueHttpArchive getArchive() {
+      return archive;
+   }
+
+   public IssueHttpTransport setArchive(IssueHttpArchive archive) {
+      this.archive = archive;
+      return this;
+   }
+
+   public long getRequestCount() {
+      return requestCount.get();
+   }
+
+   public long getReceivedBytes() {
+      return receivedBytes.get();
+   }
+
+   public long getDecodedBytes() {
+      return decodedBytes.get();
+   }
+
+   public HttpURLConnection createConnection(String url, Consumer<HttpURLConnection> connectionConsumer) throws Exception {
+      URL connectionURL = new URL(serverURL + url);
+
+      if (archive != null) {
+         return createArchivedConnection(connectionURL, connectionConsumer);
+      }
+
+      for (int i = 0; i < MAX_RETRIES; i++) {
+         HttpURLConnection connection = openConnection(connectionURL);
+
+         if (connectionConsumer != null) {
+            connectionConsumer.accept(connection);
+         }
+
+         boolean cacheable = responseCache != null &&
+            "GET".equals(connection.getRequestMethod()) && !connection.getDoOutput();
+
+         IssueResponseCache.Entry cachedEntry = cacheable ? responseCache.get(connectionURL.toString(), authString) : null;
+         if (cachedEntry != null) {
+            if (responseCache.isFresh(cachedEntry)) {
+               logger.debug("Using cached response for " + connectionURL);
+               responseCache.hit();
+               return createBufferedConnection(connectionURL, cachedEntry);
+            }
+
+            if (cachedEntry.getEtag() != null) {
+               connection.setRequestProperty("If-None-Match", cachedEntry.getEtag());
+            }
+            if (cachedEntry.getLastModified() != null) {
+               connection.setRequestProperty("If-Modified-Since", cachedEntry.getLastModified());
+            }
+         }
+
+         requestCount.incrementAndGet();
+
+         int responseCode = connection.getResponseCode();
+         if (responseCode == 429) {
+            logger.debug("Rate limit reached, sleeping before retrying");
+            connection.disconnect();
+            Thread.sleep((long)(3000 * Math.random()));
+         } else if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && cachedEntry != null) {
+            connection.disconnect();
+            responseCache.revalidated(authString, cachedEntry);
+            return createBufferedConnection(connectionURL, cachedEntry);
+         } else if (responseCode == HttpURLConnection.HTTP_OK && cacheable && responseCache.isStorable(
+            connectionURL.toString(), connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"))) {
+            return cacheResponse(connectionURL, connection);
+         } else {
+            return connection;
+         }
+      }
+
+      throw new IOException("Failed to create a connection to " + connectionURL + ". Maximum retries reached.");
+   }
+
+   private HttpURLConnection createArchivedConnection(URL connectionURL, Consumer<HttpURLConnection> connectionConsumer) throws Exception {
+      CapturedHttpURLConnection capturedConnection = new CapturedHttpURLConnection(connectionURL);
+      if (connectionConsumer != null) {
+         connectionConsumer.accept(capturedConnection);
+      }
+
+      requestCount.incrementAndGet();
+
+      if (archive.getMode() == IssueHttpArchive.Mode.REPLAY) {
+         logger.info("Replaying " + connectionURL);
+         return archive.replay(capturedConnection.getRequestMethod(), connectionURL, capturedConnection.getRequestBody());
+      }
+
+      for (int i = 0; i < MAX_RETRIES; i++) {
+         HttpURLConnection connection = openConnection(connectionURL);
+         capturedConnection.applyTo(connection);
+
+         int responseCode = connection.getResponseCode();
+         if (responseCode == 429) {
+            logger.debug("Rate limit reached, sleeping before retrying");
+            connection.disconnect();
+            Thread.sleep((long)(3000 * Math.random()));
+            requestCount.incrementAndGet();
+            continue;
+         }
+
+         byte[] body;
+         try {
+            InputStream inputStream = responseCode < HttpURLConnection.HTTP_BAD_REQUEST ?
+               connection.getInputStream() : connection.getErrorStream();
+            try (InputStream decodedInputStream = inputStream != null ?
+               decode(connection, inputStream) : InputStream.nullInputStream()) {
+               body = decodedInputStream.readAllBytes();
+            }
+         } finally {
+            connection.disconnect();
+         }
+
+         Map<String, List<String>> headers = getHeaders(connection);
+         archive.record(capturedConnection.getRequestMethod(), connectionURL, capturedConnection.getRequestBody(),
+            responseCode, headers, body);
+
+         return new BufferedHttpURLConnection(connectionURL, responseCode, headers, body);
+      }
+
+      throw new IOException("Failed to create a connection to " + connectionURL + ". Maximum retries reached.");
+   }
+
+   private HttpURLConnection openConnection(URL connectionURL) throws IOException {
+      logger.info("Connecting to " + connectionURL);
+      HttpURLConnection connection = (HttpURLConnection)connectionURL.openConnection();
+      requestProperties.forEach(connection::setRequestProperty);
+      connection.setRequestProperty("Accept-Encoding", GZIP_ENCODING);
+
+      if (authString != null) {
+         connection.setRequestProperty("Authorization", authString);
+      }
+
+      return connection;
+   }
+
+   private Map<String, List<String>> getHeaders(HttpURLConnection connection) {
+      Map<String, List<String>> headers = new LinkedHashMap<>();
+      connection.getHeaderFields().forEach((name, values) -> {
+         if (name != null) {
+            headers.put(name, values);
+         }
+      });
+      return headers;
+   }
+
+   public InputStream getInputStream(HttpURLConnection connection) throws IOException {
+      try {
+         return decode(connection, connection.getInputStream());
+      } catch (IOException e) {
+         InputStream errorStream = connection.getErrorStream();
+         if (errorStream != null) {
+            try (InputStream decodedErrorStream = decode(connection, errorStream)) {
+               String responseError = new String(decodedErrorStream.readAllBytes(), StandardCharsets.UTF_8);
+               throw new IssueHttpResponseException(connection.getResponseCode(), responseError, e);
+            }
+         }
+         throw e;
+      }
+   }
+
+   public String getStatistics() {
+      return requestCount.get() + " requests, " + receivedBytes.get() + " bytes received, " +
+         decodedBytes.get() + " bytes decoded" + (responseCache != null ? ", " + responseCache.getStatistics() : "");
+   }
+
+   private HttpURLConnection cacheResponse(URL connectionURL, HttpURLConnection connection) throws IOException {
+      byte[] body;
+      try (InputStream inputStream = decode(connection, connection.getInputStream())) {
+         body = inputStream.readAllBytes();
+      } finally {
+         connection.disconnect();
+      }
+
+      Map<String, List<String>> headers = getHeaders(connection);
+
+      IssueResponseCache.Entry entry = new IssueResponseCache.Entry()
+         .setUrl(connectionURL.toString())
+         .setEtag(connection.getHeaderField("ETag"))
+         .setLastModified(connection.getHeaderField("Last-Modified"))
+         .setTimestamp(System.currentTimeMillis())
+         .setHeaders(headers)
+         .setBody(body);
+      responseCache.put(authString, entry);
+
+      return createBufferedConnection(connectionURL, entry);
+   }
+
+   private HttpURLConnection createBufferedConnection(URL connectionURL, IssueResponseCache.Entry entry) {
+      return new BufferedHttpURLConnection(connectionURL, HttpURLConnection.HTTP_OK, entry.getHeaders(), entry.getBody());
+   }
+
+   private InputStream decode(HttpURLConnection connection, InputStream inputStream) throws IOException {
+      // Buffered responses are already decoded and counted
+      if (connection instanceof BufferedHttpURLConnection) {
+         return inputStream;
+      }
+
+      InputStream receivedStream = count(inputStream, receivedBytes);
+
+      if (GZIP_ENCODING.equalsIgnoreCase(connection.getContentEncoding())) {
+         return count(new GZIPInputStream(receivedStream), decodedBytes);
+      }
+
+      return count(receivedStream, decodedBytes);
+   }
+
+   private static InputStream count(InputStream inputStream, AtomicLong counter) {
+      return new ProxyInputStream(inputStream) {
+         @Override
+         protected void afterRead(int n) {
+            if (n > 0) {
+               counter.addAndGet(n);
+            }
+         }
+      };
+   }
+}
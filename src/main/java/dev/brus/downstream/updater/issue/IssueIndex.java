@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Hash index of the issue summaries, the issues could change after being indexed so the callers check the values
+public class IssueIndex {
+   private final Map<String, Set<String>> summaryIndex = new ConcurrentHashMap<>();
+
+   // The indexed summary of each issue, used to remove it after the issue changes in place
+   private final Map<String, String> indexedSummaries = new ConcurrentHashMap<>();
+
+   public void update(Issue issue) {
+      String summary = issue.getSummary();
+      indexedSummaries.compute(issue.getKey(), (key, previousSummary) -> {
+         remove(previousSummary, key);
+         add(summary, key);
+         return summary;
+      });
+   }
+
+   public void remove(String issueKey) {
+      indexedSummaries.computeIfPresent(issueKey, (key, previousSummary) -> {
+         remove(previousSummary, key);
+         return null;
+      });
+   }
+
+   public Set<String> getIssueKeysBySummary(String summary) {
+      return summaryIndex.getOrDefault(summary, Collections.emptySet());
+   }
+
+   private void add(String summary, String issueKey) {
+      if (summary != null) {
+         summaryIndex.computeIfAbsent(summary, v -> ConcurrentHashMap.newKeySet()).add(issueKey);
+      }
+   }
+
+   private void remove(String summary, String issueKey) {
+      if (summary != null) {
+         summaryIndex.computeIfPresent(summary, (v, issueKeys) -> {
+            issueKeys.remove(issueKey);
+            return issueKeys.isEmpty() ? null : issueKeys;
+         });
+      }
+   }
+}
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Scans the issue keys of a text in one pass, the key prefixes (i.e. PROJECT- or [#) are matched with a trie
+// and followed by the issue number, the same texts are scanned again so the results are cached
+public class IssueKeyScanner {
+   private final static int DEFAULT_MAX_CACHED_VALUES = 16384;
+
+   private final Node root = new Node();
+
+   private final Map<String, List<String>> cachedIssueKeys = new ConcurrentHashMap<>();
+
+   private int maxCachedValues = DEFAULT_MAX_CACHED_VALUES;
+
+   public int getMaxCachedValues() {
+      return maxCachedValues;
+   }
+
+   public IssueKeyScanner setMaxCachedValues(int maxCachedValues) {
+      this.maxCachedValues = maxCachedValues;
+      return this;
+   }
+
+   // The issue keys are the key prefix followed by the issue number
+   public IssueKeyScanner addPrefix(String prefix, String keyPrefix) {
+      Node node = root;
+      for (int i = 0; i < prefix.length(); i++) {
+         node = node.addChild(prefix.charAt(i));
+      }
+      node.keyPrefix = keyPrefix;
+      node.verbatim = prefix.equals(keyPrefix);
+      cachedIssueKeys.clear();
+      return this;
+   }
+
+   public IssueKeyScanner addPrefix(String prefix) {
+      return addPrefix(prefix, prefix);
+   }
+
+   public List<String> scan(String s) {
+      if (s == null) {
+         return Collections.emptyList();
+      }
+
+      List<String> issueKeys = cachedIssueKeys.get(s);
+      if (issueKeys == null) {
+         issueKeys = scanIssueKeys(s);
+         if (cachedIssueKeys.size() < maxCachedValues) {
+            cachedIssueKeys.put(s, issueKeys);
+         }
+      }
+
+      return issueKeys;
+   }
+
+   public boolean isIssueKey(String s) {
+      List<String> issueKeys = s != null ? scanIssueKeys(s) : Collections.emptyList();
+      return issueKeys.size() == 1 && issueKeys.get(0).length() == s.length();
+   }
+
+   private List<String> scanIssueKeys(String s) {
+      List<String> issueKeys = null;
+      int length = s.length();
+      int i = 0;
+      while (i < length) {
+         Node node = root;
+         Node prefixNode = null;
+         int numberStart = i;
+         while (numberStart < length && (node = node.getChild(s.charAt(numberStart))) != null) {
+            numberStart++;
+            if (node.keyPrefix != null && numberStart < length && isDigit(s.charAt(numberStart))) {
+               prefixNode = node;
+               break;
+            }
+         }
+
+         if (prefixNode != null) {
+            int numberEnd = numberStart + 1;
+            while (numberEnd < length && isDigit(s.charAt(numberEnd))) {
+               numberEnd++;
+            }
+
+            if (issueKeys == null) {
+               issueKeys = new ArrayList<>(1);
+            }
+            issueKeys.add(prefixNode.verbatim ? s.substring(i, numberEnd) :
+               prefixNode.keyPrefix + s.substring(numberStart, numberEnd));
+            i = numberEnd;
+         } else {
+            i++;
+         }
+      }
+
+      return issueKeys != null ? Collections.unmodifiableList(issueKeys) : Collections.emptyList();
+   }
+
+   private static boolean isDigit(char c) {
+      return c >= '0' && c <= '9';
+   }
+
+   private static class Node {
+      private char[] chars = new char[0];
+      private Node[] children = new Node[0];
+      private String keyPrefix;
+      private boolean verbatim;
+
+      Node getChild(char c) {
+         for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) {
+               return children[i];
+            }
+         }
+         return null;
+      }
+
+      Node addChild(char c) {
+         Node child = getChild(c);
+         if (child == null) {
+            child = new Node();
+            chars = Arrays.copyOf(chars, chars.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            chars[chars.length - 1] = c;
+            children[children.length - 1] = child;
+         }
+         return child;
+      }
+   }
+}
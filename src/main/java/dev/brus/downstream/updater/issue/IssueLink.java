@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+public class IssueLink {
+
+   // The direction of the linked issue, i.e. the outward issue of a Cloners link is the cloned issue
+   public enum Direction {
+      INWARD,
+      OUTWARD
+   }
+
+   private String type;
+   private Direction direction;
+   private String key;
+
+   public String getType() {
+      return type;
+   }
+
+   public IssueLink setType(String type) {
+      this.type = Issue.intern(type);
+      return this;
+   }
+
+   public Direction getDirection() {
+      return direction;
+   }
+
+   public IssueLink setDirection(Direction direction) {
+      this.direction = direction;
+      return this;
+   }
+
+   public String getKey() {
+      return key;
+   }
+
+   public IssueLink setKey(String key) {
+      this.key = key;
+      return this;
+   }
+
+   public IssueLink() {
+   }
+
+   public IssueLink(String type, Direction direction, String key) {
+      setType(type);
+      this.direction = direction;
+      this.key = key;
+   }
+
+   IssueLink compact() {
+      type = Issue.intern(type);
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return type + " " + direction + " " + key;
+   }
+}
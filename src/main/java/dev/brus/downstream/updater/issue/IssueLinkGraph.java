@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Links between downstream and upstream issues, the downstream issues are the source of the links
+// and the linked issues of the upstream issues mirror them
+public class IssueLinkGraph {
+   private final static Logger logger = LoggerFactory.getLogger(IssueLinkGraph.class);
+
+   private final static String TEMP_FILE_SUFFIX = ".tmp";
+
+   private final Map<String, Set<String>> upstreamIssueKeys = new ConcurrentHashMap<>();
+   private final Map<String, Set<String>> downstreamIssueKeys = new ConcurrentHashMap<>();
+   // Upstream issues whose mirrored links are stale, they may no longer be linked
+   private final Set<String> unlinkedUpstreamIssueKeys = ConcurrentHashMap.newKeySet();
+
+   private volatile boolean changed;
+
+   public boolean isChanged() {
+      return changed;
+   }
+
+   public Set<String> getUpstreamIssueKeys(String downstreamIssueKey) {
+      return Collections.unmodifiableSet(upstreamIssueKeys.getOrDefault(downstreamIssueKey, Collections.emptySet()));
+   }
+
+   public Set<String> getDownstreamIssueKeys(String upstreamIssueKey) {
+      return Collections.unmodifiableSet(downstreamIssueKeys.getOrDefault(upstreamIssueKey, Collections.emptySet()));
+   }
+
+   public Set<String> getLinkedUpstreamIssueKeys() {
+      return Collections.unmodifiableSet(downstreamIssueKeys.keySet());
+   }
+
+   public Set<String> getLinkedDownstreamIssueKeys() {
+      return Collections.unmodifiableSet(upstreamIssueKeys.keySet());
+   }
+
+   public synchronized boolean link(String downstreamIssueKey, String upstreamIssueKey) {
+      boolean added = upstreamIssueKeys.computeIfAbsent(downstreamIssueKey,
+         key -> ConcurrentHashMap.newKeySet()).add(upstreamIssueKey);
+      if (added) {
+         downstreamIssueKeys.computeIfAbsent(upstreamIssueKey,
+            key -> ConcurrentHashMap.newKeySet()).add(downstreamIssueKey);
+         changed = true;
+      }
+      return added;
+   }
+
+   public synchronized boolean unlink(String downstreamIssueKey, String upstreamIssueKey) {
+      boolean removed = remove(upstreamIssueKeys, downstreamIssueKey, upstreamIssueKey);
+      if (removed) {
+         remove(downstreamIssueKeys, upstreamIssueKey, downstreamIssueKey);
+         unlinkedUpstreamIssueKeys.add(upstreamIssueKey);
+         changed = true;
+      }
+      return removed;
+   }
+
+   // Replaces the links of a downstream issue, nothing changes when they are the same
+   public synchronized boolean setUpstreamIssueKeys(String downstreamIssueKey, Collection<String> issueKeys) {
+      Set<String> currentIssueKeys = upstreamIssueKeys.getOrDefault(downstreamIssueKey, Collections.emptySet());
+      if (currentIssueKeys.size() == issueKeys.size() && currentIssueKeys.containsAll(issueKeys)) {
+         return false;
+      }
+
+      for (String issueKey : currentIssueKeys.toArray(String[]::new)) {
+         if (!issueKeys.contains(issueKey)) {
+            unlink(downstreamIssueKey, issueKey);
+         }
+      }
+      for (String issueKey : issueKeys) {
+         link(downstreamIssueKey, issueKey);
+      }
+      return true;
+   }
+
+   // Removes the links of the downstream issues not retained, their upstream issues become unlinked
+   public synchronized void retainDownstreamIssueKeys(Predicate<String> filter) {
+      for (String downstreamIssueKey : upstreamIssueKeys.keySet().toArray(String[]::new)) {
+         if (!filter.test(downstreamIssueKey)) {
+            setUpstreamIssueKeys(downstreamIssueKey, Collections.emptySet());
+         }
+      }
+   }
+
+   // Returns the upstream issues unlinked since the last call to mirror them again
+   public synchronized Set<String> pollUnlinkedUpstreamIssueKeys() {
+      Set<String> issueKeys = Set.copyOf(unlinkedUpstreamIssueKeys);
+      unlinkedUpstreamIssueKeys.clear();
+      return issueKeys;
+   }
+
+   // Mirrors the links of the downstream issues to the linked issues of an upstream issue
+   public boolean mirrorTo(Issue upstreamIssue) {
+      Set<String> issueKeys = getDownstreamIssueKeys(upstreamIssue.getKey());
+      List<String> linkedIssueKeys = upstreamIssue.getIssues();
+      if (linkedIssueKeys.size() == issueKeys.size() && linkedIssueKeys.containsAll(issueKeys)) {
+         return false;
+      }
+
+      linkedIssueKeys.clear();
+      linkedIssueKeys.addAll(issueKeys);
+      return true;
+   }
+
+   public void load(File file) throws Exception {
+      try (JsonReader jsonReader = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+         jsonReader.beginObject();
+         while (jsonReader.hasNext()) {
+            String downstreamIssueKey = jsonReader.nextName();
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+               link(downstreamIssueKey, jsonReader.nextString());
+            }
+            jsonReader.endArray();
+         }
+         jsonReader.endObject();
+      }
+      changed = false;
+
+      logger.debug("Loaded " + upstreamIssueKeys.size() + " linked issues from " + file);
+   }
+
+   public synchronized void store(File file) throws Exception {
+      File tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX);
+      try (JsonWriter jsonWriter = new JsonWriter(Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8))) {
+         jsonWriter.beginObject();
+         for (Map.Entry<String, Set<String>> upstreamIssueKeysEntry : upstreamIssueKeys.entrySet()) {
+            jsonWriter.name(upstreamIssueKeysEntry.getKey());
+            jsonWriter.beginArray();
+            for (String upstreamIssueKey : upstreamIssueKeysEntry.getValue()) {
+               jsonWriter.value(upstreamIssueKey);
+            }
+            jsonWriter.endArray();
+         }
+         jsonWriter.endObject();
+      }
+
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      changed = false;
+
+      logger.debug("Stored " + upstreamIssueKeys.size() + " linked issues to " + file);
+   }
+
+   private static boolean remove(Map<String, Set<String>> adjacency, String issueKey, String linkedIssueKey) {
+      Set<String> linkedIssueKeys = adjacency.get(issueKey);
+      if (linkedIssueKeys == null || !linkedIssueKeys.remove(linkedIssueKey)) {
+         return false;
+      }
+      if (linkedIssueKeys.isEmpty()) {
+         adjacency.remove(issueKey);
+      }
+      return true;
+   }
+}
@@ -33,14 +33,31 @@ public interface IssueManager {
 
    String getIssueBaseUrl();
 
+   IssueHttpTransport getTransport();
+
    void loadIssues() throws Exception;
 
    void loadIssues(File file) throws Exception;
 
+   void loadIssues(Collection<String> keys) throws Exception;
+
+   IssueLinkGraph getLinkGraph();
+
+   void setLinkGraph(IssueLinkGraph linkGraph);
+
+   boolean isReadThrough();
+
+   void setReadThrough(boolean readThrough);
+
    Issue getIssue(String key);
 
    Collection<Issue> getIssues();
 
+   List<Issue> getIssuesBySummary(String summary);
+
+   // Must be called after changing a cached issue in place, the changed issues are stored next time
+   void reindexIssue(String key);
+
    String getIssueTypeBug();
 
    String getIssueResolutionDone();
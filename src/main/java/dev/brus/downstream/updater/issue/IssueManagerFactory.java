@@ -1,11 +1,33 @@
 package dev.brus.downstream.updater.issue;
 
 public class IssueManagerFactory {
+   private IssueResponseCache responseCache;
+
+   private IssueHttpArchive archive;
+
+   public IssueResponseCache getResponseCache() {
+      return responseCache;
+   }
+
+   public IssueManagerFactory setResponseCache(IssueResponseCache responseCache) {
+      this.responseCache = responseCache;
+      return this;
+   }
+
+   public IssueHttpArchive getArchive() {
+      return archive;
+   }
+
+   public IssueManagerFactory setArchive(IssueHttpArchive archive) {
+      this.archive = archive;
+      return this;
+   }
+
    public IssueManager getIssueManager(String serverURL, String authString, String projectKey) {
       if (serverURL.contains("issues.apache.org")) {
-         return new JiraIssueManager(serverURL, authString, projectKey);
+         return configure(new JiraIssueManager(serverURL, authString, projectKey));
       } else if (serverURL.contains("api.github.com")) {
-         return new GithubIssueManager(serverURL, authString, projectKey);
+         return configure(new GithubIssueManager(serverURL, authString, projectKey));
       } else {
          throw new IllegalArgumentException("Issue server URL not supported: " + serverURL);
       }
@@ -13,9 +35,14 @@ public class IssueManagerFactory {
 
    public DownstreamIssueManager getDownstreamIssueManager(String serverURL, String authString, String projectKey, IssueManager upstreamIssueManager) {
       if (serverURL.contains("redhat.atlassian.net")) {
-         return new RedHatJiraIssueManager(serverURL, authString, projectKey, new RedHatIssueStateMachine(), upstreamIssueManager);
+         return configure(new RedHatJiraIssueManager(serverURL, authString, projectKey, new RedHatIssueStateMachine(), upstreamIssueManager));
       } else {
          throw new IllegalArgumentException("Issue server URL not supported: " + serverURL);
       }
    }
+
+   private <T extends IssueManager> T configure(T issueManager) {
+      issueManager.getTransport().setResponseCache(responseCache).setArchive(archive);
+      return issueManager;
+   }
 }
@@ -0,0 +1,327 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.google.gson.Gson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IssueResponseCache {
+   private final static Logger logger = LoggerFactory.getLogger(IssueResponseCache.class);
+
+   public final static long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+   // Each entry is a single file with the length of the metadata, the metadata and the body,
+   // it is written to a temp file and moved atomically so readers never see a partial entry
+   private final static String ENTRY_EXTENSION = ".entry";
+   private final static String TEMP_EXTENSION = ".tmp";
+
+   private final File dir;
+   private final long maxSize;
+
+   private final Gson gson = new Gson();
+
+   // The first matching path pattern defines the time an entry is used without revalidation
+   private final List<Map.Entry<Pattern, Long>> expirations = new CopyOnWriteArrayList<>();
+
+   // Access ordered to evict the least recently used entries first
+   private final Map<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true);
+   private long size;
+
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong revalidations = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   public IssueResponseCache(File dir) {
+      this(dir, DEFAULT_MAX_SIZE);
+   }
+
+   public IssueResponseCache(File dir, long maxSize) {
+      this.dir = dir;
+      this.maxSize = maxSize;
+
+      dir.mkdirs();
+
+      File[] files = dir.listFiles();
+      if (files != null) {
+         Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+         for (File file : files) {
+            if (file.getName().endsWith(ENTRY_EXTENSION)) {
+               addEntrySize(file.getName().substring(0, file.getName().length() - ENTRY_EXTENSION.length()), file.length());
+            } else if (file.getName().endsWith(TEMP_EXTENSION)) {
+               // Left by a process killed while writing an entry
+               file.delete();
+            }
+         }
+      }
+
+      evict();
+   }
+
+   public File getDir() {
+      return dir;
+   }
+
+   public long getMaxSize() {
+      return maxSize;
+   }
+
+   public synchronized long getSize() {
+      return size;
+   }
+
+   public long getHits() {
+      return hits.get();
+   }
+
+   public long getRevalidations() {
+      return revalidations.get();
+   }
+
+   public long getMisses() {
+      return misses.get();
+   }
+
+   public IssueResponseCache setExpiration(String pathRegex, long expiration) {
+      expirations.add(new AbstractMap.SimpleEntry<>(Pattern.compile(pathRegex), expiration));
+      return this;
+   }
+
+   public long getExpiration(String url) {
+      for (Map.Entry<Pattern, Long> expiration : expirations) {
+         if (expiration.getKey().matcher(url).find()) {
+            return expiration.getValue();
+         }
+      }
+      return 0;
+   }
+
+   public boolean isFresh(Entry entry) {
+      return System.currentTimeMillis() - entry.getTimestamp() < getExpiration(entry.getUrl());
+   }
+
+   public Entry get(String url, String authString) {
+      String key = getKey(url, authString);
+
+      synchronized (this) {
+         // Getting the size marks the entry as recently used
+         if (entrySizes.get(key) == null) {
+            misses.incrementAndGet();
+            return null;
+         }
+      }
+
+      // The file read is consistent even if it is replaced or deleted while reading
+      try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(
+         new FileInputStream(new File(dir, key + ENTRY_EXTENSION))))) {
+         byte[] metadata = new byte[inputStream.readInt()];
+         inputStream.readFully(metadata);
+         Entry entry = gson.fromJson(new String(metadata, StandardCharsets.UTF_8), Entry.class);
+         entry.body = inputStream.readAllBytes();
+         return entry;
+      } catch (Exception e) {
+         logger.debug("Error reading cached response for " + url + ": " + e);
+         remove(key);
+         misses.incrementAndGet();
+         return null;
+      }
+   }
+
+   public boolean isStorable(String url, String etag, String lastModified) {
+      return etag != null || lastModified != null || getExpiration(url) > 0;
+   }
+
+   public void put(String authString, Entry entry) {
+      String key = getKey(entry.getUrl(), authString);
+
+      File tempFile = null;
+      try {
+         File entryFile = new File(dir, key + ENTRY_EXTENSION);
+         tempFile = File.createTempFile(key, TEMP_EXTENSION, dir);
+         byte[] metadata = gson.toJson(entry).getBytes(StandardCharsets.UTF_8);
+         try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+            new FileOutputStream(tempFile)))) {
+            outputStream.writeInt(metadata.length);
+            outputStream.write(metadata);
+            outputStream.write(entry.getBody());
+         }
+         Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+         synchronized (this) {
+            removeEntrySize(key);
+            addEntrySize(key, Integer.BYTES + metadata.length + entry.getBody().length);
+         }
+
+         evict();
+      } catch (Exception e) {
+         logger.debug("Error caching response for " + entry.getUrl() + ": " + e);
+         if (tempFile != null) {
+            tempFile.delete();
+         }
+         remove(key);
+      }
+   }
+
+   public void revalidated(String authString, Entry entry) {
+      revalidations.incrementAndGet();
+
+      // Store the new timestamp to use the entry without revalidation until it expires again
+      put(authString, entry.setTimestamp(System.currentTimeMillis()));
+   }
+
+   public void hit() {
+      hits.incrementAndGet();
+   }
+
+   public String getStatistics() {
+      return hits.get() + " cached, " + revalidations.get() + " revalidated, " + misses.get() + " missed responses";
+   }
+
+   private synchronized void remove(String key) {
+      removeEntrySize(key);
+      new File(dir, key + ENTRY_EXTENSION).delete();
+   }
+
+   private synchronized void evict() {
+      Iterator<Map.Entry<String, Long>> entrySizeIterator = entrySizes.entrySet().iterator();
+      while (size > maxSize && entrySizeIterator.hasNext()) {
+         Map.Entry<String, Long> entrySize = entrySizeIterator.next();
+         entrySizeIterator.remove();
+         size -= entrySize.getValue();
+         new File(dir, entrySize.getKey() + ENTRY_EXTENSION).delete();
+         logger.debug("Evicted cached response " + entrySize.getKey());
+      }
+   }
+
+   private void addEntrySize(String key, long entrySize) {
+      entrySizes.put(key, entrySize);
+      size += entrySize;
+   }
+
+   private void removeEntrySize(String key) {
+      Long entrySize = entrySizes.remove(key);
+      if (entrySize != null) {
+         size -= entrySize;
+      }
+   }
+
+   private static String getKey(String url, String authString) {
+      try {
+         // Responses depend on the credentials used to request them
+         MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+         if (authString != null) {
+            messageDigest.update(authString.getBytes(StandardCharsets.UTF_8));
+         }
+         messageDigest.update((byte)0);
+         messageDigest.update(url.getBytes(StandardCharsets.UTF_8));
+
+         StringBuilder key = new StringBuilder();
+         for (byte digestByte : messageDigest.digest()) {
+            key.append(String.format("%02x", digestByte));
+         }
+         return key.toString();
+      } catch (Exception e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
+   public static class Entry {
+      private String url;
+      private String etag;
+      private String lastModified;
+      private long timestamp;
+      private Map<String, List<String>> headers;
+      private transient byte[] body;
+
+      public String getUrl() {
+         return url;
+      }
+
+      public Entry setUrl(String url) {
+         this.url = url;
+         return this;
+      }
+
+      public String getEtag() {
+         return etag;
+      }
+
+      public Entry setEtag(String etag) {
+         this.etag = etag;
+         return this;
+      }
+
+      public String getLastModified() {
+         return lastModified;
+      }
+
+      public Entry setLastModified(String lastModified) {
+         this.lastModified = lastModified;
+         return this;
+      }
+
+      public long getTimestamp() {
+         return timestamp;
+      }
+
+      public Entry setTimestamp(long timestamp) {
+         this.timestamp = timestamp;
+         return this;
+      }
+
+      public Map<String, List<String>> getHeaders() {
+         return headers;
+      }
+
+      public Entry setHeaders(Map<String, List<String>> headers) {
+         this.headers = headers;
+         return this;
+      }
+
+      public byte[] getBody() {
+         return body;
+      }
+
+      public Entry setBody(byte[] body) {
+         this.body = body;
+         return this;
+      }
+   }
+}
@@ -0,0 +1,812 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Predicate;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Stores issues as a snapshot of length-prefixed chunks of JSON lines plus an append-only log of changed issues,
+// the deleted issues are logged as a JSON string of their key
+public class IssueStore {
+   private final static Logger logger = LoggerFactory.getLogger(IssueStore.class);
+
+   public final static String LOG_FILE_SUFFIX = ".log";
+   public final static String DESCRIPTIONS_FILE_SUFFIX = ".descriptions";
+   public final static String INDEX_FILE_SUFFIX = ".index";
+
+   // Secondary indexes of the snapshot, they map each indexed value to the chunks holding it
+   public final static String INDEX_TARGET_RELEASE = "targetRelease";
+   public final static String INDEX_STATE = "state";
+   public final static String INDEX_LABEL = "label";
+   public final static String INDEX_LINKED_ISSUE = "linkedIssue";
+
+   private final static String TEMP_FILE_SUFFIX = ".tmp";
+
+   // The index offsets are plain longs, unlike the issue timestamps
+   private final static Gson indexGson = new Gson();
+
+   // The snapshot starts with the magic number, the descriptions generation and the snapshot generation,
+   // each chunk can be decoded independently
+   private final static int CHUNK_MAGIC = 0x49534332;
+   private final static int CHUNK_RECORDS = 1000;
+
+   // Compact when the log holds more records than this ratio of the snapshot records
+   private final static double DEFAULT_COMPACTION_RATIO = 0.5;
+
+   // Description references hold the offset in the upper bits and the length in the lower bits
+   private final static int DESCRIPTION_LENGTH_BITS = 24;
+   private final static long DESCRIPTION_LENGTH_MASK = (1L << DESCRIPTION_LENGTH_BITS) - 1;
+
+   // Rewrite the descriptions file when most of it is no longer referenced
+   private final static int DESCRIPTIONS_GARBAGE_RATIO = 2;
+
+   private final File file;
+   private final File logFile;
+   private final File indexFile;
+   private final Gson gson;
+
+   private final Map<String, Function<Issue, Collection<String>>> indexes = Map.of(
+      INDEX_TARGET_RELEASE, issue -> issue.getTargetRelease() != null ? List.of(issue.getTargetRelease()) : List.of(),
+      INDEX_STATE, issue -> issue.getState() != null ? List.of(issue.getState()) : List.of(),
+      INDEX_LABEL, Issue::getLabels,
+      INDEX_LINKED_ISSUE, Issue::getIssues);
+
+   // Fingerprints of the stored issues, used to write only the changed ones
+   private final Map<String, Long> fingerprints = new ConcurrentHashMap<>();
+
+   private double compactionRatio = DEFAULT_COMPACTION_RATIO;
+
+   private boolean offloadDescriptions = true;
+
+   // The snapshot is rewritten until the stored issues are known, i.e. when storing without loading
+   private boolean snapshotRequired = true;
+
+   // Set after a query, only the changed issues are appended until the next full load
+   private boolean partial;
+
+   private int snapshotRecords;
+   private int logRecords;
+
+   // Rewritten descriptions are written to a new generation file, which replaces
+   // the previous one when the snapshot recording it replaces the previous snapshot
+   private long descriptionsGeneration;
+   private long snapshotDescriptionsGeneration;
+
+   // Increased by each snapshot written and recorded in its index to detect a stale index
+   private long snapshotGeneration;
+
+   private Future<?> compaction;
+
+   public IssueStore(File file, String dateFormatPattern) {
+      this.file = file;
+      this.logFile = new File(file.getPath() + LOG_FILE_SUFFIX);
+      this.indexFile = new File(file.getPath() + INDEX_FILE_SUFFIX);
+      this.gson = new GsonBuilder().registerTypeAdapter(long.class, createTimeAdapter(dateFormatPattern)).create();
+   }
+
+   public File getFile() {
+      return file;
+   }
+
+   public File getLogFile() {
+      return logFile;
+   }
+
+   public synchronized File getDescriptionsFile() {
+      return getDescriptionsFile(descriptionsGeneration);
+   }
+
+   public File getIndexFile() {
+      return indexFile;
+   }
+
+   public boolean isOffloadDescriptions() {
+      return offloadDescriptions;
+   }
+
+   public IssueStore setOffloadDescriptions(boolean offloadDescriptions) {
+      this.offloadDescriptions = offloadDescriptions;
+      return this;
+   }
+
+   public double getCompactionRatio() {
+      return compactionRatio;
+   }
+
+   public IssueStore setCompactionRatio(double compactionRatio) {
+      this.compactionRatio = compactionRatio;
+      return this;
+   }
+
+   public synchronized int getSnapshotRecords() {
+      return snapshotRecords;
+   }
+
+   public synchronized int getLogRecords() {
+      return logRecords;
+   }
+
+   public synchronized boolean isPartial() {
+      return partial;
+   }
+
+   // The issue consumer must be thread safe because the snapshot chunks are decoded in parallel
+   public synchronized void load(Consumer<Issue> issueConsumer) throws Exception {
+      awaitCompaction();
+
+      fingerprints.clear();
+      snapshotRequired = false;
+      partial = false;
+      snapshotRecords = 0;
+      logRecords = 0;
+      loadSnapshotHeader();
+
+      long beginTimestamp = System.nanoTime();
+
+      // The log records replace or delete the snapshot records, a null issue is deleted
+      Map<String, Issue> loggedIssues = new HashMap<>();
+      if (logFile.exists()) {
+         logRecords = loadLines(logFile, (issue, fingerprint) -> {
+            loggedIssues.put(issue.getKey(), issue);
+            fingerprints.put(issue.getKey(), fingerprint);
+         }, issueKey -> {
+            loggedIssues.put(issueKey, null);
+            fingerprints.remove(issueKey);
+         });
+      }
+
+      if (file.exists()) {
+         snapshotRecords = loadSnapshot((issue, fingerprint) -> {
+            if (!loggedIssues.containsKey(issue.getKey())) {
+               fingerprints.put(issue.getKey(), fingerprint);
+               issueConsumer.accept(issue);
+            }
+         });
+      }
+
+      for (Issue issue : loggedIssues.values()) {
+         if (issue != null) {
+            issueConsumer.accept(issue);
+         }
+      }
+
+      long endTimestamp = System.nanoTime();
+      logger.info("Loaded " + snapshotRecords + " snapshot records and " + logRecords + " log records from " +
+         file + " in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+   }
+
+   // Loads only the issues with an indexed value accepted by the filter, reading the matching chunks and the log
+   public synchronized int query(String index, Predicate<String> valueFilter, Consumer<Issue> issueConsumer) throws Exception {
+      Function<Issue, Collection<String>> indexFunction = indexes.get(index);
+      if (indexFunction == null) {
+         throw new IllegalArgumentException("Invalid index: " + index);
+      }
+
+      awaitCompaction();
+
+      fingerprints.clear();
+      partial = true;
+      loadSnapshotHeader();
+
+      long beginTimestamp = System.nanoTime();
+
+      // Only the fingerprints of the matching issues are kept, the other stored issues are not deleted by the next store
+      Predicate<Issue> issueFilter = issue -> indexFunction.apply(issue).stream().anyMatch(valueFilter);
+      Map<String, Issue> matchingIssues = new ConcurrentHashMap<>();
+      Map<String, Long> matchingFingerprints = new ConcurrentHashMap<>();
+      ObjLongConsumer<Issue> matchingIssueConsumer = (issue, fingerprint) -> {
+         if (issueFilter.test(issue)) {
+            matchingIssues.put(issue.getKey(), issue);
+            matchingFingerprints.put(issue.getKey(), fingerprint);
+         }
+      };
+
+      int chunkCount = 0;
+      if (file.exists()) {
+         SnapshotIndex snapshotIndex = loadSnapshotIndex();
+         if (snapshotIndex != null) {
+            BitSet chunks = new BitSet();
+            snapshotIndex.chunks.get(index).forEach((value, valueChunks) -> {
+               if (valueFilter.test(value)) {
+                  valueChunks.forEach(chunks::set);
+               }
+            });
+            chunkCount = chunks.cardinality();
+            loadChunks(snapshotIndex, chunks, matchingIssueConsumer);
+         } else {
+            // Without a valid index the whole snapshot is scanned
+            logger.debug("Scanning " + file + " without index");
+            loadSnapshot(matchingIssueConsumer);
+         }
+      }
+
+      // The log records replace the snapshot records, including the ones no longer matching
+      if (logFile.exists()) {
+         loadLines(logFile, (issue, fingerprint) -> {
+            if (issueFilter.test(issue)) {
+               matchingIssues.put(issue.getKey(), issue);
+               matchingFingerprints.put(issue.getKey(), fingerprint);
+            } else {
+               matchingIssues.remove(issue.getKey());
+               matchingFingerprints.remove(issue.getKey());
+            }
+         }, issueKey -> {
+            matchingIssues.remove(issueKey);
+            matchingFingerprints.remove(issueKey);
+         });
+      }
+
+      fingerprints.putAll(matchingFingerprints);
+      matchingIssues.values().forEach(issueConsumer);
+
+      long endTimestamp = System.nanoTime();
+      logger.info("Queried " + matchingIssues.size() + " issues by " + index + " from " + chunkCount +
+         " snapshot chunks of " + file + " in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+
+      return matchingIssues.size();
+   }
+
+   // Writes the dirty issues and deletes the stored issues no longer in the map, the dirty issue keys
+   // are drained while storing so the ones marked again by a concurrent change are stored next time
+   public synchronized int store(Map<String, Issue> issues, Set<String> dirtyIssueKeys) throws Exception {
+      awaitCompaction();
+
+      long beginTimestamp = System.nanoTime();
+
+      Set<String> changedIssueKeys = new HashSet<>();
+      if (offloadDescriptions) {
+         changedIssueKeys.addAll(offloadDescriptions(issues.values()));
+      }
+      for (Iterator<String> iterator = dirtyIssueKeys.iterator(); iterator.hasNext();) {
+         changedIssueKeys.add(iterator.next());
+         iterator.remove();
+      }
+      for (String issueKey : fingerprints.keySet()) {
+         if (!issues.containsKey(issueKey)) {
+            changedIssueKeys.add(issueKey);
+         }
+      }
+
+      List<String> changedRecords = new ArrayList<>();
+      Map<String, Long> changedFingerprints = new HashMap<>();
+      List<String> deletedIssueKeys = new ArrayList<>();
+      for (String issueKey : changedIssueKeys) {
+         Issue issue = issues.get(issueKey);
+         if (issue == null) {
+            if (fingerprints.containsKey(issueKey)) {
+               changedRecords.add(gson.toJson(issueKey));
+               deletedIssueKeys.add(issueKey);
+            }
+            continue;
+         }
+
+         String record = gson.toJson(issue);
+         long fingerprint = fingerprint(record);
+         Long storedFingerprint = fingerprints.get(issueKey);
+         if (storedFingerprint == null || storedFingerprint != fingerprint) {
+            changedRecords.add(record);
+            changedFingerprints.put(issueKey, fingerprint);
+         }
+      }
+
+      if (partial) {
+         // The snapshot can not be rewritten from a subset of the issues
+         if (changedRecords.size() > 0) {
+            appendLog(changedRecords);
+         }
+      } else if (snapshotRequired || !file.exists() || changedRecords.size() > issues.size() * compactionRatio) {
+         // Rewriting the snapshot is cheaper than appending most of the issues
+         List<String> records = new ArrayList<>(issues.size());
+         SnapshotIndex snapshotIndex = createSnapshot(issues.values(), records);
+         writeSnapshot(records, snapshotIndex, descriptionsGeneration, ++snapshotGeneration);
+         if (snapshotDescriptionsGeneration != descriptionsGeneration) {
+            Files.deleteIfExists(getDescriptionsFile(snapshotDescriptionsGeneration).toPath());
+            snapshotDescriptionsGeneration = descriptionsGeneration;
+         }
+         snapshotRequired = false;
+         snapshotRecords = records.size();
+         logRecords = 0;
+      } else if (changedRecords.size() > 0) {
+         appendLog(changedRecords);
+
+         if (logRecords > snapshotRecords * compactionRatio) {
+            // The descriptions generation only changes with a snapshot written by the caller
+            long generation = descriptionsGeneration;
+            long compactionSnapshotGeneration = ++snapshotGeneration;
+            List<String> records = new ArrayList<>(issues.size());
+            SnapshotIndex snapshotIndex = createSnapshot(issues.values(), records);
+            compaction = IssueExecutors.getCpuExecutor().submit(() -> {
+               writeSnapshot(records, snapshotIndex, generation, compactionSnapshotGeneration);
+               return null;
+            });
+            snapshotRecords = records.size();
+            logRecords = 0;
+         }
+      }
+
+      fingerprints.putAll(changedFingerprints);
+      deletedIssueKeys.forEach(fingerprints::remove);
+
+      long endTimestamp = System.nanoTime();
+      logger.info("Stored " + changedRecords.size() + "/" + issues.size() + " changed issues to " +
+         file + " in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+
+      return changedRecords.size();
+   }
+
+   public synchronized void awaitCompaction() throws Exception {
+      if (compaction != null) {
+         try {
+            compaction.get();
+         } catch (ExecutionException e) {
+            // The snapshot and the log are still consistent, the next store will compact again
+            logger.warn("Error compacting " + file + ": " + e.getCause());
+            snapshotRecords = 0;
+         } finally {
+            compaction = null;
+         }
+      }
+   }
+
+   // Runs in the background while compacting, the counters are updated by the caller
+   private void writeSnapshot(List<String> records, SnapshotIndex snapshotIndex, long descriptionsGeneration,
+                              long snapshotGeneration) throws Exception {
+      File tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX);
+      snapshotIndex.chunkOffsets = new long[(records.size() + CHUNK_RECORDS - 1) / CHUNK_RECORDS];
+      try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+         outputStream.writeInt(CHUNK_MAGIC);
+         outputStream.writeLong(descriptionsGeneration);
+         outputStream.writeLong(snapshotGeneration);
+         for (int i = 0; i < records.size(); i += CHUNK_RECORDS) {
+            byte[] chunk = String.join("\n", records.subList(i, Math.min(i + CHUNK_RECORDS, records.size())))
+               .getBytes(StandardCharsets.UTF_8);
+            snapshotIndex.chunkOffsets[i / CHUNK_RECORDS] = outputStream.size();
+            outputStream.writeInt(chunk.length);
+            outputStream.write(chunk);
+         }
+      }
+      snapshotIndex.snapshotGeneration = snapshotGeneration;
+
+      // The log is deleted after replacing the snapshot, replaying it again is harmless
+      Files.deleteIfExists(indexFile.toPath());
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      Files.deleteIfExists(logFile.toPath());
+
+      // The index is ignored if it does not match the snapshot generation, i.e. if the process was killed before this
+      File tempIndexFile = new File(indexFile.getPath() + TEMP_FILE_SUFFIX);
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+         new FileOutputStream(tempIndexFile), StandardCharsets.UTF_8))) {
+         indexGson.toJson(snapshotIndex, writer);
+      }
+      Files.move(tempIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      logger.debug("Compacted " + records.size() + " issues to " + file);
+   }
+
+   private void appendLog(List<String> changedRecords) throws Exception {
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+         new FileOutputStream(logFile, true), StandardCharsets.UTF_8))) {
+         for (String changedRecord : changedRecords) {
+            writer.write(changedRecord);
+            writer.write('\n');
+         }
+      }
+
+      logRecords += changedRecords.size();
+   }
+
+   // The records and the index are only built when a snapshot is written, in the same pass
+   // so that each record is indexed by the values it was serialized with
+   private SnapshotIndex createSnapshot(Collection<Issue> issues, List<String> records) {
+      SnapshotIndex snapshotIndex = new SnapshotIndex();
+      for (Issue issue : issues) {
+         addIndexedValues(snapshotIndex, issue, records.size() / CHUNK_RECORDS);
+         records.add(gson.toJson(issue));
+      }
+      return snapshotIndex;
+   }
+
+   private void addIndexedValues(SnapshotIndex snapshotIndex, Issue issue, int chunk) {
+      indexes.forEach((index, indexFunction) -> {
+         Map<String, List<Integer>> valueChunks = snapshotIndex.chunks.computeIfAbsent(index, k -> new TreeMap<>());
+         for (String value : indexFunction.apply(issue)) {
+            List<Integer> chunks = valueChunks.computeIfAbsent(value, k -> new ArrayList<>());
+            if (chunks.isEmpty() || chunks.get(chunks.size() - 1) != chunk) {
+               chunks.add(chunk);
+            }
+         }
+      });
+   }
+
+   private SnapshotIndex loadSnapshotIndex() throws Exception {
+      if (!indexFile.exists()) {
+         return null;
+      }
+
+      SnapshotIndex snapshotIndex;
+      try (Reader reader = new BufferedReader(new InputStreamReader(
+         new FileInputStream(indexFile), StandardCharsets.UTF_8))) {
+         snapshotIndex = indexGson.fromJson(reader, SnapshotIndex.class);
+      } catch (JsonParseException e) {
+         logger.warn("Ignoring invalid index " + indexFile + ": " + e);
+         return null;
+      }
+
+      if (snapshotIndex == null || snapshotIndex.chunkOffsets == null ||
+         snapshotIndex.snapshotGeneration != snapshotGeneration || !snapshotIndex.chunks.keySet().containsAll(indexes.keySet())) {
+         logger.warn("Ignoring stale index " + indexFile);
+         return null;
+      }
+
+      return snapshotIndex;
+   }
+
+   // Returns the keys of the offloaded issues, their records change with the description reference
+   private List<String> offloadDescriptions(Collection<Issue> issues) throws Exception {
+      long referencedLength = 0;
+      for (Issue issue : issues) {
+         if (issue.getDescriptionRef() != Issue.NO_DESCRIPTION_REF) {
+            referencedLength += issue.getDescriptionRef() & DESCRIPTION_LENGTH_MASK;
+         }
+      }
+
+      // The descriptions referenced by the issues not queried are unknown when partial
+      File descriptionsFile = getDescriptionsFile(descriptionsGeneration);
+      boolean rewrite = !partial && descriptionsFile.length() > referencedLength * DESCRIPTIONS_GARBAGE_RATIO;
+      long generation = descriptionsGeneration;
+      if (rewrite) {
+         // Load the referenced descriptions before writing them to the next generation,
+         // the current generation is still referenced by the snapshot until it is replaced
+         for (Issue issue : issues) {
+            if (issue.getDescriptionRef() != Issue.NO_DESCRIPTION_REF) {
+               issue.setDescription(issue.getDescription());
+            }
+         }
+         generation++;
+         descriptionsFile = getDescriptionsFile(generation);
+      }
+
+      List<String> offloadedIssueKeys = new ArrayList<>();
+      File generationFile = descriptionsFile;
+      File outputFile = rewrite ? new File(descriptionsFile.getPath() + TEMP_FILE_SUFFIX) : descriptionsFile;
+      long offset = rewrite ? 0 : descriptionsFile.length();
+      try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile, !rewrite))) {
+         for (Issue issue : issues) {
+            String description = issue.getLoadedDescription();
+            if (description != null) {
+               byte[] descriptionBytes = description.getBytes(StandardCharsets.UTF_8);
+               if (descriptionBytes.length <= DESCRIPTION_LENGTH_MASK) {
+                  outputStream.write(descriptionBytes);
+                  issue.offloadDescription(offset << DESCRIPTION_LENGTH_BITS | descriptionBytes.length,
+                     descriptionRef -> readDescription(generationFile, descriptionRef));
+                  offloadedIssueKeys.add(issue.getKey());
+                  offset += descriptionBytes.length;
+               }
+            }
+         }
+      }
+
+      if (rewrite) {
+         Files.move(outputFile.toPath(), generationFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+         descriptionsGeneration = generation;
+         snapshotRequired = true;
+      }
+
+      return offloadedIssueKeys;
+   }
+
+   private Issue attachDescription(Issue issue) {
+      if (issue.getDescriptionRef() != Issue.NO_DESCRIPTION_REF) {
+         File descriptionsFile = getDescriptionsFile(descriptionsGeneration);
+         issue.offloadDescription(issue.getDescriptionRef(), descriptionRef -> readDescription(descriptionsFile, descriptionRef));
+      }
+      return issue;
+   }
+
+   private File getDescriptionsFile(long generation) {
+      return new File(file.getPath() + DESCRIPTIONS_FILE_SUFFIX + (generation > 0 ? "." + generation : ""));
+   }
+
+   private void loadSnapshotHeader() throws Exception {
+      descriptionsGeneration = 0;
+      snapshotGeneration = 0;
+      if (file.exists()) {
+         try (DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+            if (inputStream.readInt() == CHUNK_MAGIC) {
+               descriptionsGeneration = inputStream.readLong();
+               snapshotGeneration = inputStream.readLong();
+            }
+         } catch (EOFException e) {
+            logger.debug("Snapshot without header: " + file);
+         }
+      }
+      snapshotDescriptionsGeneration = descriptionsGeneration;
+   }
+
+   // Not synchronized because each read opens its own channel and must not wait for a store
+   private String readDescription(File descriptionsFile, long descriptionRef) {
+      ByteBuffer buffer = ByteBuffer.allocate((int)(descriptionRef & DESCRIPTION_LENGTH_MASK));
+      try (FileChannel channel = FileChannel.open(descriptionsFile.toPath(), StandardOpenOption.READ)) {
+         long position = descriptionRef >>> DESCRIPTION_LENGTH_BITS;
+         while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+               break;
+            }
+         }
+      } catch (IOException e) {
+         logger.warn("Error reading description from " + descriptionsFile + ": " + e);
+         return null;
+      }
+      return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+   }
+
+   private int loadSnapshot(ObjLongConsumer<Issue> issueConsumer) throws Exception {
+      if (isChunkedFile(file)) {
+         return loadChunks(issueConsumer);
+      }
+
+      // The legacy file is a pretty-printed array of issues
+      snapshotRequired = true;
+      return loadLegacyFile(issueConsumer);
+   }
+
+   private int loadChunks(SnapshotIndex snapshotIndex, BitSet chunks, ObjLongConsumer<Issue> issueConsumer) throws Exception {
+      int count = 0;
+
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+         ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+         for (int i = chunks.nextSetBit(0); i >= 0; i = chunks.nextSetBit(i + 1)) {
+            long position = snapshotIndex.chunkOffsets[i];
+            lengthBuffer.clear();
+            readFully(channel, lengthBuffer, position);
+            ByteBuffer chunkBuffer = ByteBuffer.allocate(lengthBuffer.getInt(0));
+            readFully(channel, chunkBuffer, position + Integer.BYTES);
+            count += decodeChunk(chunkBuffer.array(), issueConsumer);
+         }
+      }
+
+      return count;
+   }
+
+   private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+      while (buffer.hasRemaining()) {
+         if (channel.read(buffer, position + buffer.position()) < 0) {
+            throw new EOFException("Unexpected end of snapshot at " + (position + buffer.position()));
+         }
+      }
+   }
+
+   private int loadChunks(ObjLongConsumer<Issue> issueConsumer) throws Exception {
+      ExecutorService cpuExecutor = IssueExecutors.getCpuExecutor();
+
+      // Limit the chunks read ahead of the decoding tasks to bound the memory
+      Semaphore pendingChunks = new Semaphore(Runtime.getRuntime().availableProcessors() * 2);
+      List<Future<Integer>> chunkFutures = new ArrayList<>();
+
+      try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+         if (inputStream.readInt() == CHUNK_MAGIC) {
+            inputStream.readLong();
+            inputStream.readLong();
+         }
+
+         while (true) {
+            byte[] chunk;
+            try {
+               chunk = new byte[inputStream.readInt()];
+               inputStream.readFully(chunk);
+            } catch (EOFException e) {
+               break;
+            }
+
+            pendingChunks.acquire();
+            chunkFutures.add(cpuExecutor.submit(() -> {
+               try {
+                  return decodeChunk(chunk, issueConsumer);
+               } finally {
+                  pendingChunks.release();
+               }
+            }));
+         }
+
+         int count = 0;
+         for (Future<Integer> chunkFuture : chunkFutures) {
+            count += chunkFuture.get();
+         }
+         return count;
+      } catch (Exception e) {
+         chunkFutures.forEach(chunkFuture -> chunkFuture.cancel(true));
+         throw e;
+      }
+   }
+
+   private int decodeChunk(byte[] chunk, ObjLongConsumer<Issue> issueConsumer) {
+      int count = 0;
+
+      for (String record : new String(chunk, StandardCharsets.UTF_8).split("\n")) {
+         if (!record.isEmpty()) {
+            Issue issue = attachDescription(gson.fromJson(record, Issue.class));
+            issueConsumer.accept(issue, fingerprint(record));
+            count++;
+         }
+      }
+
+      return count;
+   }
+
+   private int loadLines(File linesFile, ObjLongConsumer<Issue> issueConsumer, Consumer<String> deletedIssueKeyConsumer) throws Exception {
+      int count = 0;
+
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+         new FileInputStream(linesFile), StandardCharsets.UTF_8))) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+               continue;
+            }
+
+            Issue issue;
+            String deletedIssueKey;
+            try {
+               if (line.charAt(0) == '"') {
+                  deletedIssueKey = gson.fromJson(line, String.class);
+                  issue = null;
+               } else {
+                  deletedIssueKey = null;
+                  issue = attachDescription(gson.fromJson(line, Issue.class));
+               }
+            } catch (JsonParseException e) {
+               // The last record could be truncated if the process was killed while appending
+               logger.warn("Skipping invalid record " + (count + 1) + " of " + linesFile + ": " + e);
+               continue;
+            }
+
+            if (issue != null) {
+               issueConsumer.accept(issue, fingerprint(line));
+            } else {
+               deletedIssueKeyConsumer.accept(deletedIssueKey);
+            }
+            count++;
+         }
+      }
+
+      return count;
+   }
+
+   private int loadLegacyFile(ObjLongConsumer<Issue> issueConsumer) throws Exception {
+      int count = 0;
+
+      try (JsonReader jsonReader = new JsonReader(new InputStreamReader(
+         new FileInputStream(file), StandardCharsets.UTF_8))) {
+         jsonReader.beginArray();
+         while (jsonReader.hasNext()) {
+            Issue issue = gson.fromJson(jsonReader, Issue.class);
+            issueConsumer.accept(issue, fingerprint(gson.toJson(issue)));
+            count++;
+         }
+         jsonReader.endArray();
+      }
+
+      return count;
+   }
+
+   private static boolean isChunkedFile(File file) throws Exception {
+      try (DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+         return inputStream.readInt() == CHUNK_MAGIC;
+      } catch (EOFException e) {
+         return false;
+      }
+   }
+
+   // Timestamps are stored as epoch milliseconds, legacy files store them as formatted dates
+   private static TypeAdapter<Long> createTimeAdapter(String dateFormatPattern) {
+      return new TypeAdapter<>() {
+         @Override
+         public void write(JsonWriter jsonWriter, Long time) throws IOException {
+            if (time == null || time == Issue.NO_TIME) {
+               jsonWriter.nullValue();
+            } else {
+               jsonWriter.value(time);
+            }
+         }
+
+         @Override
+         public Long read(JsonReader jsonReader) throws IOException {
+            if (jsonReader.peek() == JsonToken.NULL) {
+               jsonReader.nextNull();
+               return null;
+            } else if (jsonReader.peek() == JsonToken.STRING) {
+               String date = jsonReader.nextString();
+               try {
+                  return new SimpleDateFormat(dateFormatPattern).parse(date).getTime();
+               } catch (ParseException e) {
+                  throw new JsonParseException("Invalid date: " + date, e);
+               }
+            }
+            return jsonReader.nextLong();
+         }
+      };
+   }
+
+   // Chunk offsets and secondary indexes of the snapshot, stored next to it
+   private static class SnapshotIndex {
+      private long snapshotGeneration;
+      private long[] chunkOffsets;
+      private Map<String, Map<String, List<Integer>>> chunks = new HashMap<>();
+   }
+
+   // 64-bit FNV-1a hash of the record
+   private static long fingerprint(String record) {
+      long hash = 0xcbf29ce484222325L;
+      for (int i = 0; i < record.length(); i++) {
+         hash ^= record.charAt(i);
+         hash *= 0x100000001b3L;
+      }
+      return hash;
+   }
+}
@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class IssueUpdate {
+   private final String issueKey;
+   private String targetRelease;
+   private final Set<String> labels = new LinkedHashSet<>();
+   private final Set<String> upstreamIssues = new LinkedHashSet<>();
+
+   public IssueUpdate(String issueKey) {
+      this.issueKey = issueKey;
+   }
+
+   public String getIssueKey() {
+      return issueKey;
+   }
+
+   public String getTargetRelease() {
+      return targetRelease;
+   }
+
+   public IssueUpdate setTargetRelease(String targetRelease) {
+      this.targetRelease = targetRelease;
+      return this;
+   }
+
+   public IssueUpdate addLabels(String... labels) {
+      Collections.addAll(this.labels, labels);
+      return this;
+   }
+
+   public Set<String> getLabels() {
+      return labels;
+   }
+
+   public IssueUpdate addUpstreamIssues(String... upstreamIssues) {
+      Collections.addAll(this.upstreamIssues, upstreamIssues);
+      return this;
+   }
+
+   public Set<String> getUpstreamIssues() {
+      return upstreamIssues;
+   }
+
+   public IssueUpdate copy() {
+      IssueUpdate issueUpdate = new IssueUpdate(issueKey).setTargetRelease(targetRelease);
+      issueUpdate.labels.addAll(labels);
+      issueUpdate.upstreamIssues.addAll(upstreamIssues);
+      return issueUpdate;
+   }
+
+   public void applyTo(Issue issue) {
+      if (targetRelease != null) {
+         issue.setTargetRelease(targetRelease);
+      }
+      for (String label : labels) {
+         if (!issue.getLabels().contains(label)) {
+            issue.getLabels().add(label);
+         }
+      }
+      for (String upstreamIssue : upstreamIssues) {
+         if (!issue.getIssues().contains(upstreamIssue)) {
+            issue.getIssues().add(upstreamIssue);
+         }
+      }
+   }
+
+   public boolean isEmpty() {
+      return targetRelease == null && labels.isEmpty() && upstreamIssues.isEmpty();
+   }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class IssueWorkflow {
+   private final IssueStateMachine issueStateMachine;
+
+   // Transition ids by final status, for each known status of each issue type
+   // because the workflows of different issue types can have different transitions
+   private final Map<String, Map<String, Map<String, Integer>>> transitions = new ConcurrentHashMap<>();
+
+   // Status of the created issues of each issue type
+   private final Map<String, String> initialStatuses = new ConcurrentHashMap<>();
+
+   public IssueWorkflow(IssueStateMachine issueStateMachine) {
+      this.issueStateMachine = issueStateMachine;
+   }
+
+   public Map<String, Map<String, Map<String, Integer>>> getTransitions() {
+      return transitions;
+   }
+
+   public Map<String, Map<String, Integer>> getTransitions(String issueType) {
+      return transitions.getOrDefault(getIssueTypeKey(issueType), Collections.emptyMap());
+   }
+
+   public boolean isKnownStatus(String issueType, String status) {
+      return getTransitions(issueType).containsKey(status);
+   }
+
+   public void putTransitions(String issueType, String status, IssueTransaction[] issueTransactions) {
+      Map<String, Integer> statusTransitions = new LinkedHashMap<>();
+      for (IssueTransaction issueTransaction : issueTransactions) {
+         statusTransitions.put(issueTransaction.getFinalStatus(), issueTransaction.getId());
+      }
+      transitions.computeIfAbsent(getIssueTypeKey(issueType), key -> new ConcurrentHashMap<>())
+         .put(status, Collections.unmodifiableMap(statusTransitions));
+   }
+
+   public void removeTransitions(String issueType, String status) {
+      getTransitions(issueType).remove(status);
+   }
+
+   public Map<String, String> getInitialStatuses() {
+      return initialStatuses;
+   }
+
+   public String getInitialStatus(String issueType) {
+      return initialStatuses.get(getIssueTypeKey(issueType));
+   }
+
+   public void putInitialStatus(String issueType, String status) {
+      initialStatuses.put(getIssueTypeKey(issueType), status);
+   }
+
+   public List<IssueTransaction> findPath(String issueType, String fromStatus, String toStatus) {
+      Map<String, Map<String, Integer>> transitions = getTransitions(issueType);
+
+      // Breadth-first search through the known transitions
+      Map<String, IssueTransaction> previousTransitions = new HashMap<>();
+      Map<String, String> previousStatuses = new HashMap<>();
+      Deque<String> pendingStatuses = new ArrayDeque<>();
+      pendingStatuses.add(fromStatus);
+      previousStatuses.put(fromStatus, null);
+
+      while (!pendingStatuses.isEmpty()) {
+         String status = pendingStatuses.poll();
+
+         if (status.equals(toStatus)) {
+            List<IssueTransaction> path = new ArrayList<>();
+            while (previousStatuses.get(status) != null) {
+               path.add(0, previousTransitions.get(status));
+               status = previousStatuses.get(status);
+            }
+            return path;
+         }
+
+         for (Map.Entry<String, Integer> transition : transitions.getOrDefault(status, Collections.emptyMap()).entrySet()) {
+            if (!previousStatuses.containsKey(transition.getKey())) {
+               previousStatuses.put(transition.getKey(), status);
+               previousTransitions.put(transition.getKey(), new IssueTransaction()
+                  .setId(transition.getValue()).setFinalStatus(transition.getKey()));
+               pendingStatuses.add(transition.getKey());
+            }
+         }
+      }
+
+      // Move forward to the closest status before the final status when no path is known
+      IssueTransaction forwardTransaction = null;
+      int forwardStateIndex = getStateIndex(fromStatus);
+      int toStateIndex = getStateIndex(toStatus);
+      for (Map.Entry<String, Integer> transition : transitions.getOrDefault(fromStatus, Collections.emptyMap()).entrySet()) {
+         int stateIndex = getStateIndex(transition.getKey());
+         if (stateIndex > forwardStateIndex && stateIndex <= toStateIndex) {
+            forwardStateIndex = stateIndex;
+            forwardTransaction = new IssueTransaction().setId(transition.getValue()).setFinalStatus(transition.getKey());
+         }
+      }
+
+      return forwardTransaction != null ? List.of(forwardTransaction) : null;
+   }
+
+   // The issues without type share the same transitions
+   private static String getIssueTypeKey(String issueType) {
+      return issueType != null ? issueType : "";
+   }
+
+   private int getStateIndex(String state) {
+      try {
+         return issueStateMachine.getStateIndex(state);
+      } catch (IllegalStateException e) {
+         return -1;
+      }
+   }
+}
@@ -19,38 +19,38 @@ package dev.brus.downstream.updater.issue;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,61 +69,42 @@ public class JiraIssueManager implements IssueManager {
 
    private final static String dateFormatPattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
 
+   // DateTimeFormatter is thread safe, unlike SimpleDateFormat
+   private final static DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(dateFormatPattern);
+
    private final static String queryDateFormatPattern = "yyyy-MM-dd HH:mm";
 
+   private final static long DEFAULT_ISSUES_RECONCILIATION_INTERVAL = TimeUnit.DAYS.toMillis(7);
+
    private final String serverURL;
    private final String authString;
    private final String projectKey;
    private final String issueBaseUrl;
+   private final IssueHttpTransport transport;
 
    protected final Map<String, Issue> issues;
 
-   protected final SimpleDateFormat defaultDateFormat = new SimpleDateFormat(dateFormatPattern);
-   protected final SimpleDateFormat defaultQueryDateFormat = new SimpleDateFormat(queryDateFormatPattern);
-   private final Gson gson = new GsonBuilder().setDateFormat(dateFormatPattern).setPrettyPrinting().create();
+   private final IssueIndex issueIndex;
 
-   private final Pattern issueKeyPattern;
+   private IssueLinkGraph linkGraph;
 
-   private static class SearchPagePayload {
-      private final JsonArray issuesArray;
-      private final String nextPageToken;
-      private final Integer total;
+   private final Set<String> missingIssueKeys;
 
-      private SearchPagePayload(JsonArray issuesArray, String nextPageToken, Integer total) {
-         this.issuesArray = issuesArray;
-         this.nextPageToken = nextPageToken;
-         this.total = total;
-      }
+   // Issues changed since the last store
+   private final Set<String> dirtyIssueKeys;
 
-      public JsonArray getIssuesArray() {
-         return issuesArray;
-      }
+   private volatile boolean readThrough;
 
-      public String getNextPageToken() {
-         return nextPageToken;
-      }
+   private String issuesFilter;
 
-      public Integer getTotal() {
-         return total;
-      }
-   }
-   private static class SearchPageResult {
-      private final int loadedCount;
-      private final String nextPageToken;
+   private long issuesReconciliationInterval = DEFAULT_ISSUES_RECONCILIATION_INTERVAL;
 
-      private SearchPageResult(int loadedCount, String nextPageToken) {
-         this.loadedCount = loadedCount;
-         this.nextPageToken = nextPageToken;
-      }
+   private Date lastReconciliation;
 
-      public int getLoadedCount() {
-         return loadedCount;
-      }
+   protected final SimpleDateFormat defaultQueryDateFormat = new SimpleDateFormat(queryDateFormatPattern);
+   private IssueStore issueStore;
 
-      public String getNextPageToken() {
-         return nextPageToken;
-      }
-   }
+   private final IssueKeyScanner issueKeyScanner;
 
    @Override
    public void load() throws Exception {
@@ -142,6 +123,11 @@ public class JiraIssueManager implements IssueManager {
       return projectKey;
    }
 
+   @Override
+   public IssueHttpTransport getTransport() {
+      return transport;
+   }
+
    @Override
    public String getIssueBaseUrl() {
       return issueBaseUrl;
@@ -156,15 +142,77 @@ public class JiraIssueManager implements IssueManager {
       this.authString = authString;
       this.projectKey = projectKey;
       this.useOptimizedLoading = useOptimizedLoading;
-      this.issues = new HashMap<>();
+      this.issues = new ConcurrentHashMap<>();
+      this.issueIndex = new IssueIndex();
+      this.linkGraph = new IssueLinkGraph();
+      this.missingIssueKeys = ConcurrentHashMap.newKeySet();
+      this.dirtyIssueKeys = ConcurrentHashMap.newKeySet();
+      this.transport = new IssueHttpTransport(serverURL, authString,
+         Map.of("Content-Type", "application/json", "Accept", "application/json"));
 
       this.issueBaseUrl = serverURL + BROWSE_API_PATH;
-      this.issueKeyPattern = Pattern.compile(projectKey + "-[0-9]+");
+      this.issueKeyScanner = new IssueKeyScanner().addPrefix(projectKey + "-");
+   }
+
+   @Override
+   public IssueLinkGraph getLinkGraph() {
+      return linkGraph;
+   }
+
+   @Override
+   public void setLinkGraph(IssueLinkGraph linkGraph) {
+      this.linkGraph = linkGraph;
+   }
+
+   @Override
+   public boolean isReadThrough() {
+      return readThrough;
+   }
+
+   @Override
+   public void setReadThrough(boolean readThrough) {
+      this.readThrough = readThrough;
+   }
+
+   public String getIssuesFilter() {
+      return issuesFilter;
+   }
+
+   public void setIssuesFilter(String issuesFilter) {
+      this.issuesFilter = issuesFilter;
+   }
+
+   public long getIssuesReconciliationInterval() {
+      return issuesReconciliationInterval;
+   }
+
+   public void setIssuesReconciliationInterval(long issuesReconciliationInterval) {
+      this.issuesReconciliationInterval = issuesReconciliationInterval;
+   }
+
+   public Date getLastReconciliation() {
+      return lastReconciliation;
+   }
+
+   protected String getIssuesFilterJQL() {
+      return issuesFilter;
    }
 
    @Override
    public Issue getIssue(String key) {
-      return issues.get(key);
+      Issue issue = issues.get(key);
+
+      if (issue == null && readThrough && key != null && !missingIssueKeys.contains(key) &&
+         issueKeyScanner.isIssueKey(key)) {
+         try {
+            loadIssues(List.of(key));
+            issue = issues.get(key);
+         } catch (Exception e) {
+            logger.warn("Error loading issue " + key + ": " + e);
+         }
+      }
+
+      return issue;
    }
 
    @Override
@@ -172,6 +220,38 @@ public class JiraIssueManager implements IssueManager {
       return issues.values();
    }
 
+   @Override
+   public List<Issue> getIssuesBySummary(String summary) {
+      // Issue summaries could change after being indexed
+      return issueIndex.getIssueKeysBySummary(summary).stream().map(issues::get)
+         .filter(issue -> issue != null && summary.equals(issue.getSummary())).collect(Collectors.toList());
+   }
+
+   @Override
+   public void reindexIssue(String key) {
+      Issue issue = issues.get(key);
+      if (issue != null) {
+         updateLinks(issue);
+         issueIndex.update(issue);
+         dirtyIssueKeys.add(key);
+      } else {
+         issueIndex.remove(key);
+      }
+   }
+
+   protected void addIssue(Issue issue) {
+      issue.compact();
+      updateLinks(issue);
+      issues.put(issue.getKey(), issue);
+      issueIndex.update(issue);
+      dirtyIssueKeys.add(issue.getKey());
+   }
+
+   // The linked issues of the upstream issues mirror the links of the downstream issues
+   protected void updateLinks(Issue issue) {
+      linkGraph.mirrorTo(issue);
+   }
+
    @Override
    public String getIssueTypeBug() {
       return ISSUE_TYPE_BUG;
@@ -188,6 +268,33 @@ public class JiraIssueManager implements IssueManager {
    }
 
    public void loadIssues(Date lastUpdated) throws Exception {
+      String issuesFilterJQL = getIssuesFilterJQL();
+
+      if (issuesFilterJQL == null) {
+         loadIssues(lastUpdated, null, this::addIssue);
+      } else {
+         Date now = new Date();
+         if (lastUpdated == null || lastReconciliation == null ||
+            now.getTime() - lastReconciliation.getTime() > issuesReconciliationInterval) {
+            // Reload all the issues matching the filter, including the ones missed by the incremental loads
+            try {
+               loadIssues(null, issuesFilterJQL, this::addIssue);
+            } catch (Exception e) {
+               logger.warn("Error loading issues with filter " + issuesFilterJQL + ", falling back to a full sync: " + e);
+               loadIssues(null, null, this::addIssue);
+            }
+            lastReconciliation = now;
+         }
+
+         if (lastUpdated != null) {
+            // Load the updated issues without the filter to refresh the cached issues
+            // that no longer match it, i.e. the resolved ones are still needed as done
+            loadIssues(lastUpdated, null, this::addIssue);
+         }
+      }
+   }
+
+   private void loadIssues(Date lastUpdated, String issuesFilterJQL, Consumer<Issue> issueConsumer) throws Exception {
       int total;
       final int MAX_RESULTS = 250;
 
@@ -198,7 +305,11 @@ public class JiraIssueManager implements IssueManager {
          calendar.add(Calendar.DATE, -1);
          lastUpdatedQuery = " AND updated >= '" + defaultQueryDateFormat.format(calendar.getTime()) + "'";
       }
-      String jql = "project = '" + projectKey + "'" + lastUpdatedQuery;
+      String issuesFilterQuery = "";
+      if (issuesFilterJQL != null) {
+         issuesFilterQuery = " AND (" + issuesFilterJQL + ")";
+      }
+      String jql = "project = '" + projectKey + "'" + lastUpdatedQuery + issuesFilterQuery;
 
       int count = 0;
       long beginTimestamp = System.nanoTime();
@@ -207,14 +318,14 @@ public class JiraIssueManager implements IssueManager {
          logger.info("Loading issues using sequential search + parallel fetch");
          
          // Start the pipelined loading (gets total from first search/jql response)
-         PipelinedLoadResult result = loadIssuesWithSequentialSearchParallelFetch(jql, 100);
+         PipelinedLoadResult result = loadIssuesWithSequentialSearchParallelFetch(jql, 100, issueConsumer);
          count = result.getLoadedCount();
          total = result.getTotal();
       } else {
          String query = "&jql=" + URLEncoder.encode(jql, StandardCharsets.UTF_8);
          HttpURLConnection searchConnection = createConnection(REST_API_PATH + "/search?maxResults=0" + query, null);
          try {
-            try (InputStreamReader inputStreamReader = new InputStreamReader(searchConnection.getInputStream())) {
+            try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(searchConnection))) {
                JsonObject jsonObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
                total = jsonObject.getAsJsonPrimitive("total").getAsInt();
             }
@@ -230,22 +341,18 @@ public class JiraIssueManager implements IssueManager {
          for (int i = 0; i < taskCount; i++) {
             final int start = i * MAX_RESULTS;
             final int maxResults = i < taskCount - 1 ? MAX_RESULTS : total - start;
-            tasks.add(() -> loadIssues(query, start, maxResults));
+            tasks.add(() -> loadIssues(query, start, maxResults, issueConsumer));
          }
 
-         ExecutorService executorService = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-         try {
-            List<Future<Integer>> taskFutures = executorService.invokeAll(tasks);
-            for (Future<Integer> taskFuture : taskFutures) {
-               count += taskFuture.get();
-            }
-         } finally {
-            executorService.shutdown();
+         List<Future<Integer>> taskFutures = IssueExecutors.getIoExecutor().invokeAll(tasks);
+         for (Future<Integer> taskFuture : taskFutures) {
+            count += taskFuture.get();
          }
       }
 
       long endTimestamp = System.nanoTime();
       logger.info("Loaded " + count + "/" + total + " issues in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
+      logger.info("Transferred " + transport.getStatistics());
 
       int diff = total - count;
 
@@ -299,29 +406,107 @@ public class JiraIssueManager implements IssueManager {
    }
 
    private SearchIdsPagePayload searchIssueIdsJQL(String jql, int maxResults, String nextPageToken) throws Exception {
-      SearchPagePayload searchPagePayload = searchIssuesJQL(jql, maxResults, nextPageToken);
-      List<String> issueIdsOrKeys = new ArrayList<>();
-
-      JsonArray issuesArray = searchPagePayload.getIssuesArray();
-      if (issuesArray != null) {
-         for (JsonElement issueElement : issuesArray) {
-            if (issueElement == null || issueElement.isJsonNull()) {
-               continue;
+      JsonObject requestBody = new JsonObject();
+      requestBody.addProperty("jql", jql);
+      requestBody.addProperty("maxResults", maxResults);
+
+      // Only the ids are needed, the issue fields are loaded by the bulkfetch requests
+      JsonArray fields = new JsonArray();
+      fields.add("id");
+      requestBody.add("fields", fields);
+
+      // Handle blank/empty tokens: normalize to null to prevent infinite loops
+      if (nextPageToken != null && !nextPageToken.trim().isEmpty()) {
+         requestBody.addProperty("nextPageToken", nextPageToken);
+      }
+
+      HttpURLConnection connection = createConnection(REST_API_PATH + "/search/jql", configuredConnection -> {
+         try {
+            configuredConnection.setRequestMethod("POST");
+            configuredConnection.setDoOutput(true);
+            byte[] payload = requestBody.toString().getBytes(StandardCharsets.UTF_8);
+            configuredConnection.setRequestProperty("Content-Length", String.valueOf(payload.length));
+            try (OutputStream outputStream = configuredConnection.getOutputStream()) {
+               outputStream.write(payload);
             }
+         } catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      });
 
-            JsonObject issueObject = issueElement.getAsJsonObject();
-            if (issueObject.has("id") && !issueObject.get("id").isJsonNull()) {
-               issueIdsOrKeys.add(issueObject.get("id").getAsString());
-            } else if (issueObject.has("key") && !issueObject.get("key").isJsonNull()) {
-               issueIdsOrKeys.add(issueObject.get("key").getAsString());
+      try {
+         try (JsonReader jsonReader = new JsonReader(new InputStreamReader(getConnectionInputStream(connection), StandardCharsets.UTF_8))) {
+            List<String> issueIdsOrKeys = new ArrayList<>();
+            String returnedNextPageToken = null;
+            Integer total = null;
+
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+               String name = jsonReader.nextName();
+               if (jsonReader.peek() == JsonToken.NULL) {
+                  jsonReader.nextNull();
+               } else if (name.equals("issues")) {
+                  jsonReader.beginArray();
+                  while (jsonReader.hasNext()) {
+                     String issueIdOrKey = readIssueIdOrKey(jsonReader);
+                     if (issueIdOrKey != null) {
+                        issueIdsOrKeys.add(issueIdOrKey);
+                     }
+                  }
+                  jsonReader.endArray();
+               } else if (name.equals("nextPageToken")) {
+                  String token = jsonReader.nextString();
+                  // Normalize empty tokens to null
+                  if (!token.trim().isEmpty()) {
+                     returnedNextPageToken = token;
+                  }
+               } else if (name.equals("total")) {
+                  // Total count is only present in the first page
+                  total = jsonReader.nextInt();
+               } else {
+                  jsonReader.skipValue();
+               }
             }
+            jsonReader.endObject();
+
+            return new SearchIdsPagePayload(issueIdsOrKeys, returnedNextPageToken, total);
+         }
+      } finally {
+         connection.disconnect();
+      }
+   }
+
+   private String readIssueIdOrKey(JsonReader jsonReader) throws IOException {
+      if (jsonReader.peek() == JsonToken.NULL) {
+         jsonReader.nextNull();
+         return null;
+      }
+
+      String issueId = null;
+      String issueKey = null;
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+         String name = jsonReader.nextName();
+         if (jsonReader.peek() == JsonToken.NULL) {
+            jsonReader.nextNull();
+         } else if (name.equals("id")) {
+            issueId = jsonReader.nextString();
+         } else if (name.equals("key")) {
+            issueKey = jsonReader.nextString();
+         } else {
+            jsonReader.skipValue();
          }
       }
+      jsonReader.endObject();
 
-      return new SearchIdsPagePayload(issueIdsOrKeys, searchPagePayload.getNextPageToken(), searchPagePayload.getTotal());
+      return issueId != null ? issueId : issueKey;
    }
 
    private int bulkFetchIssues(List<String> issueIdsOrKeys) throws Exception {
+      return bulkFetchIssues(issueIdsOrKeys, this::addIssue);
+   }
+
+   private int bulkFetchIssues(List<String> issueIdsOrKeys, Consumer<Issue> issueConsumer) throws Exception {
       if (issueIdsOrKeys == null || issueIdsOrKeys.isEmpty()) {
          return 0;
       }
@@ -351,20 +536,16 @@ public class JiraIssueManager implements IssueManager {
       });
 
       try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
-            JsonObject jsonObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
-            JsonArray issuesArray = jsonObject.getAsJsonArray("issues");
-            return loadIssuesFromSearchResults(issuesArray);
+         try (JsonReader jsonReader = new JsonReader(new InputStreamReader(getConnectionInputStream(connection), StandardCharsets.UTF_8))) {
+            return readIssuesObject(jsonReader, issueConsumer);
          }
       } finally {
          connection.disconnect();
       }
    }
 
-   private PipelinedLoadResult loadIssuesWithSequentialSearchParallelFetch(String jql, int maxResults) throws Exception {
-   
-      int optimalThreads = Runtime.getRuntime().availableProcessors() * 3;
-      ExecutorService fetchExecutor = Executors.newFixedThreadPool(Math.min(optimalThreads, 50));
+   private PipelinedLoadResult loadIssuesWithSequentialSearchParallelFetch(String jql, int maxResults, Consumer<Issue> issueConsumer) throws Exception {
+      ExecutorService fetchExecutor = IssueExecutors.getIoExecutor();
       List<Future<Integer>> fetchFutures = new ArrayList<>();
       
       String nextPageToken = null;
@@ -388,7 +569,7 @@ public class JiraIssueManager implements IssueManager {
  
          if (!batchIds.isEmpty()) {
             logger.debug("Submitting fetch task for " + batchIds.size() + " issues from page " + searchCount);
-            Future<Integer> fetchFuture = fetchExecutor.submit(() -> bulkFetchIssues(batchIds));
+            Future<Integer> fetchFuture = fetchExecutor.submit(() -> bulkFetchIssues(batchIds, issueConsumer));
             fetchFutures.add(fetchFuture);
          }
          
@@ -403,8 +584,9 @@ public class JiraIssueManager implements IssueManager {
          for (Future<Integer> future : fetchFutures) {
             totalLoaded += future.get();
          }
-      } finally {
-         fetchExecutor.shutdown();
+      } catch (Exception e) {
+         fetchFutures.forEach(future -> future.cancel(true));
+         throw e;
       }
       
       // Use total from first page, or fall back to loaded count if not available
@@ -435,158 +617,154 @@ public class JiraIssueManager implements IssueManager {
       return fields;
    }
 
-   private SearchPagePayload searchIssuesJQL(String jql, int maxResults, String nextPageToken) throws Exception {
-      JsonObject requestBody = new JsonObject();
-      requestBody.addProperty("jql", jql);
-      requestBody.addProperty("maxResults", maxResults);
-
-      // Handle blank/empty tokens: normalize to null to prevent infinite loops
-      if (nextPageToken != null && !nextPageToken.trim().isEmpty()) {
-         requestBody.addProperty("nextPageToken", nextPageToken);
-      }
+   private String getRequiredIssueFieldsQuery() throws Exception {
+      List<String> requiredFields = new ArrayList<>();
+      buildRequiredIssueFields().forEach(field -> requiredFields.add(field.getAsString()));
+      return URLEncoder.encode(String.join(",", requiredFields), StandardCharsets.UTF_8);
+   }
 
-      HttpURLConnection connection = createConnection(REST_API_PATH + "/search/jql", configuredConnection -> {
-         try {
-            configuredConnection.setRequestMethod("POST");
-            configuredConnection.setDoOutput(true);
-            byte[] payload = requestBody.toString().getBytes(StandardCharsets.UTF_8);
-            configuredConnection.setRequestProperty("Content-Length", String.valueOf(payload.length));
-            try (OutputStream outputStream = configuredConnection.getOutputStream()) {
-               outputStream.write(payload);
-            }
-         } catch (IOException e) {
-            throw new RuntimeException(e);
-         }
-      });
+   private int loadIssues(String query, int start, int maxResults, Consumer<Issue> issueConsumer) throws Exception {
+      int result;
 
+      HttpURLConnection connection = createConnection(REST_API_PATH + "/search?fields=" + getRequiredIssueFieldsQuery() +
+         "&maxResults=" + maxResults + "&startAt=" + start + query, null);
       try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
-            JsonObject jsonObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
-            JsonArray issuesArray = jsonObject.getAsJsonArray("issues");
-
-            String returnedNextPageToken = null;
-            JsonElement nextPageTokenElement = jsonObject.get("nextPageToken");
-            if (nextPageTokenElement != null && !nextPageTokenElement.isJsonNull()) {
-               String token = nextPageTokenElement.getAsString();
-               // Normalize empty tokens to null
-               if (token != null && !token.trim().isEmpty()) {
-                  returnedNextPageToken = token;
-               }
-            }
-
-            // Extract total count from response (only present in first page)
-            Integer total = null;
-            JsonElement totalElement = jsonObject.get("total");
-            if (totalElement != null && !totalElement.isJsonNull()) {
-               total = totalElement.getAsInt();
-            }
-
-            return new SearchPagePayload(issuesArray, returnedNextPageToken, total);
+         try (JsonReader jsonReader = new JsonReader(new InputStreamReader(getConnectionInputStream(connection), StandardCharsets.UTF_8))) {
+            result = readIssuesObject(jsonReader, issueConsumer);
          }
       } finally {
          connection.disconnect();
       }
-   }
-
-   private int loadIssuesFromSearchResults(JsonArray issuesArray) throws Exception {
-      if (issuesArray == null || issuesArray.size() == 0) {
-         return 0;
-      }
 
-      int threadCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), issuesArray.size()));
-      ExecutorService executor = Executors.newFixedThreadPool(threadCount);
-      try {
-         List<Callable<Issue>> tasks = new ArrayList<>(issuesArray.size());
-         for (JsonElement issueElement : issuesArray) {
-            JsonObject issueObject = issueElement.getAsJsonObject();
-            tasks.add(() -> parseIssue(issueObject, new SimpleDateFormat(dateFormatPattern)));
-         }
+      int diff = maxResults - result;
 
-         int loaded = 0;
-         List<Future<Issue>> futures = executor.invokeAll(tasks);
-         for (Future<Issue> future : futures) {
-            Issue issue = future.get();
-            issues.put(issue.getKey(), issue);
-            loaded++;
-         }
-         return loaded;
-      } finally {
-         executor.shutdown();
+      if (diff > 3) {
+         throw new IllegalStateException("Error getting from " + start + " - " + result + "/" + maxResults + " issues");
+      } else if (diff > 0) {
+         logger.warn("Error getting from " + start + " - " + result + "/" + maxResults + " issues");
       }
+
+      return result;
    }
 
-   private int loadIssues(String query, int start, int maxResults) throws Exception {
+   private int readIssuesObject(JsonReader jsonReader, Consumer<Issue> issueConsumer) throws Exception {
       int result = 0;
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+         String name = jsonReader.nextName();
+         if (name.equals("issues") && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+               if (jsonReader.peek() == JsonToken.NULL) {
+                  jsonReader.nextNull();
+               } else {
+                  Issue issue = readIssue(jsonReader);
+
+                  issueConsumer.accept(issue);
+
+                  result++;
+               }
+            }
+            jsonReader.endArray();
+         } else {
+            jsonReader.skipValue();
+         }
+      }
+      jsonReader.endObject();
 
-      HttpURLConnection connection = createConnection(REST_API_PATH + "/search?fields=*all&maxResults=" + maxResults + "&startAt=" + start + query, null);
-      try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
-            JsonObject jsonObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
+      return result;
+   }
 
-            JsonArray issuesArray = jsonObject.getAsJsonArray("issues");
+   @Override
+   public void loadIssues(Collection<String> keys) throws Exception {
+      final int MAX_RESULTS = 100;
 
-            int diff = maxResults - issuesArray.size();
+      List<String> issueKeys = keys.stream().filter(key -> key != null &&
+         issueKeyScanner.isIssueKey(key)).distinct().collect(Collectors.toList());
 
-            if (diff > 3) {
-               throw new IllegalStateException("Error getting from " + start + " - " + issuesArray.size() + "/" + maxResults + " issues");
-            } else if (diff > 0) {
-               logger.warn("Error getting from " + start + " - " + issuesArray.size() + "/" + maxResults + " issues");
-            }
+      if (issueKeys.isEmpty()) {
+         return;
+      }
 
-            DateFormat dateFormat = new SimpleDateFormat(dateFormatPattern);
-            for (JsonElement issueElement : issuesArray) {
-               JsonObject issueObject = issueElement.getAsJsonObject();
+      long beginTimestamp = System.nanoTime();
 
-               Issue issue = parseIssue(issueObject, dateFormat);
+      int count = 0;
+      List<Future<Integer>> fetchFutures = new ArrayList<>();
+      for (int start = 0; start < issueKeys.size(); start += MAX_RESULTS) {
+         List<String> batchKeys = issueKeys.subList(start, Math.min(start + MAX_RESULTS, issueKeys.size()));
+         if (IssueExecutors.isIoThread()) {
+            // Avoid waiting for I/O tasks from an I/O thread
+            count += bulkFetchIssues(batchKeys);
+         } else {
+            fetchFutures.add(IssueExecutors.getIoExecutor().submit(() -> bulkFetchIssues(batchKeys)));
+         }
+      }
 
-               issues.put(issue.getKey(), issue);
+      try {
+         for (Future<Integer> future : fetchFutures) {
+            count += future.get();
+         }
+      } catch (Exception e) {
+         fetchFutures.forEach(future -> future.cancel(true));
+         throw e;
+      }
 
-               result++;
-            }
+      for (String issueKey : issueKeys) {
+         if (!issues.containsKey(issueKey)) {
+            missingIssueKeys.add(issueKey);
          }
-      } finally {
-         connection.disconnect();
       }
 
-      return result;
+      long endTimestamp = System.nanoTime();
+      logger.info("Loaded " + count + "/" + issueKeys.size() + " requested issues in " + (endTimestamp - beginTimestamp) / 1000000 + " milliseconds");
    }
 
    @Override
    public void loadIssues(File file) throws Exception {
-      Date lastUpdated = null;
+      AtomicLong lastUpdated = new AtomicLong(Issue.NO_TIME);
 
-      Issue[] issuesArray = gson.fromJson(FileUtils.readFileToString(
-         file, Charset.defaultCharset()), Issue[].class);
+      // The cached issues are loaded in parallel and the watermark is computed on the fly
+      getIssueStore(file).load(issue -> {
+         addIssue(issue);
 
-      if (issuesArray != null) {
-         for (Issue issue : issuesArray) {
-            issues.put(issue.getKey(), issue);
+         lastUpdated.accumulateAndGet(issue.getUpdatedTime(), Math::max);
+      });
+      dirtyIssueKeys.clear();
 
-            if (lastUpdated == null || lastUpdated.before(issue.getUpdated())) {
-               lastUpdated = issue.getUpdated();
-            }
-         }
+      File reconciliationFile = getReconciliationFile(file);
+      if (reconciliationFile.exists()) {
+         lastReconciliation = new Date(Long.parseLong(FileUtils.readFileToString(
+            reconciliationFile, Charset.defaultCharset()).trim()));
       }
 
-      loadIssues(lastUpdated);
+      loadIssues(lastUpdated.get() != Issue.NO_TIME ? new Date(lastUpdated.get()) : null);
    }
 
    @Override
    public void storeIssues(File file) throws Exception {
-      FileUtils.writeStringToFile(file, gson.toJson(issues.values()), Charset.defaultCharset());
-   }
+      getIssueStore(file).store(issues, dirtyIssueKeys);
 
-   @Override
-   public List<String> parseIssueKeys(String s) {
-      List <String> issueKeys = new ArrayList<>();
-      Matcher issueKeyMatcher = issueKeyPattern.matcher(s);
+      if (lastReconciliation != null) {
+         FileUtils.writeStringToFile(getReconciliationFile(file),
+            String.valueOf(lastReconciliation.getTime()), Charset.defaultCharset());
+      }
+   }
 
-      while (issueKeyMatcher.find()) {
-         String upstreamIssueKey = issueKeyMatcher.group();
-         issueKeys.add(upstreamIssueKey);
+   public synchronized IssueStore getIssueStore(File file) {
+      if (issueStore == null || !issueStore.getFile().equals(file)) {
+         issueStore = new IssueStore(file, dateFormatPattern);
       }
+      return issueStore;
+   }
+
+   private File getReconciliationFile(File file) {
+      return new File(file.getPath() + ".reconciliation");
+   }
 
-      return issueKeys;
+   @Override
+   public List<String> parseIssueKeys(String s) {
+      // The callers could change the parsed keys
+      return new ArrayList<>(issueKeyScanner.scan(s));
    }
 
    protected String parseUserId(JsonObject user) {
@@ -611,14 +789,14 @@ public class JiraIssueManager implements IssueManager {
       }
    }
 
-   protected Issue parseIssue(JsonObject issueObject, DateFormat dateFormat) throws Exception {
+   protected static long parseTime(String time) {
+      return OffsetDateTime.parse(time, dateTimeFormatter).toInstant().toEpochMilli();
+   }
+
+   protected Issue parseIssue(JsonObject issueObject) throws Exception {
       String issueKey = issueObject.getAsJsonPrimitive("key").getAsString();
       logger.debug("loading issue " + issueKey);
 
-      if (dateFormat == null) {
-         dateFormat = defaultDateFormat;
-      }
-
       JsonObject issueFields = issueObject.getAsJsonObject("fields");
       
       JsonElement issueAssigneeElement = issueFields.get("assignee");
@@ -634,8 +812,8 @@ public class JiraIssueManager implements IssueManager {
       String issueDescription = parseIssueDescription(issueDescriptionElement);
       String issueType = issueFields.getAsJsonObject("issuetype").getAsJsonPrimitive("name").getAsString();
       String issueSummary = issueFields.getAsJsonPrimitive("summary").getAsString();
-      Date issueCreated = dateFormat.parse(issueFields.getAsJsonPrimitive("created").getAsString());
-      Date issueUpdated = dateFormat.parse(issueFields.getAsJsonPrimitive("updated").getAsString());
+      long issueCreated = parseTime(issueFields.getAsJsonPrimitive("created").getAsString());
+      long issueUpdated = parseTime(issueFields.getAsJsonPrimitive("updated").getAsString());
 
       Issue issue = new Issue()
          .setKey(issueKey)
@@ -646,8 +824,8 @@ public class JiraIssueManager implements IssueManager {
          .setResolution(issueResolution)
          .setSummary(issueSummary)
          .setDescription(issueDescription)
-         .setCreated(issueCreated)
-         .setUpdated(issueUpdated)
+         .setCreatedTime(issueCreated)
+         .setUpdatedTime(issueUpdated)
          .setUrl(issueBaseUrl + "/" + issueKey)
          .setType(issueType);
 
@@ -659,9 +837,190 @@ public class JiraIssueManager implements IssueManager {
          issue.getLabels().add(label);
       }
 
+      for (IssueLink issueLink : parseIssueLinks(issueFields.get("issuelinks"))) {
+         issue.getIssueLinks().add(issueLink);
+      }
+
+      parseIssueCustomFields(issue, issueFields);
+
+      return issue;
+   }
+
+   protected Issue readIssue(JsonReader jsonReader) throws Exception {
+      Issue issue = new Issue();
+      JsonObject customFields = new JsonObject();
+
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+         String name = jsonReader.nextName();
+         if (name.equals("key")) {
+            issue.setKey(jsonReader.nextString());
+         } else if (name.equals("fields") && jsonReader.peek() == JsonToken.BEGIN_OBJECT) {
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+               readIssueField(jsonReader, jsonReader.nextName(), issue, customFields);
+            }
+            jsonReader.endObject();
+         } else {
+            jsonReader.skipValue();
+         }
+      }
+      jsonReader.endObject();
+
+      logger.debug("loading issue " + issue.getKey());
+
+      issue.setUrl(issueBaseUrl + "/" + issue.getKey());
+
+      parseIssueCustomFields(issue, customFields);
+
       return issue;
    }
 
+   private void readIssueField(JsonReader jsonReader, String name, Issue issue, JsonObject customFields) throws Exception {
+      if (jsonReader.peek() == JsonToken.NULL) {
+         jsonReader.nextNull();
+         return;
+      }
+
+      switch (name) {
+         case "assignee":
+            issue.setAssignee(parseUserId(readPrimitiveProperties(jsonReader)));
+            break;
+         case "creator":
+            issue.setCreator(parseUserId(readPrimitiveProperties(jsonReader)));
+            break;
+         case "reporter":
+            issue.setReporter(parseUserId(readPrimitiveProperties(jsonReader)));
+            break;
+         case "status":
+            issue.setState(readPrimitiveProperty(jsonReader, "name"));
+            break;
+         case "resolution":
+            issue.setResolution(readPrimitiveProperty(jsonReader, "name"));
+            break;
+         case "issuetype":
+            issue.setType(readPrimitiveProperty(jsonReader, "name"));
+            break;
+         case "description":
+            issue.setDescription(jsonReader.peek() == JsonToken.STRING ?
+               jsonReader.nextString() : parseIssueDescription(JsonParser.parseReader(jsonReader)));
+            break;
+         case "summary":
+            issue.setSummary(jsonReader.nextString());
+            break;
+         case "created":
+            issue.setCreatedTime(parseTime(jsonReader.nextString()));
+            break;
+         case "updated":
+            issue.setUpdatedTime(parseTime(jsonReader.nextString()));
+            break;
+         case "components":
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+               String component = readPrimitiveProperty(jsonReader, "name");
+               if (component != null) {
+                  issue.getComponents().add(component);
+               }
+            }
+            jsonReader.endArray();
+            break;
+         case "issuelinks":
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+               IssueLink issueLink = readIssueLink(jsonReader);
+               if (issueLink != null) {
+                  issue.getIssueLinks().add(issueLink);
+               }
+            }
+            jsonReader.endArray();
+            break;
+         case "labels":
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+               if (jsonReader.peek() == JsonToken.NULL) {
+                  jsonReader.nextNull();
+               } else {
+                  issue.getLabels().add(jsonReader.nextString());
+               }
+            }
+            jsonReader.endArray();
+            break;
+         default:
+            if (isCustomIssueField(name)) {
+               customFields.add(name, JsonParser.parseReader(jsonReader));
+            } else {
+               jsonReader.skipValue();
+            }
+            break;
+      }
+   }
+
+   private JsonObject readPrimitiveProperties(JsonReader jsonReader) throws IOException {
+      if (jsonReader.peek() == JsonToken.NULL) {
+         jsonReader.nextNull();
+         return null;
+      }
+
+      JsonObject properties = new JsonObject();
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+         String name = jsonReader.nextName();
+         JsonToken token = jsonReader.peek();
+         if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            properties.addProperty(name, jsonReader.nextString());
+         } else if (token == JsonToken.BOOLEAN) {
+            properties.addProperty(name, jsonReader.nextBoolean());
+         } else {
+            jsonReader.skipValue();
+         }
+      }
+      jsonReader.endObject();
+
+      return properties;
+   }
+
+   private IssueLink readIssueLink(JsonReader jsonReader) throws IOException {
+      if (jsonReader.peek() == JsonToken.NULL) {
+         jsonReader.nextNull();
+         return null;
+      }
+
+      IssueLink issueLink = new IssueLink();
+      jsonReader.beginObject();
+      while (jsonReader.hasNext()) {
+         String name = jsonReader.nextName();
+         if (name.equals("type")) {
+            issueLink.setType(readPrimitiveProperty(jsonReader, "name"));
+         } else if (name.equals("inwardIssue")) {
+            issueLink.setDirection(IssueLink.Direction.INWARD).setKey(readPrimitiveProperty(jsonReader, "key"));
+         } else if (name.equals("outwardIssue")) {
+            issueLink.setDirection(IssueLink.Direction.OUTWARD).setKey(readPrimitiveProperty(jsonReader, "key"));
+         } else {
+            jsonReader.skipValue();
+         }
+      }
+      jsonReader.endObject();
+
+      return issueLink.getKey() != null ? issueLink : null;
+   }
+
+   private String readPrimitiveProperty(JsonReader jsonReader, String propertyName) throws IOException {
+      JsonObject properties = readPrimitiveProperties(jsonReader);
+      if (properties == null || !properties.has(propertyName)) {
+         return null;
+      }
+
+      return properties.get(propertyName).getAsString();
+   }
+
+   protected boolean isCustomIssueField(String fieldId) {
+      return false;
+   }
+
+   protected void parseIssueCustomFields(Issue issue, JsonObject issueFields) throws Exception {
+
+   }
+
    protected List<String> parseComponents(JsonElement componentsElement) {
       List<String> components = new ArrayList<>();
 
@@ -676,6 +1035,31 @@ public class JiraIssueManager implements IssueManager {
       return components;
    }
 
+   protected List<IssueLink> parseIssueLinks(JsonElement issueLinksElement) {
+      List<IssueLink> issueLinks = new ArrayList<>();
+
+      if (issueLinksElement != null && !issueLinksElement.isJsonNull()) {
+         for (JsonElement issueLinkElement : issueLinksElement.getAsJsonArray()) {
+            if (issueLinkElement != null && issueLinkElement.isJsonObject()) {
+               JsonObject issueLinkObject = issueLinkElement.getAsJsonObject();
+               JsonElement typeElement = issueLinkObject.get("type");
+               String type = typeElement != null && typeElement.isJsonObject() ?
+                  typeElement.getAsJsonObject().get("name").getAsString() : null;
+
+               if (issueLinkObject.has("inwardIssue")) {
+                  issueLinks.add(new IssueLink(type, IssueLink.Direction.INWARD,
+                     issueLinkObject.getAsJsonObject("inwardIssue").get("key").getAsString()));
+               } else if (issueLinkObject.has("outwardIssue")) {
+                  issueLinks.add(new IssueLink(type, IssueLink.Direction.OUTWARD,
+                     issueLinkObject.getAsJsonObject("outwardIssue").get("key").getAsString()));
+               }
+            }
+         }
+      }
+
+      return issueLinks;
+   }
+
    protected List<String> parseLabels(JsonElement labelsElement) {
       List<String> labels = new ArrayList<>();
 
@@ -691,30 +1075,10 @@ public class JiraIssueManager implements IssueManager {
    }
 
    protected HttpURLConnection createConnection(String url, Consumer<HttpURLConnection> connectionConsumer) throws Exception {
-      URL upstreamJIRA = new URL(serverURL + url);
-
-      for (int i = 0; i < 9; i++) {
-         logger.info("Connecting to " + upstreamJIRA);
-         HttpURLConnection connection = (HttpURLConnection)upstreamJIRA.openConnection();
-         connection.setRequestProperty("Content-Type", "application/json");
-         connection.setRequestProperty("Accept", "application/json");
-
-         if (authString != null) {
-            connection.setRequestProperty("Authorization", authString);
-         }
-
-         if (connectionConsumer != null) {
-            connectionConsumer.accept(connection);
-         }
-
-         if (connection.getResponseCode() == 429) {
-            logger.debug("Rate limit reached, sleeping before retrying");
-            Thread.sleep((long)(3000 * Math.random()));
-         } else {
-            return connection;
-         }
-      }
+      return transport.createConnection(url, connectionConsumer);
+   }
 
-      throw new IOException("Failed to create a connection to " + upstreamJIRA + ". Maximum retries reached.");
+   protected InputStream getConnectionInputStream(HttpURLConnection connection) throws IOException {
+      return transport.getInputStream(connection);
    }
 }
@@ -17,25 +17,36 @@
 
 package dev.brus.downstream.updater.issue;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
-import java.text.DateFormat;
+import java.nio.charset.Charset;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,6 +75,27 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
    );
 
 
+   // Issues filter presets
+   public final static String ISSUES_FILTER_UPSTREAM = "upstream";
+   public final static String ISSUES_FILTER_UNRESOLVED = "unresolved";
+
+   private final static String CUSTOM_FIELD_ID_PREFIX = "customfield_";
+
+   public final static long DEFAULT_METADATA_EXPIRATION = TimeUnit.DAYS.toMillis(1);
+
+   private final static int BULK_EDIT_MAX_ISSUES = 1000;
+
+   private final static int BULK_UPDATE_PARALLELISM = 8;
+
+   private final static long BULK_EDIT_TASK_POLL_INTERVAL = 500;
+
+   private final static long BULK_EDIT_TASK_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+   private final static String FIELD_ISSUE_LINKS = "issuelinks";
+
+   // Issues linked to patch issues are customer issues
+   private final static String PATCH_ISSUE_KEY_PREFIX = "PATCH-";
+
    private final static String ISSUE_TYPE_BUG = "Bug";
    private final static String ISSUE_TYPE_VULNERABILITY = "Vulnerability";
 
@@ -78,31 +110,239 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
 
    private DownstreamIssueStateMachine issueStateMachine;
 
+   private IssueWorkflow issueWorkflow;
+
    private IssueManager upstreamIssueManager;
 
    private Map<String, String> fields;
 
+   private File metadataFile;
+
+   private long metadataExpiration = DEFAULT_METADATA_EXPIRATION;
+
+   private long fieldsTimestamp;
+
+   private long transitionsTimestamp;
+
+   // Fields loaded from the metadata file are refreshed once when a request fails
+   private volatile boolean fieldsCached;
+
+   private final Gson metadataGson = new GsonBuilder().setPrettyPrinting().create();
+
+   private volatile boolean bulkEditSupported = true;
+
+   // Issues read while processing are shared until they are written
+   private final SingleFlightCache<JsonObject> issueObjectCache = new SingleFlightCache<>(this::fetchIssue);
+
    public DownstreamIssueStateMachine getIssueStateMachine() {
       return issueStateMachine;
    }
 
+   public IssueWorkflow getIssueWorkflow() {
+      return issueWorkflow;
+   }
+
    public RedHatJiraIssueManager(String serverURL, String authString, String projectKey, DownstreamIssueStateMachine issueStateMachine, IssueManager upstreamIssueManager) {
       super(serverURL, authString, projectKey, true);
 
       this.issueStateMachine = issueStateMachine;
+      this.issueWorkflow = new IssueWorkflow(issueStateMachine);
       this.upstreamIssueManager = upstreamIssueManager;
+
+      // Share the links with the upstream issues
+      if (upstreamIssueManager != null && upstreamIssueManager.getLinkGraph() != null) {
+         setLinkGraph(upstreamIssueManager.getLinkGraph());
+      }
+   }
+
+   public SingleFlightCache<JsonObject> getIssueObjectCache() {
+      return issueObjectCache;
+   }
+
+   public File getMetadataFile() {
+      return metadataFile;
+   }
+
+   @Override
+   public void setMetadataFile(File metadataFile) {
+      this.metadataFile = metadataFile;
+   }
+
+   public long getMetadataExpiration() {
+      return metadataExpiration;
+   }
+
+   @Override
+   public void setMetadataExpiration(long metadataExpiration) {
+      this.metadataExpiration = metadataExpiration;
    }
 
    @Override
    public void load() throws Exception {
+      if (!loadMetadata()) {
+         loadFields();
+         storeMetadata();
+      }
+   }
+
+   private boolean loadMetadata() throws Exception {
+      if (metadataFile == null || !metadataFile.exists()) {
+         return false;
+      }
+
+      JsonObject metadataObject;
+      try {
+         metadataObject = JsonParser.parseString(FileUtils.readFileToString(
+            metadataFile, Charset.defaultCharset())).getAsJsonObject();
+      } catch (Exception e) {
+         logger.warn("Error reading metadata file " + metadataFile + ": " + e);
+         return false;
+      }
+
+      if (!getServerURL().equals(getMetadataString(metadataObject, "serverURL")) ||
+         !getProjectKey().equals(getMetadataString(metadataObject, "projectKey"))) {
+         return false;
+      }
+
+      long timestamp = System.currentTimeMillis();
+
+      long cachedTransitionsTimestamp = metadataObject.has("transitionsTimestamp") ?
+         metadataObject.get("transitionsTimestamp").getAsLong() : 0;
+      // The transitions cached by status only are ignored and discovered again by issue type
+      if (timestamp - cachedTransitionsTimestamp < metadataExpiration && metadataObject.has("issueTypeTransitions")) {
+         for (Map.Entry<String, JsonElement> issueTypeEntry : metadataObject.getAsJsonObject("issueTypeTransitions").entrySet()) {
+            for (Map.Entry<String, JsonElement> statusEntry : issueTypeEntry.getValue().getAsJsonObject().entrySet()) {
+               List<IssueTransaction> issueTransactions = new ArrayList<>();
+               for (Map.Entry<String, JsonElement> transitionEntry : statusEntry.getValue().getAsJsonObject().entrySet()) {
+                  issueTransactions.add(new IssueTransaction().setFinalStatus(transitionEntry.getKey())
+                     .setId(transitionEntry.getValue().getAsInt()));
+               }
+               issueWorkflow.putTransitions(issueTypeEntry.getKey(), statusEntry.getKey(),
+                  issueTransactions.toArray(IssueTransaction[]::new));
+            }
+         }
+         transitionsTimestamp = cachedTransitionsTimestamp;
+      }
+
+      long cachedFieldsTimestamp = metadataObject.has("fieldsTimestamp") ?
+         metadataObject.get("fieldsTimestamp").getAsLong() : 0;
+      if (timestamp - cachedFieldsTimestamp >= metadataExpiration || !metadataObject.has("fields")) {
+         return false;
+      }
+
+      Map<String, String> cachedFields = new ConcurrentHashMap<>();
+      for (Map.Entry<String, JsonElement> fieldEntry : metadataObject.getAsJsonObject("fields").entrySet()) {
+         cachedFields.put(fieldEntry.getKey(), fieldEntry.getValue().getAsString());
+      }
+
+      if (!cachedFields.keySet().containsAll(FIELDS)) {
+         return false;
+      }
+
+      fields = cachedFields;
+      fieldsTimestamp = cachedFieldsTimestamp;
+      fieldsCached = true;
+
+      logger.info("Loaded fields from " + metadataFile);
+
+      return true;
+   }
+
+   private String getMetadataString(JsonObject metadataObject, String name) {
+      JsonElement element = metadataObject.get(name);
+      return element != null && !element.isJsonNull() ? element.getAsString() : null;
+   }
+
+   private synchronized void storeMetadata() throws Exception {
+      if (metadataFile == null) {
+         return;
+      }
+
+      if (transitionsTimestamp == 0) {
+         transitionsTimestamp = System.currentTimeMillis();
+      }
+
+      JsonObject metadataObject = new JsonObject();
+      metadataObject.addProperty("serverURL", getServerURL());
+      metadataObject.addProperty("projectKey", getProjectKey());
+      metadataObject.addProperty("fieldsTimestamp", fieldsTimestamp);
+      metadataObject.add("fields", metadataGson.toJsonTree(fields));
+      metadataObject.addProperty("transitionsTimestamp", transitionsTimestamp);
+      metadataObject.add("issueTypeTransitions", metadataGson.toJsonTree(issueWorkflow.getTransitions()));
+      metadataObject.add("issueTypeInitialStatuses", metadataGson.toJsonTree(issueWorkflow.getInitialStatuses()));
+
+      FileUtils.writeStringToFile(metadataFile, metadataGson.toJson(metadataObject), Charset.defaultCharset());
+   }
+
+   private synchronized boolean refreshCachedFields() throws Exception {
+      if (!fieldsCached) {
+         return false;
+      }
+
+      Map<String, String> cachedFields = fields;
       loadFields();
+      storeMetadata();
+
+      logger.info("Refreshed cached fields");
+
+      return !cachedFields.equals(fields);
+   }
+
+   // Retries once when the request was rejected because of stale cached field ids, the transport errors
+   // are never retried because the request could have been processed, i.e. the issue could have been created
+   private <T> T withFieldsRefresh(Callable<T> callable) throws Exception {
+      try {
+         return callable.call();
+      } catch (IOException e) {
+         if (!isCachedFieldError(e) || !refreshCachedFields()) {
+            throw e;
+         }
+
+         logger.debug("Retrying with refreshed fields after: " + e);
+         return callable.call();
+      }
+   }
+
+   private boolean isCachedFieldError(Throwable throwable) {
+      if (!fieldsCached) {
+         return false;
+      }
+
+      for (; throwable != null; throwable = throwable.getCause()) {
+         if (throwable instanceof IssueHttpResponseException) {
+            IssueHttpResponseException responseException = (IssueHttpResponseException)throwable;
+            if (responseException.getResponseCode() != HttpURLConnection.HTTP_BAD_REQUEST) {
+               return false;
+            }
+
+            // Jira returns the ids of the invalid fields as the keys of the errors object
+            try {
+               JsonElement errorsElement = JsonParser.parseString(responseException.getResponseError())
+                  .getAsJsonObject().get("errors");
+               return errorsElement != null && errorsElement.isJsonObject() &&
+                  errorsElement.getAsJsonObject().keySet().stream().anyMatch(fields::containsValue);
+            } catch (RuntimeException e) {
+               return false;
+            }
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public void storeIssues(File file) throws Exception {
+      super.storeIssues(file);
+
+      logger.info("Issue reads: " + issueObjectCache.getStatistics());
+
+      storeMetadata();
    }
 
    private void loadFields() throws Exception {
       Map<String, String> loadedFields = new ConcurrentHashMap<>();
       HttpURLConnection connection = createConnection(REST_API_PATH + "/field", null);
       try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
+         try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(connection))) {
             JsonArray fieldsArray = JsonParser.parseReader(inputStreamReader).getAsJsonArray();
 
             for (JsonElement fieldElement : fieldsArray) {
@@ -119,6 +359,8 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
             loadedFields.get(fieldName), "Field " + fieldName + " not loaded"));
 
          fields = loadedFields;
+         fieldsTimestamp = System.currentTimeMillis();
+         fieldsCached = false;
       } finally {
          connection.disconnect();
       }
@@ -128,11 +370,46 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
       return fields.get(name);
    }
 
+   @Override
+   protected String getIssuesFilterJQL() {
+      String issuesFilter = getIssuesFilter();
+      if (issuesFilter == null || issuesFilter.isBlank()) {
+         return null;
+      }
+
+      List<String> issuesFilterClauses = new ArrayList<>();
+      for (String issuesFilterPreset : issuesFilter.split(",")) {
+         switch (issuesFilterPreset.trim()) {
+            case ISSUES_FILTER_UPSTREAM:
+               issuesFilterClauses.add(getFieldJQLName(FIELD_UPSTREAM_JIRA) + " is not EMPTY");
+               break;
+            case ISSUES_FILTER_UNRESOLVED:
+               issuesFilterClauses.add("resolution = Unresolved");
+               break;
+            default:
+               // Not a list of presets, i.e. "Target Release" in ("AMQ 7.11.0.GA", "AMQ 7.11.1.GA")
+               return issuesFilter;
+         }
+      }
+
+      return String.join(" OR ", issuesFilterClauses);
+   }
+
+   private String getFieldJQLName(String fieldName) {
+      String fieldId = fields.get(fieldName);
+      if (fieldId.startsWith(CUSTOM_FIELD_ID_PREFIX)) {
+         return "cf[" + fieldId.substring(CUSTOM_FIELD_ID_PREFIX.length()) + "]";
+      }
+
+      return "\"" + fieldName + "\"";
+   }
+
    @Override
    protected JsonArray buildRequiredIssueFields() throws Exception {
       JsonArray requiredIssueFields = super.buildRequiredIssueFields();
 
       fields.forEach((key, value) -> requiredIssueFields.add(value));
+      requiredIssueFields.add(FIELD_ISSUE_LINKS);
 
       return requiredIssueFields;
    }
@@ -164,7 +441,130 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
 
    @Override
    public Issue createIssue(String summary, String description, String type, String assignee, String targetRelease, List<String> labels) throws Exception {
+      String issueKey = withFieldsRefresh(() -> postIssue(
+         createIssueObject(summary, description, type, assignee, targetRelease, labels))).getKey();
+
+      Issue issue = parseIssue(loadIssue(issueKey));
+
+      addIssue(issue);
+
+      return issue;
+   }
 
+   @Override
+   public Issue cloneIssue(String cloningIssueKey, String summary, String targetRelease, List<String> labels, String linkType, String finalStatus) throws Exception {
+      Issue issue = createClonedIssue(cloningIssueKey, summary, targetRelease, labels);
+      List<String> upstreamIssues = new ArrayList<>(getIssue(cloningIssueKey).getIssues());
+
+      List<Callable<Void>> tasks = new ArrayList<>();
+      if (issue.getIssues().isEmpty() && upstreamIssues.size() > 0) {
+         tasks.add(() -> {
+            updateIssue(new IssueUpdate(issue.getKey()).addUpstreamIssues(upstreamIssues.toArray(String[]::new)));
+            return null;
+         });
+      }
+      tasks.add(() -> {
+         linkIssue(issue.getKey(), cloningIssueKey, linkType);
+         return null;
+      });
+      String initialStatus = issue.getState();
+      tasks.add(() -> {
+         transitionIssue(issue.getKey(), initialStatus, finalStatus);
+         return null;
+      });
+
+      if (IssueExecutors.isIoThread()) {
+         // Avoid waiting for I/O tasks from an I/O thread
+         for (Callable<Void> task : tasks) {
+            task.call();
+         }
+      } else {
+         List<Future<Void>> taskFutures = new ArrayList<>();
+         for (Callable<Void> task : tasks) {
+            taskFutures.add(IssueExecutors.getIoExecutor().submit(task));
+         }
+
+         try {
+            for (Future<Void> taskFuture : taskFutures) {
+               taskFuture.get();
+            }
+         } catch (Exception e) {
+            taskFutures.forEach(future -> future.cancel(true));
+            throw e;
+         }
+      }
+
+      return issue;
+   }
+
+   @Override
+   public Issue createClonedIssue(String cloningIssueKey, String summary, String targetRelease, List<String> labels) throws Exception {
+      Issue cloningIssue = getIssue(cloningIssueKey);
+      if (cloningIssue == null) {
+         throw new IllegalArgumentException("Issue not found: " + cloningIssueKey);
+      }
+
+      List<String> upstreamIssues = new ArrayList<>(cloningIssue.getIssues());
+
+      // Only the creation is retried with refreshed fields to avoid duplicating the issue
+      Map.Entry<Issue, Boolean> postedIssue = withFieldsRefresh(() ->
+         postClonedIssue(cloningIssue, summary, targetRelease, labels, upstreamIssues));
+      boolean upstreamIssuesCreated = postedIssue.getValue();
+
+      // Build the issue from the create response and the created fields to avoid loading it
+      Issue issue = postedIssue.getKey()
+         .setSummary(summary)
+         .setDescription(cloningIssue.getDescription())
+         .setType(cloningIssue.getType())
+         .setAssignee(cloningIssue.getAssignee())
+         .setTargetRelease(targetRelease)
+         .setCustomer(cloningIssue.isCustomer())
+         .setCustomerPriority(cloningIssue.getCustomerPriority())
+         .setSecurity(cloningIssue.isSecurity())
+         .setSecurityImpact(cloningIssue.getSecurityImpact());
+      issue.getLabels().addAll(labels);
+      if (upstreamIssuesCreated) {
+         issue.getIssues().addAll(upstreamIssues);
+      }
+
+      // The status of the created issues is only loaded once for each issue type
+      String initialStatus = issueWorkflow.getInitialStatus(issue.getType());
+      if (initialStatus == null) {
+         initialStatus = getIssueStatus(issue.getKey());
+         issueWorkflow.putInitialStatus(issue.getType(), initialStatus);
+      }
+      issue.setState(initialStatus);
+
+      addIssue(issue);
+
+      return issue;
+   }
+
+   private Map.Entry<Issue, Boolean> postClonedIssue(Issue cloningIssue, String summary, String targetRelease, List<String> labels, List<String> upstreamIssues) throws Exception {
+      JsonObject issueObject = createIssueObject(summary, cloningIssue.getDescription(),
+         cloningIssue.getType(), cloningIssue.getAssignee(), targetRelease, labels);
+
+      String upstreamJiraFieldId = getFieldIdByName(FIELD_UPSTREAM_JIRA);
+      if (upstreamIssues.size() > 0) {
+         issueObject.getAsJsonObject("fields").addProperty(upstreamJiraFieldId,
+            getUpstreamJiraFieldValue(upstreamIssues));
+      }
+
+      try {
+         return new AbstractMap.SimpleEntry<>(postIssue(issueObject), upstreamIssues.size() > 0);
+      } catch (IOException e) {
+         if (upstreamIssues.size() == 0 || e.getMessage() == null || !e.getMessage().contains(upstreamJiraFieldId)) {
+            throw e;
+         }
+
+         // The Upstream Jira field could be missing from the create screen
+         logger.debug("Failed to create issue with upstream issues: " + e);
+         issueObject.getAsJsonObject("fields").remove(upstreamJiraFieldId);
+         return new AbstractMap.SimpleEntry<>(postIssue(issueObject), false);
+      }
+   }
+
+   private JsonObject createIssueObject(String summary, String description, String type, String assignee, String targetRelease, List<String> labels) throws Exception {
       JsonObject issueObject = new JsonObject();
       {
          JsonObject fieldsObject = new JsonObject();
@@ -178,8 +578,6 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          if (description != null) {
             fieldsObject.addProperty("description", description);
          }
-         //UPSTREAM_ISSUE_FIELD was removed from the create screen
-         //fieldsObject.addProperty(UPSTREAM_ISSUE_FIELD, upstreamIssue);
          JsonObject targetReleaseObject = new JsonObject();
          targetReleaseObject.addProperty("name", targetRelease);
          fieldsObject.add(getFieldIdByName(FIELD_TARGET_RELEASE), targetReleaseObject);
@@ -193,17 +591,10 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          fieldsObject.add("labels", labelsArray);
          issueObject.add("fields", fieldsObject);
       }
-
-      String issueKey = postIssue(issueObject);
-
-      Issue issue = parseIssue(loadIssue(issueKey), defaultDateFormat);
-
-      issues.put(issue.getKey(), issue);
-
-      return issue;
+      return issueObject;
    }
 
-   private String postIssue(JsonObject issueObject) throws Exception {
+   private Issue postIssue(JsonObject issueObject) throws Exception {
       HttpURLConnection connection = createConnection(REST_API_PATH + "/issue/", httpConnection -> {
          try {
             httpConnection.setDoOutput(true);
@@ -223,7 +614,14 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
 
             String issueKey = responseObject.getAsJsonPrimitive("key").getAsString();
 
-            return issueKey;
+            // The issue is created and updated when the response is sent
+            long created = connection.getDate() > 0 ? connection.getDate() : System.currentTimeMillis();
+
+            return new Issue()
+               .setKey(issueKey)
+               .setUrl(getIssueBaseUrl() + "/" + issueKey)
+               .setCreatedTime(created)
+               .setUpdatedTime(created);
          }
       } finally {
          connection.disconnect();
@@ -232,104 +630,308 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
 
    @Override
    public void addIssueLabels(String issueKey, String... labels) throws Exception {
-      List<String> newLabelsList = new ArrayList<>();
-      for (String label : labels) {
-         newLabelsList.add(label);
+      updateIssue(new IssueUpdate(issueKey).addLabels(labels));
+   }
+
+   @Override
+   public Map<String, Exception> writeIssuesLabels(Map<String, ? extends Collection<String>> issuesLabels) throws Exception {
+      // Group the issues by the labels to add to send a single request for each group
+      Map<Set<String>, List<String>> labelsIssueKeys = new LinkedHashMap<>();
+      issuesLabels.forEach((issueKey, labels) -> {
+         if (labels.size() > 0) {
+            labelsIssueKeys.computeIfAbsent(new TreeSet<>(labels), key -> new ArrayList<>()).add(issueKey);
+         }
+      });
+
+      Map<String, Exception> results = new ConcurrentHashMap<>();
+      List<Map.Entry<String, Set<String>>> fallbackUpdates = new ArrayList<>();
+
+      for (Map.Entry<Set<String>, List<String>> labelsIssueKeysEntry : labelsIssueKeys.entrySet()) {
+         Set<String> labels = labelsIssueKeysEntry.getKey();
+         List<String> issueKeys = labelsIssueKeysEntry.getValue();
+
+         for (int start = 0; start < issueKeys.size(); start += BULK_EDIT_MAX_ISSUES) {
+            List<String> bulkIssueKeys = issueKeys.subList(start, Math.min(start + BULK_EDIT_MAX_ISSUES, issueKeys.size()));
+
+            // The issues not edited by the bulk edit task are updated one by one
+            List<String> failedIssueKeys = bulkIssueKeys.size() > 1 && bulkEditSupported ?
+               postBulkLabels(bulkIssueKeys, labels) : bulkIssueKeys;
+
+            failedIssueKeys.forEach(issueKey -> fallbackUpdates.add(new AbstractMap.SimpleEntry<>(issueKey, labels)));
+         }
       }
 
-      JsonObject issueObject = loadIssue(issueKey);
-      JsonObject issueFields = issueObject.getAsJsonObject("fields");
-      List<String> labelsList = parseLabels(issueFields.get("labels"));
-      for (String label : labelsList) {
-         newLabelsList.remove(label);
+      if (fallbackUpdates.size() > 0) {
+         logger.debug("Adding labels to " + fallbackUpdates.size() + " issues with parallel updates");
+
+         // Split the updates in slices to bound the number of concurrent requests
+         int slices = Math.min(BULK_UPDATE_PARALLELISM, fallbackUpdates.size());
+         List<Callable<Void>> tasks = new ArrayList<>();
+         for (int slice = 0; slice < slices; slice++) {
+            final int firstUpdate = slice;
+            tasks.add(() -> {
+               for (int i = firstUpdate; i < fallbackUpdates.size(); i += slices) {
+                  Map.Entry<String, Set<String>> fallbackUpdate = fallbackUpdates.get(i);
+                  try {
+                     writeIssueUpdate(new IssueUpdate(fallbackUpdate.getKey()).addLabels(fallbackUpdate.getValue().toArray(String[]::new)), null);
+                  } catch (Exception e) {
+                     logger.debug("Failed to add labels to issue " + fallbackUpdate.getKey() + ": " + e);
+                     results.put(fallbackUpdate.getKey(), e);
+                  }
+               }
+               return null;
+            });
+         }
+
+         if (IssueExecutors.isIoThread()) {
+            for (Callable<Void> task : tasks) {
+               task.call();
+            }
+         } else {
+            for (Future<Void> taskFuture : IssueExecutors.getIoExecutor().invokeAll(tasks)) {
+               taskFuture.get();
+            }
+         }
+      }
+
+      return results;
+   }
+
+   // Returns the keys of the issues whose labels could not be added by the bulk edit task
+   private List<String> postBulkLabels(List<String> issueKeys, Set<String> labels) throws Exception {
+      JsonObject bulkEditObject = new JsonObject();
+      JsonArray issueKeysArray = new JsonArray();
+      issueKeys.forEach(issueKeysArray::add);
+      bulkEditObject.add("selectedIssueIdsOrKeys", issueKeysArray);
+      JsonArray actionsArray = new JsonArray();
+      actionsArray.add("labels");
+      bulkEditObject.add("selectedActions", actionsArray);
+      JsonObject labelsFieldObject = new JsonObject();
+      labelsFieldObject.addProperty("fieldId", "labels");
+      labelsFieldObject.addProperty("bulkEditMultiSelectFieldOption", "ADD");
+      JsonArray labelsArray = new JsonArray();
+      for (String label : labels) {
+         JsonObject labelObject = new JsonObject();
+         labelObject.addProperty("name", label);
+         labelsArray.add(labelObject);
       }
+      labelsFieldObject.add("labels", labelsArray);
+      JsonArray labelsFieldsArray = new JsonArray();
+      labelsFieldsArray.add(labelsFieldObject);
+      JsonObject editedFieldsObject = new JsonObject();
+      editedFieldsObject.add("labelsFields", labelsFieldsArray);
+      bulkEditObject.add("editedFieldsInput", editedFieldsObject);
+
+      HttpURLConnection connection = createConnection(REST_API_PATH + "/bulk/issues/fields", httpConnection -> {
+         try {
+            httpConnection.setDoOutput(true);
+            httpConnection.setRequestMethod("POST");
 
-      if (newLabelsList.size() > 0) {
-         for (String newLabel : newLabelsList) {
-            labelsList.add(newLabel);
+            try (OutputStreamWriter outputStreamWriter = new OutputStreamWriter(httpConnection.getOutputStream())) {
+               outputStreamWriter.write(bulkEditObject.toString());
+            }
+         } catch (IOException e) {
+            throw new RuntimeException(e);
          }
+      });
 
-         JsonObject updatingIssueObject = new JsonObject();
-         {
-            JsonObject updatingFieldsObject = new JsonObject();
-            JsonArray updatingLabelsArray = new JsonArray();
-            for (String label : labelsList) {
-               updatingLabelsArray.add(label);
+      try {
+         int responseCode = connection.getResponseCode();
+         if (responseCode == HttpURLConnection.HTTP_NOT_FOUND || responseCode == HttpURLConnection.HTTP_BAD_METHOD) {
+            // The bulk edit endpoint is only available on Jira Cloud
+            logger.info("Bulk edit not supported, falling back to single issue updates");
+            bulkEditSupported = false;
+            return issueKeys;
+         }
+
+         String taskId;
+         try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(connection))) {
+            taskId = JsonParser.parseReader(inputStreamReader).getAsJsonObject().getAsJsonPrimitive("taskId").getAsString();
+         }
+
+         return getBulkTaskFailedIssueKeys(issueKeys, awaitBulkTask(taskId));
+      } catch (IOException | RuntimeException e) {
+         logger.debug("Failed to add labels to " + issueKeys.size() + " issues with bulk edit: " + e);
+         return issueKeys;
+      } finally {
+         connection.disconnect();
+      }
+   }
+
+   private JsonObject awaitBulkTask(String taskId) throws Exception {
+      long timeout = System.currentTimeMillis() + BULK_EDIT_TASK_TIMEOUT;
+
+      while (true) {
+         JsonObject taskObject;
+         HttpURLConnection connection = createConnection(REST_API_PATH + "/bulk/queue/" + taskId, null);
+         try {
+            try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(connection))) {
+               taskObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
             }
-            updatingFieldsObject.add("labels", updatingLabelsArray);
-            updatingIssueObject.add("fields", updatingFieldsObject);
+         } finally {
+            connection.disconnect();
          }
 
-         putIssue(issueKey, updatingIssueObject);
+         String status = taskObject.getAsJsonPrimitive("status").getAsString();
+         if (!status.equals("ENQUEUED") && !status.equals("RUNNING")) {
+            logger.debug("Bulk edit task " + taskId + " " + status);
+            return taskObject;
+         } else if (System.currentTimeMillis() > timeout) {
+            throw new IllegalStateException("Bulk edit task " + taskId + " timed out");
+         }
+
+         Thread.sleep(BULK_EDIT_TASK_POLL_INTERVAL);
       }
+   }
 
-      Issue issue = issues.get(issueKey);
-      if (issue != null) {
-         for (String label : labels) {
-            if (!issue.getLabels().contains(label)) {
-               issue.getLabels().add(label);
+   private List<String> getBulkTaskFailedIssueKeys(List<String> issueKeys, JsonObject taskObject) {
+      if (!taskObject.getAsJsonPrimitive("status").getAsString().equals("COMPLETE")) {
+         return issueKeys;
+      }
+
+      JsonElement invalidIssueCountElement = taskObject.get("invalidOrInaccessibleIssueCount");
+      if (invalidIssueCountElement != null && invalidIssueCountElement.getAsInt() > 0) {
+         return issueKeys;
+      }
+
+      JsonElement processedIssuesElement = taskObject.get("processedAccessibleIssues");
+      int processedIssueCount = processedIssuesElement != null && processedIssuesElement.isJsonArray() ?
+         processedIssuesElement.getAsJsonArray().size() : 0;
+
+      List<String> failedIssueKeys = new ArrayList<>();
+      JsonElement failedIssuesElement = taskObject.get("failedAccessibleIssues");
+      if (failedIssuesElement != null && failedIssuesElement.isJsonObject()) {
+         for (String failedIssueIdOrKey : failedIssuesElement.getAsJsonObject().keySet()) {
+            if (!issueKeys.contains(failedIssueIdOrKey)) {
+               // Failed issues reported by id can not be matched, adding labels again is harmless
+               return issueKeys;
             }
+            failedIssueKeys.add(failedIssueIdOrKey);
          }
       }
+
+      // Issues neither processed nor failed are not known to be edited
+      return processedIssueCount + failedIssueKeys.size() < issueKeys.size() ? issueKeys : failedIssueKeys;
    }
 
    @Override
    public void addIssueUpstreamIssues(String issueKey, String... upstreamIssues) throws Exception {
-      StringBuilder newUpstreamJiraFieldValue = new StringBuilder();
-      List<String> newUpstreamIssues = new ArrayList<>();
-      for (String label : upstreamIssues) {
-         newUpstreamIssues.add(label);
+      updateIssue(new IssueUpdate(issueKey).addUpstreamIssues(upstreamIssues));
+   }
+
+   @Override
+   public void updateIssue(IssueUpdate issueUpdate) throws Exception {
+      withFieldsRefresh(() -> {
+         putIssueUpdate(issueUpdate);
+         return null;
+      });
+   }
+
+   @Override
+   public void writeIssueUpdate(IssueUpdate issueUpdate, List<String> upstreamIssueKeys) throws Exception {
+      withFieldsRefresh(() -> {
+         sendIssueUpdate(issueUpdate, upstreamIssueKeys);
+         return null;
+      });
+   }
+
+   private void putIssueUpdate(IssueUpdate issueUpdate) throws Exception {
+      String issueKey = issueUpdate.getIssueKey();
+      Issue issue = issues.get(issueKey);
+
+      List<String> upstreamIssueKeys = null;
+      if (issue != null && issueUpdate.getUpstreamIssues().size() > 0) {
+         upstreamIssueKeys = getUpstreamIssueKeys(issueKey, issue, issueUpdate.getUpstreamIssues());
       }
 
-      JsonObject issueObject = loadIssue(issueKey);
-      JsonObject issueFields = issueObject.getAsJsonObject("fields");
-      JsonElement currentUpstreamJiraField = issueFields.get(getFieldIdByName(FIELD_UPSTREAM_JIRA));
-      if (currentUpstreamJiraField != null && !currentUpstreamJiraField.isJsonNull()) {
-         String currentUpstreamJiraFieldValue = currentUpstreamJiraField.getAsString();
+      sendIssueUpdate(issueUpdate, upstreamIssueKeys);
 
-         String[] currentUpstreamIssues = currentUpstreamJiraFieldValue.split("[, ]+");
+      if (issue != null) {
+         issueUpdate.applyTo(issue);
+         reindexIssue(issueKey);
+      }
+   }
 
-         for (String currentUpstreamIssue: currentUpstreamIssues) {
-            List<String> upstreamIssueKeys = upstreamIssueManager.parseIssueKeys(currentUpstreamIssue);
+   // The upstream issue keys are the whole value of the upstream field, they are read from the server when null
+   private void sendIssueUpdate(IssueUpdate issueUpdate, List<String> upstreamIssueKeys) throws Exception {
+      String issueKey = issueUpdate.getIssueKey();
 
-            if (upstreamIssueKeys.size() > 1) {
-               throw new IllegalStateException("Upstream issues without separator: " + currentUpstreamIssue);
-            }
+      JsonObject updatingFieldsObject = new JsonObject();
+      JsonObject updatingOperationsObject = new JsonObject();
 
-            if (upstreamIssueKeys.size() > 0) {
-               String upstreamIssueKey = upstreamIssueKeys.get(0);
-               newUpstreamIssues.remove(upstreamIssueKey);
-               newUpstreamJiraFieldValue.append(upstreamIssueManager.getIssue(upstreamIssueKey).getUrl());
-               newUpstreamJiraFieldValue.append(", ");
-            }
-         }
+      if (issueUpdate.getTargetRelease() != null) {
+         JsonObject targetReleaseObject = new JsonObject();
+         targetReleaseObject.addProperty("name", issueUpdate.getTargetRelease());
+         updatingFieldsObject.add(getFieldIdByName(FIELD_TARGET_RELEASE), targetReleaseObject);
       }
 
-      if (newUpstreamIssues.size() > 0) {
-         for (String newUpstreamIssueKey : newUpstreamIssues) {
-            newUpstreamJiraFieldValue.append(upstreamIssueManager.getIssue(newUpstreamIssueKey).getUrl());
-            newUpstreamJiraFieldValue.append(", ");
-         }
-         newUpstreamJiraFieldValue.delete(newUpstreamJiraFieldValue.length() - 2, newUpstreamJiraFieldValue.length());
+      // Labels are added with update operations to avoid reading the current labels
+      JsonArray labelOperationsArray = new JsonArray();
+      for (String label : issueUpdate.getLabels()) {
+         JsonObject labelOperationObject = new JsonObject();
+         labelOperationObject.addProperty("add", label);
+         labelOperationsArray.add(labelOperationObject);
+      }
+      if (labelOperationsArray.size() > 0) {
+         updatingOperationsObject.add("labels", labelOperationsArray);
+      }
+
+      if (issueUpdate.getUpstreamIssues().size() > 0) {
+         updatingFieldsObject.addProperty(getFieldIdByName(FIELD_UPSTREAM_JIRA), getUpstreamJiraFieldValue(
+            upstreamIssueKeys != null ? upstreamIssueKeys : getUpstreamIssueKeys(issueKey, null, issueUpdate.getUpstreamIssues())));
+      }
 
+      if (updatingFieldsObject.size() > 0 || updatingOperationsObject.size() > 0) {
          JsonObject updatingIssueObject = new JsonObject();
-         {
-            JsonObject updatingFieldsObject = new JsonObject();
-            updatingFieldsObject.addProperty(getFieldIdByName(FIELD_UPSTREAM_JIRA), newUpstreamJiraFieldValue.toString());
+         if (updatingFieldsObject.size() > 0) {
             updatingIssueObject.add("fields", updatingFieldsObject);
          }
+         if (updatingOperationsObject.size() > 0) {
+            updatingIssueObject.add("update", updatingOperationsObject);
+         }
 
          putIssue(issueKey, updatingIssueObject, 3);
       }
+   }
 
-      Issue issue = issues.get(issueKey);
+   private List<String> getUpstreamIssueKeys(String issueKey, Issue issue, Collection<String> upstreamIssues) throws Exception {
+      List<String> currentUpstreamIssueKeys = new ArrayList<>();
       if (issue != null) {
-         for (String upstreamIssue : upstreamIssues) {
-            if (!issue.getIssues().contains(upstreamIssue)) {
-               issue.getIssues().add(upstreamIssue);
+         currentUpstreamIssueKeys.addAll(issue.getIssues());
+      } else {
+         JsonObject issueObject = loadIssue(issueKey);
+         JsonObject issueFields = issueObject.getAsJsonObject("fields");
+         JsonElement currentUpstreamJiraField = issueFields.get(getFieldIdByName(FIELD_UPSTREAM_JIRA));
+         if (currentUpstreamJiraField != null && !currentUpstreamJiraField.isJsonNull()) {
+            for (String currentUpstreamIssue : currentUpstreamJiraField.getAsString().split("[, ]+")) {
+               List<String> upstreamIssueKeys = upstreamIssueManager.parseIssueKeys(currentUpstreamIssue);
+
+               if (upstreamIssueKeys.size() > 1) {
+                  throw new IllegalStateException("Upstream issues without separator: " + currentUpstreamIssue);
+               }
+
+               currentUpstreamIssueKeys.addAll(upstreamIssueKeys);
             }
          }
       }
+
+      // The cached issue could already include the upstream issues when they are applied optimistically
+      for (String upstreamIssueKey : upstreamIssues) {
+         if (!currentUpstreamIssueKeys.contains(upstreamIssueKey)) {
+            currentUpstreamIssueKeys.add(upstreamIssueKey);
+         }
+      }
+
+      return currentUpstreamIssueKeys;
+   }
+
+   private String getUpstreamJiraFieldValue(Collection<String> upstreamIssues) {
+      List<String> upstreamIssueUrls = new ArrayList<>();
+      for (String upstreamIssueKey : upstreamIssues) {
+         upstreamIssueUrls.add(upstreamIssueManager.getIssue(upstreamIssueKey).getUrl());
+      }
+
+      return String.join(", ", upstreamIssueUrls);
    }
 
    @Override
@@ -356,12 +958,29 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
       if (fromIssue != null && toIssue != null) {
          toIssue.getIssues().clear();
          toIssue.getIssues().addAll(fromIssue.getIssues());
+         reindexIssue(toIssueKey);
       }
    }
 
    @Override
    public void linkIssue(String issueKey, String cloningIssueKey, String linkType) throws Exception {
+      writeIssueLink(issueKey, cloningIssueKey, linkType);
+
+      // The cloning issue is the outward issue of the issue and the issue is the inward issue of the cloning issue
+      Issue issue = issues.get(issueKey);
+      if (issue != null) {
+         issue.getIssueLinks().add(new IssueLink(linkType, IssueLink.Direction.OUTWARD, cloningIssueKey));
+         reindexIssue(issueKey);
+      }
+      Issue cloningIssue = issues.get(cloningIssueKey);
+      if (cloningIssue != null) {
+         cloningIssue.getIssueLinks().add(new IssueLink(linkType, IssueLink.Direction.INWARD, issueKey));
+         reindexIssue(cloningIssueKey);
+      }
+   }
 
+   @Override
+   public void writeIssueLink(String issueKey, String cloningIssueKey, String linkType) throws Exception {
       JsonObject issueLinkObject = new JsonObject();
       JsonObject issueLinkTypeObject = new JsonObject();
       issueLinkTypeObject.addProperty("name", linkType);
@@ -391,6 +1010,8 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          }
       } finally {
          connection.disconnect();
+         issueObjectCache.invalidate(issueKey);
+         issueObjectCache.invalidate(cloningIssueKey);
       }
    }
 
@@ -399,39 +1020,9 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
       return ISSUE_RESOLUTION_DUPLICATE.equals(issues.get(issueKey).getResolution());
    }
 
-   private InputStream getConnectionInputStream(HttpURLConnection connection) throws IOException {
-      try {
-         return connection.getInputStream();
-      } catch (Exception e) {
-         try (InputStream errorStream = connection.getErrorStream()) {
-            if (errorStream != null) {
-               String responseError = new String(errorStream.readAllBytes());
-               errorStream.close();
-               throw new IOException("Server returned HTTP response error: " + responseError, e);
-            }
-         }
-         throw e;
-      }
-   }
-
    @Override
    public void setIssueTargetRelease(String issueKey, String targetRelease) throws Exception {
-
-      JsonObject updatingIssueObject = new JsonObject();
-      {
-         JsonObject updatingFieldsObject = new JsonObject();
-         JsonObject targetReleaseObject = new JsonObject();
-         targetReleaseObject.addProperty("name", targetRelease);
-         updatingFieldsObject.add(getFieldIdByName(FIELD_TARGET_RELEASE), targetReleaseObject);
-         updatingIssueObject.add("fields", updatingFieldsObject);
-      }
-
-      putIssue(issueKey, updatingIssueObject);
-
-      Issue issue = issues.get(issueKey);
-      if (issue != null) {
-         issue.setTargetRelease(targetRelease);
-      }
+      updateIssue(new IssueUpdate(issueKey).setTargetRelease(targetRelease));
    }
 
    private void putIssue(String issueKey, JsonObject issueObject, int retries) throws Exception {
@@ -468,29 +1059,79 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          }
       } finally {
          connection.disconnect();
+         issueObjectCache.invalidate(issueKey);
       }
    }
 
    @Override
    public void transitionIssue(String issueKey, String finalStatus) throws Exception {
-      String status = getIssueStatus(issueKey);
+      Issue issue = issues.get(issueKey);
+      transitionIssue(issueKey, issue != null ? issue.getState() : null, finalStatus);
+   }
+
+   @Override
+   public void transitionIssue(String issueKey, String fromStatus, String finalStatus) throws Exception {
+      Issue issue = issues.get(issueKey);
+
+      writeIssueTransition(issueKey, issue != null ? issue.getType() : null, fromStatus, finalStatus);
+
+      if (issue != null) {
+         issue.setState(finalStatus);
+         reindexIssue(issueKey);
+      }
+   }
+
+   @Override
+   public void writeIssueTransition(String issueKey, String issueType, String fromStatus, String finalStatus) throws Exception {
+      String status = fromStatus != null ? fromStatus : getIssueStatus(issueKey);
+      if (issueType == null) {
+         issueType = getIssueType(issueKey);
+      }
+      boolean rediscovered = false;
 
       while (!status.equals(finalStatus)) {
          String nextStatus = getIssueStateMachine().getNextState(status, finalStatus);
 
-         for (IssueTransaction transaction : getIssueTransactions(issueKey)) {
-            if (transaction.getFinalStatus().equals(nextStatus)) {
+         if (!issueWorkflow.isKnownStatus(issueType, status)) {
+            issueWorkflow.putTransitions(issueType, status, getIssueTransactions(issueKey));
+         }
+
+         List<IssueTransaction> path = issueWorkflow.findPath(issueType, status, nextStatus);
+
+         if (path == null || path.isEmpty()) {
+            if (rediscovered) {
+               throw new IllegalStateException("Transition not found for issue " + issueKey + " from " + status + " to " + nextStatus);
+            }
+
+            status = rediscoverIssueTransitions(issueKey, issueType, status);
+            rediscovered = true;
+         } else {
+            IssueTransaction transaction = path.get(0);
+
+            try {
                transitionIssue(issueKey, transaction.getId());
                status = transaction.getFinalStatus();
-               break;
+               rediscovered = false;
+            } catch (Exception e) {
+               if (rediscovered) {
+                  throw e;
+               }
+
+               logger.debug("Failed to transition issue " + issueKey + " to " + transaction.getFinalStatus() + ": " + e);
+               status = rediscoverIssueTransitions(issueKey, issueType, status);
+               rediscovered = true;
             }
          }
       }
+   }
 
-      Issue issue = issues.get(issueKey);
-      if (issue != null) {
-         issue.setState(finalStatus);
-      }
+   private String rediscoverIssueTransitions(String issueKey, String issueType, String status) throws Exception {
+      issueWorkflow.removeTransitions(issueType, status);
+
+      String currentStatus = getIssueStatus(issueKey);
+      issueWorkflow.putTransitions(issueType, currentStatus, getIssueTransactions(issueKey));
+
+      return currentStatus;
    }
 
    public void transitionIssue(String issueKey, int transitionId) throws Exception {
@@ -507,13 +1148,22 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          }
       });
 
-      connection.getInputStream().close();
+      try {
+         getConnectionInputStream(connection).close();
+      } finally {
+         connection.disconnect();
+         issueObjectCache.invalidate(issueKey);
+      }
    }
 
    private JsonObject loadIssue(String issueKey) throws Exception {
+      return issueObjectCache.get(issueKey);
+   }
+
+   private JsonObject fetchIssue(String issueKey) throws Exception {
       HttpURLConnection connection = createConnection(REST_API_PATH + "/issue/" + issueKey, null);
       try {
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
+         try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(connection))) {
             return JsonParser.parseReader(inputStreamReader).getAsJsonObject();
          }
       } finally {
@@ -529,12 +1179,20 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
       return issueFields.getAsJsonObject("status").getAsJsonPrimitive("name").getAsString();
    }
 
+   public String getIssueType(String issueKey) throws Exception {
+      JsonObject issueFields = loadIssue(issueKey).getAsJsonObject("fields");
+
+      JsonElement issueTypeElement = issueFields.get("issuetype");
+      return issueTypeElement != null && issueTypeElement.isJsonObject() ?
+         issueTypeElement.getAsJsonObject().getAsJsonPrimitive("name").getAsString() : null;
+   }
+
    public IssueTransaction[] getIssueTransactions(String issueKey) throws Exception {
       HttpURLConnection connection = createConnection(REST_API_PATH + "/issue/" + issueKey + "/transitions?expand=transitions.fields", null);
       try {
          List<IssueTransaction> issueTransactions = new ArrayList<>();
 
-         try (InputStreamReader inputStreamReader = new InputStreamReader(connection.getInputStream())) {
+         try (InputStreamReader inputStreamReader = new InputStreamReader(getConnectionInputStream(connection))) {
             JsonObject jsonObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
 
             JsonArray transitionsArray = jsonObject.getAsJsonArray("transitions");
@@ -570,11 +1228,17 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
    }
 
    @Override
-   protected Issue parseIssue(JsonObject issueObject, DateFormat dateFormat) throws Exception {
-      Issue issue = super.parseIssue(issueObject, dateFormat);
+   protected void updateLinks(Issue issue) {
+      getLinkGraph().setUpstreamIssueKeys(issue.getKey(), issue.getIssues());
+   }
 
-      JsonObject issueFields = issueObject.getAsJsonObject("fields");
+   @Override
+   protected boolean isCustomIssueField(String fieldId) {
+      return fields.containsValue(fieldId);
+   }
 
+   @Override
+   protected void parseIssueCustomFields(Issue issue, JsonObject issueFields) throws Exception {
       for (String upstreamIssueKey : parseUpstreamIssues(issueFields.get(getFieldIdByName(FIELD_UPSTREAM_JIRA)))) {
          logger.debug("linking issue " + upstreamIssueKey);
          issue.getIssues().add(upstreamIssueKey);
@@ -585,8 +1249,8 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
          issue.setTargetRelease(targetReleaseElement.getAsJsonObject().get("name").getAsString());
       }
 
-      JsonElement linksElement = issueFields.get("issuelinks");
-      issue.setPatch(linksElement != null && !linksElement.isJsonNull() && linksElement.toString().matches(".*PATCH-[0-9]+.*"));
+      issue.setPatch(issue.hasIssueLinks() &&
+         issue.getIssueLinks().stream().anyMatch(issueLink -> isPatchIssueKey(issueLink.getKey())));
 
       JsonElement gssPriorityElement = issueFields.get(getFieldIdByName(FIELD_GSS_PRIORITY));
       JsonElement helpDeskTicketReferenceElement = issueFields.get(getFieldIdByName(FIELD_HELP_DESK_TICKET_REFERENCE));
@@ -626,11 +1290,14 @@ public class RedHatJiraIssueManager extends JiraIssueManager implements Downstre
       issue.setDocumentation(issue.getSummary().startsWith("[Docs]") ||
          issue.getComponents().contains("documentation") ||
          issue.getLabels().contains("documentation"));
-
-      return issue;
    }
 
 
+   private static boolean isPatchIssueKey(String issueKey) {
+      return issueKey.length() > PATCH_ISSUE_KEY_PREFIX.length() && issueKey.startsWith(PATCH_ISSUE_KEY_PREFIX) &&
+         issueKey.chars().skip(PATCH_ISSUE_KEY_PREFIX.length()).allMatch(c -> c >= '0' && c <= '9');
+   }
+
    private List<String> parseUpstreamIssues(JsonElement upstreamJiraElement) {
       if (upstreamJiraElement != null && !upstreamJiraElement.isJsonNull()) {
          String upstreamJira = upstreamJiraElement.getAsString();
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.brus.downstream.updater.issue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SingleFlightCache<V> {
+
+   public interface Loader<V> {
+      V load(String key) throws Exception;
+   }
+
+   public final static long DEFAULT_EXPIRATION = TimeUnit.MINUTES.toMillis(1);
+
+   private final Loader<V> loader;
+   private final long expiration;
+
+   private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+   private final AtomicLong hits = new AtomicLong();
+   private final AtomicLong misses = new AtomicLong();
+
+   public SingleFlightCache(Loader<V> loader) {
+      this(loader, DEFAULT_EXPIRATION);
+   }
+
+   public SingleFlightCache(Loader<V> loader, long expiration) {
+      this.loader = loader;
+      this.expiration = expiration;
+   }
+
+   public long getHits() {
+      return hits.get();
+   }
+
+   public long getMisses() {
+      return misses.get();
+   }
+
+   public double getHitRate() {
+      long requests = hits.get() + misses.get();
+      return requests > 0 ? (double)hits.get() / requests : 0;
+   }
+
+   public V get(String key) throws Exception {
+      long timestamp = System.currentTimeMillis();
+      Entry<V> newEntry = new Entry<>(timestamp);
+
+      // Concurrent requests for the same key share the entry of the first one
+      Entry<V> entry = entries.compute(key, (entryKey, currentEntry) ->
+         currentEntry != null && timestamp - currentEntry.timestamp < expiration ? currentEntry : newEntry);
+
+      if (entry != newEntry) {
+         hits.incrementAndGet();
+         try {
+            return entry.future.join();
+         } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+         }
+      }
+
+      misses.incrementAndGet();
+      try {
+         V value = loader.load(key);
+         entry.future.complete(value);
+         return value;
+      } catch (Throwable e) {
+         entries.remove(key, entry);
+         entry.future.completeExceptionally(e);
+         throw e;
+      }
+   }
+
+   public void invalidate(String key) {
+      // A load in flight completes its own entry without adding it back
+      entries.remove(key);
+   }
+
+   public void invalidateAll() {
+      entries.clear();
+   }
+
+   public String getStatistics() {
+      return hits.get() + " hits, " + misses.get() + " misses, " +
+         String.format("%.1f", getHitRate() * 100) + "% hit rate";
+   }
+
+   private static class Entry<V> {
+      private final long timestamp;
+      private final CompletableFuture<V> future = new CompletableFuture<>();
+
+      private Entry(long timestamp) {
+         this.timestamp = timestamp;
+      }
+   }
+}
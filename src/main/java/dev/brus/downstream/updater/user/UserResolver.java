@@ -17,17 +17,51 @@
 
 package dev.brus.downstream.updater.user;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
 public class UserResolver {
 
    private User defaultUser;
    private User[] users;
 
+   // Indexes of the users by identity, the first user wins as in a linear scan
+   private Map<String, User> usernameIndex;
+   private Map<String, User> upstreamUsernameIndex;
+   private Map<String, User> downstreamUsernameIndex;
+   private Map<String, User> downstreamUserIdIndex;
+   private Map<String, User> emailAddressIndex;
+
    public User[] getUsers() {
       return users;
    }
 
-   public UserResolver(User[] users) {
+   public UserResolver setUsers(User[] users) {
       this.users = users;
+
+      usernameIndex = createIndex(users, User::getUsername);
+      upstreamUsernameIndex = createIndex(users, User::getUpstreamUsername);
+      downstreamUsernameIndex = createIndex(users, User::getDownstreamUsername);
+      downstreamUserIdIndex = createIndex(users, User::getDownstreamUserId);
+
+      Map<String, User> emailAddressIndex = new HashMap<>();
+      for (User user : users) {
+         if (user.getEmailAddresses() != null) {
+            for (String emailAddress : user.getEmailAddresses()) {
+               if (emailAddress != null) {
+                  emailAddressIndex.putIfAbsent(emailAddress, user);
+               }
+            }
+         }
+      }
+      this.emailAddressIndex = emailAddressIndex;
+
+      return this;
+   }
+
+   public UserResolver(User[] users) {
+      setUsers(users);
    }
 
    public User getDefaultUser() {
@@ -40,56 +74,33 @@ public class UserResolver {
    }
 
    public User getUserFromUsername(String username) {
-      for (User user : users) {
-         if (user.getUsername().equals(username)) {
-            return user;
-         }
-      }
-
-      return null;
+      return username != null ? usernameIndex.get(username) : null;
    }
 
    public User getUserFromUpstreamUsername(String username) {
-      for (User user : users) {
-         if (user.getUpstreamUsername().equals(username)) {
-            return user;
-         }
-      }
-
-      return null;
+      return username != null ? upstreamUsernameIndex.get(username) : null;
    }
 
    public User getUserFromDownstreamUsername(String username) {
-      for (User user : users) {
-         if (user.getDownstreamUsername().equals(username)) {
-            return user;
-         }
-      }
-
-      return null;
+      return username != null ? downstreamUsernameIndex.get(username) : null;
    }
 
    public User getUserFromDownstreamUserId(String userId) {
-      if (userId == null) {
-         return null;
-      }
-      for (User user : users) {
-         if (user.getDownstreamUserId() != null && userId.equals(user.getDownstreamUserId())) {
-            return user;
-         }
-      }
-      return null;
+      return userId != null ? downstreamUserIdIndex.get(userId) : null;
    }
 
    public User getUserFromEmailAddress(String emailAddress) {
+      return emailAddress != null ? emailAddressIndex.get(emailAddress) : null;
+   }
+
+   private static Map<String, User> createIndex(User[] users, Function<User, String> identity) {
+      Map<String, User> index = new HashMap<>();
       for (User user : users) {
-         for (String userEmailAddress : user.getEmailAddresses()) {
-            if (userEmailAddress.equals(emailAddress)) {
-               return user;
-            }
+         String key = identity.apply(user);
+         if (key != null) {
+            index.putIfAbsent(key, user);
          }
       }
-
-      return null;
+      return index;
    }
 }
@@ -17,7 +17,9 @@
 
 package dev.brus.downstream.updater.util;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +29,11 @@ public class ReleaseVersion implements Comparable<ReleaseVersion> {
    private final static Pattern versionPattern = Pattern.compile("([0-9]+)\\.([0-9]+)\\.([0-9]+)(\\.(.*))*\\.(CR[0-9]+|ER[0-9]+|SR[0-9]+|PATCH.[0-9]+|GA)");
    private final static Pattern qualifierPattern = Pattern.compile("(.*)([0-9]+)");
 
+   // Parsed releases, including the invalid ones, the distinct releases are few so the cache is only bounded for safety
+   private final static int MAX_CACHED_RELEASES = 4096;
+   private final static ReleaseVersion INVALID = new ReleaseVersion(-1, -1, -1, null, null);
+   private final static Map<String, ReleaseVersion> releaseVersions = new ConcurrentHashMap<>();
+
    private final int major;
    private final int minor;
    private final int patch;
@@ -54,9 +61,35 @@ public class ReleaseVersion implements Comparable<ReleaseVersion> {
    }
 
    public static ReleaseVersion fromString(String release) {
+      ReleaseVersion releaseVersion = parse(release);
+      if (releaseVersion == null) {
+         throw new IllegalArgumentException("Invalid release: " + release);
+      }
+
+      return releaseVersion;
+   }
+
+   // Returns null for invalid releases instead of throwing
+   public static ReleaseVersion parse(String release) {
+      if (release == null) {
+         return null;
+      }
+
+      ReleaseVersion releaseVersion = releaseVersions.get(release);
+      if (releaseVersion == null) {
+         releaseVersion = parseRelease(release);
+         if (releaseVersions.size() < MAX_CACHED_RELEASES) {
+            releaseVersions.putIfAbsent(release, releaseVersion);
+         }
+      }
+
+      return releaseVersion != INVALID ? releaseVersion : null;
+   }
+
+   private static ReleaseVersion parseRelease(String release) {
       Matcher releaseVersionMatcher = versionPattern.matcher(release);
       if (!releaseVersionMatcher.find()) {
-         throw new IllegalArgumentException("Invalid release: " + release);
+         return INVALID;
       }
 
       return new ReleaseVersion(
@@ -114,48 +147,34 @@ public class ReleaseVersion implements Comparable<ReleaseVersion> {
 
    @Override
    public int compareTo(ReleaseVersion releaseVersion) {
-      if (this.getMajor() == releaseVersion.getMajor() &&
-         this.getMinor() == releaseVersion.getMinor() &&
-         this.getPatch() == releaseVersion.getPatch() &&
-         Objects.equals(this.getQualifier(), releaseVersion.getQualifier()) &&
-         Objects.equals(this.getCandidate(), releaseVersion.getCandidate())) {
-         return 0;
-      } else if ((this.getMajor() > releaseVersion.getMajor()) ||
-         (this.getMajor() == releaseVersion.getMajor() && this.getMinor() > releaseVersion.getMinor()) ||
-         (this.getMajor() == releaseVersion.getMajor() && this.getMinor() == releaseVersion.getMinor() &&
-            this.getPatch() > releaseVersion.getPatch()) ||
-         (this.getMajor() == releaseVersion.getMajor() && this.getMinor() == releaseVersion.getMinor() &&
-            this.getPatch() == releaseVersion.getPatch() &&
-            StringUtils.compare(this.getQualifier(), releaseVersion.getQualifier()) > 0) ||
-         (this.getMajor() == releaseVersion.getMajor() && this.getMinor() == releaseVersion.getMinor() &&
-            this.getPatch() == releaseVersion.getPatch() &&
-            StringUtils.compare(this.getQualifier(), releaseVersion.getQualifier()) == 0 &&
-            StringUtils.compare(this.getCandidate(), releaseVersion.getCandidate()) > 0)) {
-         return 1;
-      } else {
-         return -1;
+      int result = compareWithoutCandidateTo(releaseVersion);
+      if (result != 0) {
+         return result;
       }
+
+      return Integer.signum(StringUtils.compare(this.candidate, releaseVersion.candidate));
    }
 
    public int compareWithoutCandidateTo(ReleaseVersion releaseVersion) {
-      ReleaseVersion comparingReleaseVersion = new ReleaseVersion(
-         releaseVersion.getMajor(),
-         releaseVersion.getMinor(),
-         releaseVersion.getPatch(),
-         releaseVersion.getQualifier(),
-         this.getCandidate());
-
-      return compareTo(comparingReleaseVersion);
+      int result = compareReleaseStreamTo(releaseVersion);
+      if (result != 0) {
+         return result;
+      }
+
+      result = Integer.compare(this.patch, releaseVersion.patch);
+      if (result != 0) {
+         return result;
+      }
+
+      return Integer.signum(StringUtils.compare(this.qualifier, releaseVersion.qualifier));
    }
 
    public int compareReleaseStreamTo(ReleaseVersion releaseVersion) {
-      ReleaseVersion comparingReleaseVersion = new ReleaseVersion(
-         releaseVersion.getMajor(),
-         releaseVersion.getMinor(),
-         this.getPatch(),
-         this.getQualifier(),
-         this.getCandidate());
-
-      return compareTo(comparingReleaseVersion);
+      int result = Integer.compare(this.major, releaseVersion.major);
+      if (result != 0) {
+         return result;
+      }
+
+      return Integer.compare(this.minor, releaseVersion.minor);
    }
 }
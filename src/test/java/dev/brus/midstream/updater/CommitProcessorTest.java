@@ -12,11 +12,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import dev.brus.downstream.updater.Commit;
 import dev.brus.downstream.updater.CommitProcessor;
 import dev.brus.downstream.updater.CommitTask;
 import dev.brus.downstream.updater.git.JGitRepository;
+import dev.brus.downstream.updater.issue.DownstreamIssueMutationQueue;
 import dev.brus.downstream.updater.issue.DownstreamIssueStateMachine;
 import dev.brus.downstream.updater.project.ExcludedIssue;
 import dev.brus.downstream.updater.project.Project;
@@ -674,6 +677,81 @@ public class CommitProcessorTest {
       Assert.assertEquals("DOWNSTREAM_ISSUES_WITH_NEXT_TARGET_RELEASE_EXIST", commit.getReason());
    }
 
+   @Test
+   public void testCommitWithFailedWriteBehindIssueUpdate() throws Exception {
+      MockGitCommit upstreamCommit = new MockGitCommit()
+         .setName(UPSTREAM_ISSUE_KEY_0)
+         .setShortMessage(TEST_MESSAGE_UPSTREAM_ISSUE_KEY_0)
+         .setAuthorEmail(TEST_USER_EMAIL);
+
+      MockGitCommit downstreamCommit = new MockGitCommit()
+         .setName(DOWNSTREAM_ISSUE_KEY_0)
+         .setShortMessage(TEST_MESSAGE_UPSTREAM_ISSUE_KEY_0)
+         .setFullMessage("downstream: " + DOWNSTREAM_ISSUE_KEY_0)
+         .setAuthorEmail(TEST_USER_EMAIL);
+
+      Issue upstreamIssue = new Issue().setKey(UPSTREAM_ISSUE_KEY_0).setType(ISSUE_TYPE_BUG);
+
+      Issue downstreamIssue = new Issue().setKey(DOWNSTREAM_ISSUE_KEY_0)
+         .setType(ISSUE_TYPE_BUG)
+         .setTargetRelease("1.1.0.GA")
+         .setCustomer(true)
+         .setCustomerPriority(IssueCustomerPriority.HIGH);
+      downstreamIssue.getLabels().add(ISSUE_STATE_DEV_COMPLETE);
+      downstreamIssue.getLabels().add(releaseVersion.getCandidate());
+
+      CommitProcessor commitProcessor = new CommitProcessor(
+         releaseVersion,
+         TARGET_RELEASE_FORMAT,
+         projectConfig, CURRENT_PROJECT_STREAM_NAME,
+         gitRepository,
+         upstreamIssueManager,
+         downstreamIssueManager,
+         userResolver);
+      commitProcessor.setCherryPickedCommits(Collections.singletonMap(UPSTREAM_ISSUE_KEY_0, new AbstractMap.SimpleEntry<>(downstreamCommit, releaseVersion)));
+
+      Mockito.when(gitRepository.resolveCommit(upstreamCommit.getName())).thenReturn(upstreamCommit);
+      Mockito.when(gitRepository.resolveCommit(downstreamCommit.getName())).thenReturn(downstreamCommit);
+
+      Mockito.when(upstreamIssueManager.getIssue(UPSTREAM_ISSUE_KEY_0)).thenReturn(upstreamIssue);
+      Mockito.when(upstreamIssueManager.getIssueTypeBug()).thenReturn(ISSUE_TYPE_BUG);
+      Mockito.when(upstreamIssueManager.parseIssueKeys(Mockito.anyString())).thenReturn(Arrays.asList(UPSTREAM_ISSUE_KEY_0));
+
+      Mockito.when(downstreamIssueManager.getIssue(DOWNSTREAM_ISSUE_KEY_0)).thenReturn(downstreamIssue);
+      Mockito.when(downstreamIssueManager.getIssueTypeBug()).thenReturn(ISSUE_TYPE_BUG);
+      Mockito.when(downstreamIssueManager.getIssueResolutionDone()).thenReturn(ISSUE_RESOLUTION_DONE);
+      Mockito.when(downstreamIssueManager.parseIssueKeys(Mockito.anyString())).thenReturn(Arrays.asList(DOWNSTREAM_ISSUE_KEY_0));
+
+      DownstreamIssueStateMachine downstreamIssueStateMachine = Mockito.mock(DownstreamIssueStateMachine.class);
+      Mockito.when(downstreamIssueStateMachine.getIssueStateDevComplete()).thenReturn(ISSUE_STATE_DEV_COMPLETE);
+      Mockito.when(downstreamIssueStateMachine.getStateIndex(Mockito.any())).thenReturn(0);
+      Mockito.when(downstreamIssueManager.getIssueStateMachine()).thenReturn(downstreamIssueStateMachine);
+
+      Commit incompleteCommit = commitProcessor.process(upstreamCommit);
+      Assert.assertEquals(Commit.State.PARTIAL, incompleteCommit.getState());
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         commitProcessor.setConfirmedCommits(Map.of(upstreamCommit.getName(), incompleteCommit));
+         commitProcessor.setMutationQueue(new DownstreamIssueMutationQueue(1, 0, executor));
+
+         Mockito.doThrow(new IllegalStateException("Issue locked")).when(downstreamIssueManager)
+            .writeIssueUpdate(Mockito.any(), Mockito.any());
+
+         Commit commit = commitProcessor.process(upstreamCommit);
+         CommitTask task = commit.getTasks().get(0);
+         Assert.assertEquals(CommitTask.Type.ADD_UPSTREAM_ISSUE_TO_DOWNSTREAM_ISSUE, task.getType());
+         Assert.assertEquals(CommitTask.State.DONE, task.getState());
+         Assert.assertTrue(downstreamIssue.getIssues().contains(UPSTREAM_ISSUE_KEY_0));
+
+         commitProcessor.awaitIssueMutations();
+         Assert.assertEquals(CommitTask.State.FAILED, task.getState());
+         Assert.assertEquals("Issue locked", task.getResult());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
    @Test
    public void testCommitIncludedInRevertingChain() throws Exception {
       String commitShortMessage = TEST_MESSAGE_UPSTREAM_ISSUE_KEY_0;
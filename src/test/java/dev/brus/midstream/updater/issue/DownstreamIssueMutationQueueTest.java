@@ -0,0 +1,133 @@
+package dev.brus.midstream.updater.issue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import dev.brus.downstream.updater.issue.DownstreamIssueMutationQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DownstreamIssueMutationQueueTest {
+
+   @Test
+   public void testMutationsOrderedByIssue() throws Exception {
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         DownstreamIssueMutationQueue mutationQueue = new DownstreamIssueMutationQueue(1, 0, executor);
+
+         List<String> appliedMutations = Collections.synchronizedList(new ArrayList<>());
+         for (int i = 0; i < 10; i++) {
+            final int mutation = i;
+            mutationQueue.submit("ENTMQBR-1", () -> {
+               Thread.sleep(10 - mutation);
+               appliedMutations.add("ENTMQBR-1:" + mutation);
+            });
+            mutationQueue.submit("ENTMQBR-2", () -> appliedMutations.add("ENTMQBR-2:" + mutation));
+         }
+
+         mutationQueue.await();
+
+         Assert.assertEquals(20, appliedMutations.size());
+         Assert.assertEquals(0, mutationQueue.getPendingMutationCount());
+
+         int previousMutation = -1;
+         for (String appliedMutation : appliedMutations) {
+            if (appliedMutation.startsWith("ENTMQBR-1:")) {
+               int mutation = Integer.parseInt(appliedMutation.substring(10));
+               Assert.assertEquals(previousMutation + 1, mutation);
+               previousMutation = mutation;
+            }
+         }
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testMutationRetries() throws Exception {
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+         DownstreamIssueMutationQueue mutationQueue = new DownstreamIssueMutationQueue(3, 10, executor);
+
+         AtomicInteger attempts = new AtomicInteger();
+         CompletableFuture<Void> retriedMutation = mutationQueue.submit("ENTMQBR-1", () -> {
+            if (attempts.incrementAndGet() < 3) {
+               throw new IllegalStateException("Attempt failed");
+            }
+         });
+
+         CompletableFuture<Void> failedMutation = mutationQueue.submit("ENTMQBR-2", () -> {
+            throw new IllegalStateException("Mutation failed");
+         });
+
+         AtomicInteger nextAttempts = new AtomicInteger();
+         CompletableFuture<Void> nextMutation = mutationQueue.submit("ENTMQBR-2", nextAttempts::incrementAndGet);
+
+         mutationQueue.await();
+
+         Assert.assertEquals(3, attempts.get());
+         Assert.assertFalse(retriedMutation.isCompletedExceptionally());
+         Assert.assertTrue(failedMutation.isCompletedExceptionally());
+         Assert.assertFalse(nextMutation.isCompletedExceptionally());
+         Assert.assertEquals(1, nextAttempts.get());
+         Assert.assertEquals(1, mutationQueue.getFailedMutationCount());
+      } finally {
+         executor.shutdown();
+      }
+   }
+
+   @Test
+   public void testLabelsBatched() throws Exception {
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         List<Map<String, ? extends Collection<String>>> labelsBatches = Collections.synchronizedList(new ArrayList<>());
+         List<String> appliedMutations = Collections.synchronizedList(new ArrayList<>());
+
+         DownstreamIssueMutationQueue mutationQueue = new DownstreamIssueMutationQueue(2, 0, executor)
+            .setLabelsBatchDelay(50)
+            .setLabelsMutation(issuesLabels -> {
+               labelsBatches.add(new HashMap<>(issuesLabels));
+               issuesLabels.keySet().forEach(issueKey -> appliedMutations.add(issueKey + ":labels"));
+               // The first write of the labels of ENTMQBR-3 fails
+               return labelsBatches.size() == 1 && issuesLabels.containsKey("ENTMQBR-3") ?
+                  Map.of("ENTMQBR-3", new IllegalStateException("Issue locked")) : Map.of();
+            });
+
+         mutationQueue.submit("ENTMQBR-1", () -> {
+            Thread.sleep(10);
+            appliedMutations.add("ENTMQBR-1:update");
+         });
+         CompletableFuture<Void> labelsMutation = mutationQueue.submitLabels("ENTMQBR-1", List.of("CR1"));
+         mutationQueue.submit("ENTMQBR-1", () -> appliedMutations.add("ENTMQBR-1:transition"));
+         mutationQueue.submitLabels("ENTMQBR-2", List.of("CR1"));
+         CompletableFuture<Void> retriedLabelsMutation = mutationQueue.submitLabels("ENTMQBR-3", List.of("CR1"));
+
+         mutationQueue.await();
+
+         Assert.assertFalse(labelsMutation.isCompletedExceptionally());
+         Assert.assertFalse(retriedLabelsMutation.isCompletedExceptionally());
+         Assert.assertEquals(0, mutationQueue.getFailedMutationCount());
+
+         // The labels of the issues are added together and the failed ones are retried one by one
+         Assert.assertEquals(2, labelsBatches.size());
+         Assert.assertEquals(3, labelsBatches.get(0).size());
+         Assert.assertEquals(Map.of("ENTMQBR-3", Set.of("CR1")), labelsBatches.get(1));
+
+         // The mutations of each issue are applied in order
+         List<String> issueMutations = appliedMutations.stream().filter(mutation -> mutation.startsWith("ENTMQBR-1:")).collect(Collectors.toList());
+         Assert.assertEquals(List.of("ENTMQBR-1:update", "ENTMQBR-1:labels", "ENTMQBR-1:transition"), issueMutations);
+      } finally {
+         executor.shutdown();
+      }
+   }
+}
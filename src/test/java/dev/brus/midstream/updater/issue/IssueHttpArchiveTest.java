@@ -0,0 +1,100 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import dev.brus.downstream.updater.issue.IssueHttpArchive;
+import dev.brus.downstream.updater.issue.IssueHttpTransport;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IssueHttpArchiveTest {
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testRecordAndReplay() throws Exception {
+      File archiveFile = temporaryFolder.newFile("issues.jsonl.gz");
+
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+      String serverURL = mockWebServer.url("rest/api/2").toString();
+
+      try (IssueHttpArchive archive = new IssueHttpArchive(archiveFile, IssueHttpArchive.Mode.RECORD)) {
+         IssueHttpTransport transport = new IssueHttpTransport(serverURL, null, Map.of()).setArchive(archive);
+
+         mockWebServer.enqueue(new MockResponse().setBody("{\"issues\":[\"ENTMQBR-1\"]}"));
+         mockWebServer.enqueue(new MockResponse().setBody("{\"issues\":[\"ENTMQBR-2\"]}"));
+         mockWebServer.enqueue(new MockResponse().setResponseCode(400).setBody("{\"errorMessages\":[\"Invalid\"]}"));
+
+         Assert.assertEquals("{\"issues\":[\"ENTMQBR-1\"]}", post(transport, "/issue/bulkfetch", "ENTMQBR-1"));
+         Assert.assertEquals("{\"issues\":[\"ENTMQBR-2\"]}", post(transport, "/issue/bulkfetch", "ENTMQBR-2"));
+         assertError(transport, "/issue/ENTMQBR-3");
+
+         Assert.assertEquals(3, archive.getExchangeCount());
+      } finally {
+         mockWebServer.shutdown();
+      }
+
+      // The exchanges are replayed without the server by matching the request bodies
+      try (IssueHttpArchive archive = new IssueHttpArchive(archiveFile, IssueHttpArchive.Mode.REPLAY).setLatency(20)) {
+         IssueHttpTransport transport = new IssueHttpTransport(serverURL, null, Map.of()).setArchive(archive);
+
+         long beginTimestamp = System.nanoTime();
+         Assert.assertEquals("{\"issues\":[\"ENTMQBR-2\"]}", post(transport, "/issue/bulkfetch", "ENTMQBR-2"));
+         Assert.assertEquals("{\"issues\":[\"ENTMQBR-1\"]}", post(transport, "/issue/bulkfetch", "ENTMQBR-1"));
+         Assert.assertTrue(System.nanoTime() - beginTimestamp >= 40_000_000L);
+
+         assertError(transport, "/issue/ENTMQBR-3");
+
+         try {
+            transport.createConnection("/issue/ENTMQBR-4", null);
+            Assert.fail("Unrecorded requests should fail");
+         } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("ENTMQBR-4"));
+         }
+      }
+   }
+
+   private String post(IssueHttpTransport transport, String url, String body) throws Exception {
+      HttpURLConnection connection = transport.createConnection(url, httpConnection -> {
+         try {
+            httpConnection.setDoOutput(true);
+            httpConnection.setRequestMethod("POST");
+            try (OutputStream outputStream = httpConnection.getOutputStream()) {
+               outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+         } catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      });
+      try (InputStream inputStream = transport.getInputStream(connection)) {
+         return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      } finally {
+         connection.disconnect();
+      }
+   }
+
+   private void assertError(IssueHttpTransport transport, String url) throws Exception {
+      HttpURLConnection connection = transport.createConnection(url, null);
+      try {
+         Assert.assertEquals(400, connection.getResponseCode());
+         transport.getInputStream(connection);
+         Assert.fail("Error responses should fail");
+      } catch (IOException e) {
+         Assert.assertTrue(e.getMessage().contains("Invalid"));
+      } finally {
+         connection.disconnect();
+      }
+   }
+}
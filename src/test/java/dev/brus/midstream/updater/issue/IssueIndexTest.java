@@ -0,0 +1,36 @@
+package dev.brus.midstream.updater.issue;
+
+import java.util.Set;
+
+import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.IssueIndex;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IssueIndexTest {
+
+   @Test
+   public void testUpdateIndexes() {
+      IssueIndex issueIndex = new IssueIndex();
+
+      Issue issue = new Issue().setKey("ENTMQBR-1").setSummary("Test");
+      issueIndex.update(issue);
+
+      Issue otherIssue = new Issue().setKey("ENTMQBR-2").setSummary("Test");
+      issueIndex.update(otherIssue);
+
+      Assert.assertEquals(Set.of("ENTMQBR-1", "ENTMQBR-2"), issueIndex.getIssueKeysBySummary("Test"));
+
+      // Reindex the issue after changing it in place
+      issue.setSummary("[7.12] Test");
+      issueIndex.update(issue);
+
+      Assert.assertEquals(Set.of("ENTMQBR-2"), issueIndex.getIssueKeysBySummary("Test"));
+      Assert.assertEquals(Set.of("ENTMQBR-1"), issueIndex.getIssueKeysBySummary("[7.12] Test"));
+
+      issueIndex.remove("ENTMQBR-2");
+
+      Assert.assertTrue(issueIndex.getIssueKeysBySummary("Test").isEmpty());
+      Assert.assertEquals(Set.of("ENTMQBR-1"), issueIndex.getIssueKeysBySummary("[7.12] Test"));
+   }
+}
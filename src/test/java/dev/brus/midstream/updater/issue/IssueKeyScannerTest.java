@@ -0,0 +1,96 @@
+package dev.brus.midstream.updater.issue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import dev.brus.downstream.updater.issue.IssueKeyScanner;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class IssueKeyScannerTest {
+   private final static Logger logger = LoggerFactory.getLogger(IssueKeyScannerTest.class);
+
+   @Test
+   public void testScan() {
+      IssueKeyScanner issueKeyScanner = new IssueKeyScanner().addPrefix("ARTEMIS-");
+
+      Assert.assertEquals(List.of("ARTEMIS-1", "ARTEMIS-23"), issueKeyScanner.scan("ARTEMIS-1 ARTEMIS-23 fix"));
+      Assert.assertEquals(List.of("ARTEMIS-4"), issueKeyScanner.scan("NO-ARTEMIS-ARTEMIS-4"));
+      Assert.assertEquals(List.of(), issueKeyScanner.scan("ARTEMIS- ARTEMIS-x"));
+      Assert.assertEquals(List.of(), issueKeyScanner.scan(null));
+
+      Assert.assertTrue(issueKeyScanner.isIssueKey("ARTEMIS-123"));
+      Assert.assertFalse(issueKeyScanner.isIssueKey("ARTEMIS-123 "));
+      Assert.assertFalse(issueKeyScanner.isIssueKey("ENTMQBR-123"));
+      Assert.assertFalse(issueKeyScanner.isIssueKey(null));
+   }
+
+   @Test
+   public void testScanWithKeyPrefixes() {
+      IssueKeyScanner issueKeyScanner = new IssueKeyScanner()
+         .addPrefix("https://github.com/apache/activemq/issues/", "GH-")
+         .addPrefix("GH-")
+         .addPrefix("[#", "GH-");
+
+      Assert.assertEquals(List.of("GH-1", "GH-2", "GH-3"), issueKeyScanner.scan(
+         "GH-1 fix [#2] see https://github.com/apache/activemq/issues/3"));
+      Assert.assertEquals(List.of(), issueKeyScanner.scan("[#] https://github.com/apache/activemq/issues/"));
+   }
+
+   @Test
+   public void testScanAgainstRegex() {
+      int messageCount = Integer.getInteger("issuekeyscanner.messages", 20000);
+      int rounds = Integer.getInteger("issuekeyscanner.rounds", 5);
+
+      Pattern issueKeyPattern = Pattern.compile("ARTEMIS-[0-9]+");
+      IssueKeyScanner issueKeyScanner = new IssueKeyScanner().addPrefix("ARTEMIS-").setMaxCachedValues(0);
+
+      Random random = new Random(0);
+      List<String> messages = new ArrayList<>();
+      for (int i = 0; i < messageCount; i++) {
+         messages.add(random.nextInt(4) == 0 ? "NO-JIRA fix the build" :
+            "ARTEMIS-" + random.nextInt(5000) + " Fix the broker for ARTEMIS-" + random.nextInt(5000));
+      }
+
+      for (String message : messages) {
+         List<String> issueKeys = new ArrayList<>();
+         Matcher issueKeyMatcher = issueKeyPattern.matcher(message);
+         while (issueKeyMatcher.find()) {
+            issueKeys.add(issueKeyMatcher.group());
+         }
+         Assert.assertEquals(issueKeys, issueKeyScanner.scan(message));
+      }
+
+      long startTime = System.nanoTime();
+      int regexKeys = 0;
+      for (int round = 0; round < rounds; round++) {
+         for (String message : messages) {
+            Matcher issueKeyMatcher = issueKeyPattern.matcher(message);
+            while (issueKeyMatcher.find()) {
+               issueKeyMatcher.group();
+               regexKeys++;
+            }
+         }
+      }
+      long regexTime = System.nanoTime() - startTime;
+
+      startTime = System.nanoTime();
+      int scannerKeys = 0;
+      for (int round = 0; round < rounds; round++) {
+         for (String message : messages) {
+            scannerKeys += issueKeyScanner.scan(message).size();
+         }
+      }
+      long scannerTime = System.nanoTime() - startTime;
+
+      Assert.assertEquals(regexKeys, scannerKeys);
+
+      logger.info("regex: " + (regexTime / ((long)rounds * messageCount)) + " ns per message, scanner: " +
+         (scannerTime / ((long)rounds * messageCount)) + " ns per message");
+   }
+}
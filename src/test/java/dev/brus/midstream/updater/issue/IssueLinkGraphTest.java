@@ -0,0 +1,97 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.File;
+import java.util.List;
+import java.util.Set;
+
+import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.IssueLinkGraph;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IssueLinkGraphTest {
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testLinks() {
+      IssueLinkGraph linkGraph = new IssueLinkGraph();
+
+      Assert.assertTrue(linkGraph.link("ENTMQBR-1", "ARTEMIS-1"));
+      Assert.assertFalse(linkGraph.link("ENTMQBR-1", "ARTEMIS-1"));
+      Assert.assertTrue(linkGraph.setUpstreamIssueKeys("ENTMQBR-2", List.of("ARTEMIS-1", "ARTEMIS-2", "ARTEMIS-1")));
+      Assert.assertFalse(linkGraph.setUpstreamIssueKeys("ENTMQBR-2", List.of("ARTEMIS-2", "ARTEMIS-1")));
+
+      Assert.assertEquals(Set.of("ENTMQBR-1", "ENTMQBR-2"), linkGraph.getDownstreamIssueKeys("ARTEMIS-1"));
+      Assert.assertEquals(Set.of("ARTEMIS-1", "ARTEMIS-2"), linkGraph.getUpstreamIssueKeys("ENTMQBR-2"));
+
+      Assert.assertTrue(linkGraph.setUpstreamIssueKeys("ENTMQBR-2", List.of("ARTEMIS-3")));
+      Assert.assertEquals(Set.of("ENTMQBR-1"), linkGraph.getDownstreamIssueKeys("ARTEMIS-1"));
+      Assert.assertEquals(Set.of("ARTEMIS-1", "ARTEMIS-3"), linkGraph.getLinkedUpstreamIssueKeys());
+
+      Assert.assertTrue(linkGraph.unlink("ENTMQBR-1", "ARTEMIS-1"));
+      Assert.assertFalse(linkGraph.unlink("ENTMQBR-1", "ARTEMIS-1"));
+      Assert.assertEquals(Set.of("ARTEMIS-3"), linkGraph.getLinkedUpstreamIssueKeys());
+      Assert.assertEquals(Set.of("ENTMQBR-2"), linkGraph.getLinkedDownstreamIssueKeys());
+   }
+
+   @Test
+   public void testMirrorTo() {
+      IssueLinkGraph linkGraph = new IssueLinkGraph();
+      linkGraph.link("ENTMQBR-1", "ARTEMIS-1");
+      linkGraph.link("ENTMQBR-2", "ARTEMIS-1");
+
+      Issue upstreamIssue = new Issue().setKey("ARTEMIS-1");
+      upstreamIssue.getIssues().add("ENTMQBR-3");
+
+      Assert.assertTrue(linkGraph.mirrorTo(upstreamIssue));
+      Assert.assertEquals(Set.of("ENTMQBR-1", "ENTMQBR-2"), Set.copyOf(upstreamIssue.getIssues()));
+      Assert.assertEquals(2, upstreamIssue.getIssues().size());
+      Assert.assertFalse(linkGraph.mirrorTo(upstreamIssue));
+   }
+
+   @Test
+   public void testUnlinkedUpstreamIssues() {
+      IssueLinkGraph linkGraph = new IssueLinkGraph();
+      linkGraph.link("ENTMQBR-1", "ARTEMIS-1");
+      linkGraph.link("ENTMQBR-2", "ARTEMIS-2");
+      linkGraph.link("ENTMQBR-3", "ARTEMIS-3");
+      Assert.assertEquals(Set.of(), linkGraph.pollUnlinkedUpstreamIssueKeys());
+
+      Issue upstreamIssue = new Issue().setKey("ARTEMIS-1");
+      linkGraph.mirrorTo(upstreamIssue);
+      Assert.assertEquals(List.of("ENTMQBR-1"), upstreamIssue.getIssues());
+
+      linkGraph.setUpstreamIssueKeys("ENTMQBR-1", List.of());
+      linkGraph.retainDownstreamIssueKeys(Set.of("ENTMQBR-1", "ENTMQBR-3")::contains);
+      Assert.assertEquals(Set.of("ENTMQBR-3"), linkGraph.getLinkedDownstreamIssueKeys());
+      Assert.assertEquals(Set.of("ARTEMIS-1", "ARTEMIS-2"), linkGraph.pollUnlinkedUpstreamIssueKeys());
+      Assert.assertEquals(Set.of(), linkGraph.pollUnlinkedUpstreamIssueKeys());
+
+      Assert.assertTrue(linkGraph.mirrorTo(upstreamIssue));
+      Assert.assertEquals(List.of(), upstreamIssue.getIssues());
+   }
+
+   @Test
+   public void testStoreAndLoad() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issue-links.json");
+
+      IssueLinkGraph linkGraph = new IssueLinkGraph();
+      linkGraph.link("ENTMQBR-1", "ARTEMIS-1");
+      linkGraph.link("ENTMQBR-1", "ARTEMIS-2");
+      linkGraph.link("ENTMQBR-2", "ARTEMIS-2");
+      Assert.assertTrue(linkGraph.isChanged());
+
+      linkGraph.store(file);
+      Assert.assertFalse(linkGraph.isChanged());
+
+      IssueLinkGraph loadedLinkGraph = new IssueLinkGraph();
+      loadedLinkGraph.load(file);
+      Assert.assertFalse(loadedLinkGraph.isChanged());
+      Assert.assertEquals(Set.of("ARTEMIS-1", "ARTEMIS-2"), loadedLinkGraph.getUpstreamIssueKeys("ENTMQBR-1"));
+      Assert.assertEquals(Set.of("ENTMQBR-1", "ENTMQBR-2"), loadedLinkGraph.getDownstreamIssueKeys("ARTEMIS-2"));
+   }
+}
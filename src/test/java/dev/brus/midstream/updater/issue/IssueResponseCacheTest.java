@@ -0,0 +1,121 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import dev.brus.downstream.updater.issue.IssueHttpTransport;
+import dev.brus.downstream.updater.issue.IssueResponseCache;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IssueResponseCacheTest {
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testConditionalRevalidation() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      try {
+         IssueResponseCache responseCache = new IssueResponseCache(temporaryFolder.newFolder())
+            .setExpiration("/field$", 60000);
+         IssueHttpTransport transport = new IssueHttpTransport(mockWebServer.url("rest/api/2").toString(),
+            null, Map.of()).setResponseCache(responseCache);
+
+         mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"1\"").setBody("{\"key\":\"ENTMQBR-1\"}"));
+         Assert.assertEquals("{\"key\":\"ENTMQBR-1\"}", get(transport, "/issue/ENTMQBR-1"));
+
+         // A new transport with the same cache directory revalidates the stored response
+         IssueResponseCache reloadedResponseCache = new IssueResponseCache(responseCache.getDir())
+            .setExpiration("/field$", 60000);
+         IssueHttpTransport reloadedTransport = new IssueHttpTransport(mockWebServer.url("rest/api/2").toString(),
+            null, Map.of()).setResponseCache(reloadedResponseCache);
+
+         mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+         Assert.assertEquals("{\"key\":\"ENTMQBR-1\"}", get(reloadedTransport, "/issue/ENTMQBR-1"));
+
+         mockWebServer.takeRequest();
+         RecordedRequest revalidationRequest = mockWebServer.takeRequest();
+         Assert.assertEquals("\"1\"", revalidationRequest.getHeader("If-None-Match"));
+         Assert.assertEquals(1, reloadedResponseCache.getRevalidations());
+
+         // Fresh responses are used without requests
+         mockWebServer.enqueue(new MockResponse().setBody("[]"));
+         Assert.assertEquals("[]", get(reloadedTransport, "/field"));
+         Assert.assertEquals("[]", get(reloadedTransport, "/field"));
+         Assert.assertEquals(3, mockWebServer.getRequestCount());
+         Assert.assertEquals(1, reloadedResponseCache.getHits());
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
+   @Test
+   public void testLeastRecentlyUsedEviction() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      try {
+         IssueResponseCache responseCache = new IssueResponseCache(temporaryFolder.newFolder(), 1024);
+         IssueHttpTransport transport = new IssueHttpTransport(mockWebServer.url("rest/api/2").toString(),
+            null, Map.of()).setResponseCache(responseCache);
+
+         String body = "x".repeat(300);
+         for (int i = 0; i < 3; i++) {
+            mockWebServer.enqueue(new MockResponse().addHeader("ETag", "\"" + i + "\"").setBody(body));
+            get(transport, "/issue/ENTMQBR-" + i);
+         }
+
+         Assert.assertTrue(responseCache.getSize() <= 1024);
+         Assert.assertNull(responseCache.get(transport.getServerURL() + "/issue/ENTMQBR-0", null));
+         Assert.assertNotNull(responseCache.get(transport.getServerURL() + "/issue/ENTMQBR-2", null));
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
+   @Test
+   public void testEntryFiles() throws Exception {
+      File dir = temporaryFolder.newFolder();
+      IssueResponseCache responseCache = new IssueResponseCache(dir);
+      responseCache.put(null, new IssueResponseCache.Entry().setUrl("http://localhost/issue/ENTMQBR-1")
+         .setEtag("\"1\"").setBody("{}".getBytes(StandardCharsets.UTF_8)));
+      responseCache.put(null, new IssueResponseCache.Entry().setUrl("http://localhost/issue/ENTMQBR-1")
+         .setEtag("\"2\"").setBody("[]".getBytes(StandardCharsets.UTF_8)));
+
+      // The metadata and the body are replaced together in a single file
+      File[] entryFiles = dir.listFiles();
+      Assert.assertEquals(1, entryFiles.length);
+      Assert.assertTrue(entryFiles[0].getName().endsWith(".entry"));
+
+      // The temp files left by a killed process are deleted
+      File tempFile = new File(dir, "killed.tmp");
+      Assert.assertTrue(tempFile.createNewFile());
+
+      IssueResponseCache reloadedResponseCache = new IssueResponseCache(dir);
+      Assert.assertFalse(tempFile.exists());
+      IssueResponseCache.Entry entry = reloadedResponseCache.get("http://localhost/issue/ENTMQBR-1", null);
+      Assert.assertEquals("\"2\"", entry.getEtag());
+      Assert.assertEquals("[]", new String(entry.getBody(), StandardCharsets.UTF_8));
+      Assert.assertEquals(entryFiles[0].length(), reloadedResponseCache.getSize());
+   }
+
+   private String get(IssueHttpTransport transport, String url) throws Exception {
+      HttpURLConnection connection = transport.createConnection(url, null);
+      try (InputStream inputStream = transport.getInputStream(connection)) {
+         return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      } finally {
+         connection.disconnect();
+      }
+   }
+}
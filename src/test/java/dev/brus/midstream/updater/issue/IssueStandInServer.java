@@ -0,0 +1,463 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.brus.downstream.updater.issue.RedHatJiraIssueManager;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+// Serves synthetic Jira and GitHub projects for load testing the issue managers
+public class IssueStandInServer {
+   public final static String JIRA_API_PATH = "/rest/api/2";
+
+   private final static Pattern JIRA_PROJECT_PATTERN = Pattern.compile("project\\s*=\\s*'?([A-Z0-9_]+)'?");
+   private final static Pattern GITHUB_PATH_PATTERN = Pattern.compile("/repos/([^/]+)/([^/]+)/issues(/([0-9]+))?$");
+
+   private final MockWebServer mockWebServer = new MockWebServer();
+
+   private final Map<String, SyntheticIssueGenerator> jiraProjects = new ConcurrentHashMap<>();
+   private final Map<String, SyntheticIssueGenerator> githubRepos = new ConcurrentHashMap<>();
+
+   // Issues changed or created by the clients, by key
+   private final Map<String, JsonObject> changedIssues = new ConcurrentHashMap<>();
+   private final Map<String, List<String>> createdIssueKeys = new ConcurrentHashMap<>();
+
+   private final Map<String, String> fieldIds = new ConcurrentHashMap<>();
+
+   private final Map<String, JsonObject> bulkTasks = new ConcurrentHashMap<>();
+   private final AtomicLong bulkTaskIds = new AtomicLong();
+
+   private final AtomicLong errorCount = new AtomicLong();
+   private final AtomicLong rateLimitCount = new AtomicLong();
+
+   private final Random random;
+
+   private long latency;
+   private double errorRate;
+   private double rateLimitRate;
+
+   public IssueStandInServer(long seed) {
+      this.random = new Random(seed);
+      RedHatJiraIssueManager.FIELDS.forEach(fieldName ->
+         fieldIds.put(fieldName, "customfield_" + (10000 + Math.abs(fieldName.hashCode() % 10000))));
+      mockWebServer.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            return IssueStandInServer.this.dispatch(request);
+         }
+      });
+   }
+
+   public IssueStandInServer addJiraProject(SyntheticIssueGenerator generator) {
+      jiraProjects.put(generator.getProjectKey(), generator);
+      createdIssueKeys.put(generator.getProjectKey(), new CopyOnWriteArrayList<>());
+      return this;
+   }
+
+   public IssueStandInServer addGithubRepo(String owner, String repo, SyntheticIssueGenerator generator) {
+      githubRepos.put(owner + "/" + repo, generator);
+      return this;
+   }
+
+   public IssueStandInServer setLatency(long latency) {
+      this.latency = latency;
+      return this;
+   }
+
+   public IssueStandInServer setErrorRate(double errorRate) {
+      this.errorRate = errorRate;
+      return this;
+   }
+
+   public IssueStandInServer setRateLimitRate(double rateLimitRate) {
+      this.rateLimitRate = rateLimitRate;
+      return this;
+   }
+
+   public Map<String, String> getFieldIds() {
+      return fieldIds;
+   }
+
+   public long getErrorCount() {
+      return errorCount.get();
+   }
+
+   public long getRateLimitCount() {
+      return rateLimitCount.get();
+   }
+
+   public int getRequestCount() {
+      return mockWebServer.getRequestCount();
+   }
+
+   public void start() throws IOException {
+      mockWebServer.start();
+   }
+
+   public void shutdown() throws IOException {
+      mockWebServer.shutdown();
+   }
+
+   public String getJiraURL() {
+      return mockWebServer.url("").toString().replaceAll("/$", "") + JIRA_API_PATH;
+   }
+
+   public String getGithubURL(String owner, String repo) {
+      return mockWebServer.url("/repos/" + owner + "/" + repo + "/issues").toString();
+   }
+
+   public JsonObject getJiraIssue(String issueKey) {
+      JsonObject issueObject = changedIssues.get(issueKey);
+      if (issueObject != null) {
+         return issueObject;
+      }
+
+      SyntheticIssueGenerator generator = jiraProjects.get(issueKey.replaceAll("-[0-9]+$", ""));
+      int number = generator != null ? generator.getIssueNumber(issueKey) : 0;
+      return number > 0 ? generator.createJiraIssue(number, fieldIds) : null;
+   }
+
+   private MockResponse dispatch(RecordedRequest request) {
+      MockResponse faultResponse = createFaultResponse();
+      if (faultResponse != null) {
+         return faultResponse;
+      }
+
+      HttpUrl requestUrl = request.getRequestUrl();
+      String path = requestUrl.encodedPath();
+      String method = request.getMethod();
+
+      try {
+         int apiPathIndex = path.lastIndexOf(JIRA_API_PATH + "/");
+         if (apiPathIndex >= 0) {
+            return dispatchJira(method, path.substring(apiPathIndex + JIRA_API_PATH.length()), requestUrl,
+               request.getBody().size() > 0 ? JsonParser.parseString(request.getBody().readUtf8()) : null);
+         }
+
+         Matcher githubPathMatcher = GITHUB_PATH_PATTERN.matcher(path);
+         if (githubPathMatcher.find() && method.equals("GET")) {
+            return dispatchGithub(githubPathMatcher, requestUrl);
+         }
+      } catch (Exception e) {
+         return createResponse(500, "{\"errorMessages\":[\"" + e + "\"]}");
+      }
+
+      return createResponse(404, "{}");
+   }
+
+   private MockResponse dispatchJira(String method, String path, HttpUrl requestUrl, JsonElement body) {
+      if (path.equals("/field") && method.equals("GET")) {
+         JsonArray fieldsArray = new JsonArray();
+         fieldIds.forEach((fieldName, fieldId) -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", fieldId);
+            fieldObject.addProperty("name", fieldName);
+            fieldsArray.add(fieldObject);
+         });
+         return createResponse(200, fieldsArray.toString());
+      } else if (path.equals("/search/jql") && method.equals("POST")) {
+         return searchJiraIssueIds(body.getAsJsonObject());
+      } else if (path.equals("/search") && method.equals("GET")) {
+         return searchJiraIssues(requestUrl);
+      } else if (path.equals("/issue/bulkfetch") && method.equals("POST")) {
+         JsonArray issuesArray = new JsonArray();
+         for (JsonElement issueIdOrKeyElement : body.getAsJsonObject().getAsJsonArray("issueIdsOrKeys")) {
+            JsonObject issueObject = getJiraIssueByIdOrKey(issueIdOrKeyElement.getAsString());
+            if (issueObject != null) {
+               issuesArray.add(issueObject);
+            }
+         }
+         JsonObject responseObject = new JsonObject();
+         responseObject.add("issues", issuesArray);
+         return createResponse(200, responseObject.toString());
+      } else if (path.equals("/issue") && method.equals("POST")) {
+         return createJiraIssue(body.getAsJsonObject());
+      } else if (path.equals("/issueLink") && method.equals("POST")) {
+         return createResponse(201, "");
+      } else if (path.equals("/bulk/issues/fields") && method.equals("POST")) {
+         JsonObject bulkEditObject = body.getAsJsonObject();
+         JsonArray labelsArray = bulkEditObject.getAsJsonObject("editedFieldsInput")
+            .getAsJsonArray("labelsFields").get(0).getAsJsonObject().getAsJsonArray("labels");
+         JsonArray processedIssuesArray = new JsonArray();
+         for (JsonElement issueKeyElement : bulkEditObject.getAsJsonArray("selectedIssueIdsOrKeys")) {
+            for (JsonElement labelElement : labelsArray) {
+               addJiraIssueLabel(issueKeyElement.getAsString(), labelElement.getAsJsonObject().get("name").getAsString());
+            }
+            processedIssuesArray.add(getJiraIssue(issueKeyElement.getAsString()).get("id"));
+         }
+         String taskId = String.valueOf(bulkTaskIds.incrementAndGet());
+         JsonObject taskObject = new JsonObject();
+         taskObject.addProperty("taskId", taskId);
+         taskObject.addProperty("status", "COMPLETE");
+         taskObject.add("processedAccessibleIssues", processedIssuesArray);
+         taskObject.add("failedAccessibleIssues", new JsonObject());
+         taskObject.addProperty("invalidOrInaccessibleIssueCount", 0);
+         bulkTasks.put(taskId, taskObject);
+         return createResponse(201, "{\"taskId\":\"" + taskId + "\"}");
+      } else if (path.startsWith("/bulk/queue/") && method.equals("GET")) {
+         JsonObject taskObject = bulkTasks.get(path.substring("/bulk/queue/".length()));
+         if (taskObject == null) {
+            return createResponse(404, "{\"errorMessages\":[\"Task does not exist\"]}");
+         }
+         return createResponse(200, taskObject.toString());
+      } else if (path.startsWith("/issue/")) {
+         String[] pathSegments = path.substring("/issue/".length()).split("/");
+         String issueKey = pathSegments[0];
+         JsonObject issueObject = getJiraIssue(issueKey);
+         if (issueObject == null) {
+            return createResponse(404, "{\"errorMessages\":[\"Issue does not exist\"]}");
+         }
+
+         if (pathSegments.length == 1 && method.equals("GET")) {
+            return createResponse(200, issueObject.toString());
+         } else if (pathSegments.length == 1 && method.equals("PUT")) {
+            updateJiraIssue(issueKey, body.getAsJsonObject());
+            return createResponse(204, "");
+         } else if (pathSegments.length == 2 && pathSegments[1].equals("transitions") && method.equals("GET")) {
+            JsonArray transitionsArray = new JsonArray();
+            for (int i = 0; i < SyntheticIssueGenerator.STATUSES.size(); i++) {
+               JsonObject transitionObject = new JsonObject();
+               transitionObject.addProperty("id", String.valueOf(i + 1));
+               JsonObject toObject = new JsonObject();
+               toObject.addProperty("name", SyntheticIssueGenerator.STATUSES.get(i));
+               transitionObject.add("to", toObject);
+               transitionsArray.add(transitionObject);
+            }
+            JsonObject responseObject = new JsonObject();
+            responseObject.add("transitions", transitionsArray);
+            return createResponse(200, responseObject.toString());
+         } else if (pathSegments.length == 2 && pathSegments[1].equals("transitions") && method.equals("POST")) {
+            int transitionId = body.getAsJsonObject().getAsJsonObject("transition").get("id").getAsInt();
+            JsonObject statusObject = new JsonObject();
+            statusObject.addProperty("name", SyntheticIssueGenerator.STATUSES.get(transitionId - 1));
+            changeJiraIssue(issueKey, changedIssueObject -> changedIssueObject.getAsJsonObject("fields").add("status", statusObject));
+            return createResponse(204, "");
+         }
+      }
+
+      return createResponse(404, "{}");
+   }
+
+   private MockResponse searchJiraIssueIds(JsonObject requestObject) {
+      String projectKey = getJiraProjectKey(requestObject.get("jql").getAsString());
+      int maxResults = requestObject.get("maxResults").getAsInt();
+      int startAt = requestObject.has("nextPageToken") ? Integer.parseInt(requestObject.get("nextPageToken").getAsString()) : 0;
+      int total = getJiraIssueCount(projectKey);
+
+      JsonArray issuesArray = new JsonArray();
+      for (int i = startAt; i < Math.min(startAt + maxResults, total); i++) {
+         JsonObject issueObject = new JsonObject();
+         issueObject.addProperty("key", getJiraIssueKey(projectKey, i));
+         issuesArray.add(issueObject);
+      }
+
+      JsonObject responseObject = new JsonObject();
+      responseObject.add("issues", issuesArray);
+      responseObject.addProperty("total", total);
+      if (startAt + maxResults < total) {
+         responseObject.addProperty("nextPageToken", String.valueOf(startAt + maxResults));
+      }
+      return createResponse(200, responseObject.toString());
+   }
+
+   private MockResponse searchJiraIssues(HttpUrl requestUrl) {
+      String projectKey = getJiraProjectKey(requestUrl.queryParameter("jql"));
+      int maxResults = Integer.parseInt(requestUrl.queryParameter("maxResults"));
+      String startAtParameter = requestUrl.queryParameter("startAt");
+      int startAt = startAtParameter != null ? Integer.parseInt(startAtParameter) : 0;
+      int total = getJiraIssueCount(projectKey);
+
+      JsonArray issuesArray = new JsonArray();
+      for (int i = startAt; i < Math.min(startAt + maxResults, total); i++) {
+         issuesArray.add(getJiraIssue(getJiraIssueKey(projectKey, i)));
+      }
+
+      JsonObject responseObject = new JsonObject();
+      responseObject.addProperty("startAt", startAt);
+      responseObject.addProperty("maxResults", maxResults);
+      responseObject.addProperty("total", total);
+      responseObject.add("issues", issuesArray);
+      return createResponse(200, responseObject.toString());
+   }
+
+   private MockResponse createJiraIssue(JsonObject requestObject) {
+      JsonObject requestFieldsObject = requestObject.getAsJsonObject("fields");
+      String projectKey = requestFieldsObject.getAsJsonObject("project").get("key").getAsString();
+      SyntheticIssueGenerator generator = jiraProjects.get(projectKey);
+      if (generator == null) {
+         return createResponse(400, "{\"errorMessages\":[\"Project does not exist\"]}");
+      }
+
+      List<String> projectCreatedIssueKeys = createdIssueKeys.get(projectKey);
+      JsonObject issueObject;
+      synchronized (projectCreatedIssueKeys) {
+         int number = generator.getIssueCount() + projectCreatedIssueKeys.size() + 1;
+         issueObject = generator.createJiraIssue(number, fieldIds);
+         projectCreatedIssueKeys.add(issueObject.get("key").getAsString());
+      }
+
+      JsonObject fieldsObject = issueObject.getAsJsonObject("fields");
+      requestFieldsObject.entrySet().forEach(fieldEntry -> {
+         if (!fieldEntry.getKey().equals("project")) {
+            fieldsObject.add(fieldEntry.getKey(), fieldEntry.getValue());
+         }
+      });
+      JsonObject statusObject = new JsonObject();
+      statusObject.addProperty("name", SyntheticIssueGenerator.STATUSES.get(0));
+      fieldsObject.add("status", statusObject);
+      fieldsObject.remove("resolution");
+
+      String issueKey = issueObject.get("key").getAsString();
+      changedIssues.put(issueKey, issueObject);
+
+      JsonObject responseObject = new JsonObject();
+      responseObject.add("id", issueObject.get("id"));
+      responseObject.addProperty("key", issueKey);
+      return createResponse(201, responseObject.toString());
+   }
+
+   private void updateJiraIssue(String issueKey, JsonObject requestObject) {
+      changeJiraIssue(issueKey, issueObject -> {
+         JsonObject fieldsObject = issueObject.getAsJsonObject("fields");
+         if (requestObject.has("fields")) {
+            requestObject.getAsJsonObject("fields").entrySet().forEach(fieldEntry ->
+               fieldsObject.add(fieldEntry.getKey(), fieldEntry.getValue()));
+         }
+         if (requestObject.has("update") && requestObject.getAsJsonObject("update").has("labels")) {
+            for (JsonElement operationElement : requestObject.getAsJsonObject("update").getAsJsonArray("labels")) {
+               JsonElement labelElement = operationElement.getAsJsonObject().get("add");
+               if (labelElement != null && !fieldsObject.getAsJsonArray("labels").contains(labelElement)) {
+                  fieldsObject.getAsJsonArray("labels").add(labelElement);
+               }
+            }
+         }
+      });
+   }
+
+   private void addJiraIssueLabel(String issueKey, String label) {
+      changeJiraIssue(issueKey, issueObject -> {
+         JsonArray labelsArray = issueObject.getAsJsonObject("fields").getAsJsonArray("labels");
+         for (JsonElement labelElement : labelsArray) {
+            if (labelElement.getAsString().equals(label)) {
+               return;
+            }
+         }
+         labelsArray.add(label);
+      });
+   }
+
+   private void changeJiraIssue(String issueKey, Consumer<JsonObject> change) {
+      changedIssues.compute(issueKey, (key, issueObject) -> {
+         JsonObject changedIssueObject = issueObject != null ? issueObject : getJiraIssue(key);
+         if (changedIssueObject != null) {
+            change.accept(changedIssueObject);
+         }
+         return changedIssueObject;
+      });
+   }
+
+   private JsonObject getJiraIssueByIdOrKey(String issueIdOrKey) {
+      if (issueIdOrKey.contains("-")) {
+         return getJiraIssue(issueIdOrKey);
+      }
+
+      for (SyntheticIssueGenerator generator : jiraProjects.values()) {
+         int number = generator.getIssueNumber(issueIdOrKey);
+         if (number > 0) {
+            return getJiraIssue(generator.getIssueKey(number));
+         }
+      }
+
+      return null;
+   }
+
+   private String getJiraProjectKey(String jql) {
+      Matcher projectMatcher = JIRA_PROJECT_PATTERN.matcher(jql);
+      return projectMatcher.find() ? projectMatcher.group(1) : null;
+   }
+
+   private int getJiraIssueCount(String projectKey) {
+      SyntheticIssueGenerator generator = projectKey != null ? jiraProjects.get(projectKey) : null;
+      return generator != null ? generator.getIssueCount() + createdIssueKeys.get(projectKey).size() : 0;
+   }
+
+   private String getJiraIssueKey(String projectKey, int index) {
+      SyntheticIssueGenerator generator = jiraProjects.get(projectKey);
+      return index < generator.getIssueCount() ? generator.getIssueKey(index + 1) :
+         createdIssueKeys.get(projectKey).get(index - generator.getIssueCount());
+   }
+
+   private MockResponse dispatchGithub(Matcher githubPathMatcher, HttpUrl requestUrl) {
+      String owner = githubPathMatcher.group(1);
+      String repo = githubPathMatcher.group(2);
+      SyntheticIssueGenerator generator = githubRepos.get(owner + "/" + repo);
+      if (generator == null) {
+         return createResponse(404, "{\"message\":\"Not Found\"}");
+      }
+
+      String issueNumber = githubPathMatcher.group(4);
+      if (issueNumber != null) {
+         int number = Integer.parseInt(issueNumber);
+         return number <= generator.getIssueCount() ? createResponse(200, generator.createGithubIssue(number, owner, repo).toString()) :
+            createResponse(404, "{\"message\":\"Not Found\"}");
+      }
+
+      String pageParameter = requestUrl.queryParameter("page");
+      String perPageParameter = requestUrl.queryParameter("per_page");
+      int page = pageParameter != null ? Integer.parseInt(pageParameter) : 1;
+      int perPage = perPageParameter != null ? Integer.parseInt(perPageParameter) : 30;
+
+      JsonArray issuesArray = new JsonArray();
+      for (int number = (page - 1) * perPage + 1; number <= Math.min(page * perPage, generator.getIssueCount()); number++) {
+         issuesArray.add(generator.createGithubIssue(number, owner, repo));
+      }
+      return createResponse(200, issuesArray.toString());
+   }
+
+   private MockResponse createFaultResponse() {
+      double value;
+      synchronized (random) {
+         value = random.nextDouble();
+      }
+
+      if (value < rateLimitRate) {
+         rateLimitCount.incrementAndGet();
+         return createResponse(429, "{\"message\":\"Rate limit exceeded\"}").addHeader("Retry-After", "1");
+      } else if (value < rateLimitRate + errorRate) {
+         errorCount.incrementAndGet();
+         return createResponse(500, "{\"errorMessages\":[\"Internal server error\"]}");
+      }
+
+      return null;
+   }
+
+   private MockResponse createResponse(int code, String body) {
+      MockResponse response = new MockResponse()
+         .setResponseCode(code)
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(body);
+
+      if (latency > 0) {
+         response.setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+      }
+
+      return response;
+   }
+}
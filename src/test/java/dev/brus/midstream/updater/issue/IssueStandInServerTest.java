@@ -0,0 +1,103 @@
+package dev.brus.midstream.updater.issue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dev.brus.downstream.updater.issue.GithubIssueManager;
+import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.JiraIssueManager;
+import dev.brus.downstream.updater.issue.RedHatIssueStateMachine;
+import dev.brus.downstream.updater.issue.RedHatJiraIssueManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IssueStandInServerTest {
+   // Use -Dstandin.issues=500000 to load test at production scale
+   private final static int ISSUE_COUNT = Integer.getInteger("standin.issues", 2000);
+   private final static long SEED = Long.getLong("standin.seed", 42);
+
+   private IssueStandInServer server;
+
+   @Before
+   public void startServer() throws Exception {
+      server = new IssueStandInServer(SEED)
+         .setLatency(Long.getLong("standin.latency", 0))
+         .addJiraProject(new SyntheticIssueGenerator("ARTEMIS", ISSUE_COUNT, SEED))
+         .addJiraProject(new SyntheticIssueGenerator("ENTMQBR", ISSUE_COUNT, SEED + 1))
+         .addGithubRepo("apache", "activemq-artemis", new SyntheticIssueGenerator("AMQ", ISSUE_COUNT, SEED + 2));
+      server.start();
+   }
+
+   @After
+   public void stopServer() throws Exception {
+      server.shutdown();
+   }
+
+   @Test
+   public void testLoadUpstreamJiraIssues() throws Exception {
+      JiraIssueManager issueManager = new JiraIssueManager(server.getJiraURL(), null, "ARTEMIS");
+
+      issueManager.loadIssues();
+
+      Assert.assertEquals(ISSUE_COUNT, issueManager.getIssues().size());
+      Assert.assertEquals(server.getJiraIssue("ARTEMIS-1").getAsJsonObject("fields").get("summary").getAsString(),
+         issueManager.getIssue("ARTEMIS-1").getSummary());
+   }
+
+   @Test
+   public void testLoadDownstreamJiraIssues() throws Exception {
+      JiraIssueManager upstreamIssueManager = new JiraIssueManager(server.getJiraURL(), null, "ARTEMIS");
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(server.getJiraURL(), null,
+         "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      issueManager.load();
+      issueManager.loadIssues();
+
+      Assert.assertEquals(ISSUE_COUNT, issueManager.getIssues().size());
+
+      Issue issue = issueManager.getIssue("ENTMQBR-" + ISSUE_COUNT);
+      issueManager.transitionIssue(issue.getKey(), "Closed");
+      issueManager.addIssueLabels(issue.getKey(), "stand-in");
+
+      Assert.assertEquals("Closed", issueManager.getIssueStatus(issue.getKey()));
+      Assert.assertTrue(server.getJiraIssue(issue.getKey()).getAsJsonObject("fields")
+         .getAsJsonArray("labels").toString().contains("stand-in"));
+
+      Map<String, List<String>> issuesLabels = new HashMap<>();
+      for (int i = 1; i <= Math.min(ISSUE_COUNT, 100); i++) {
+         issuesLabels.put("ENTMQBR-" + i, List.of("bulk-" + i % 3));
+      }
+      Assert.assertTrue(issueManager.writeIssuesLabels(issuesLabels).isEmpty());
+      Assert.assertTrue(server.getJiraIssue("ENTMQBR-1").getAsJsonObject("fields")
+         .getAsJsonArray("labels").toString().contains("bulk-1"));
+   }
+
+   @Test
+   public void testLoadGithubIssues() throws Exception {
+      GithubIssueManager issueManager = new GithubIssueManager(
+         server.getGithubURL("apache", "activemq-artemis"), null, "AMQ");
+
+      issueManager.loadIssues();
+
+      Assert.assertEquals(ISSUE_COUNT, issueManager.getIssues().size());
+
+      issueManager.loadIssues(List.of("AMQ-1", "AMQ-" + (ISSUE_COUNT + 1)));
+      Assert.assertNotNull(issueManager.getIssue("AMQ-1"));
+      Assert.assertNull(issueManager.getIssue("AMQ-" + (ISSUE_COUNT + 1)));
+   }
+
+   @Test
+   public void testLoadWithRateLimits() throws Exception {
+      server.setRateLimitRate(0.3);
+
+      JiraIssueManager issueManager = new JiraIssueManager(server.getJiraURL(), null, "ARTEMIS");
+
+      issueManager.loadIssues();
+
+      Assert.assertEquals(ISSUE_COUNT, issueManager.getIssues().size());
+      Assert.assertTrue(server.getRateLimitCount() > 0);
+   }
+}
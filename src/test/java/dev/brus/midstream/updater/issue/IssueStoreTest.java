@@ -0,0 +1,268 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.GsonBuilder;
+import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.IssueStore;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IssueStoreTest {
+   private final static String DATE_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+   @Rule
+   public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+   @Test
+   public void testStoreChangedIssues() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(10);
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      Assert.assertEquals(10, issueStore.store(issues, dirtyIssueKeys(issues)));
+      Assert.assertEquals(10, issueStore.getSnapshotRecords());
+      Assert.assertFalse(issueStore.getLogFile().exists());
+
+      // Only the changed dirty issues are appended to the log
+      Assert.assertEquals(0, issueStore.store(issues, dirtyIssueKeys(issues)));
+      issues.get("TEST-3").setState("Closed");
+      issues.get("TEST-7").getLabels().add("CR1");
+      Set<String> dirtyIssueKeys = dirtyIssueKeys(Map.of());
+      dirtyIssueKeys.addAll(List.of("TEST-3", "TEST-7"));
+      Assert.assertEquals(2, issueStore.store(issues, dirtyIssueKeys));
+      Assert.assertTrue(dirtyIssueKeys.isEmpty());
+      Assert.assertEquals(2, issueStore.getLogRecords());
+      Assert.assertEquals(2, FileUtils.readLines(issueStore.getLogFile(), StandardCharsets.UTF_8).size());
+
+      Map<String, Issue> loadedIssues = new LinkedHashMap<>();
+      IssueStore loadedIssueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      loadedIssueStore.load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(10, loadedIssues.size());
+      Assert.assertEquals("Closed", loadedIssues.get("TEST-3").getState());
+      Assert.assertEquals(List.of("CR1"), loadedIssues.get("TEST-7").getLabels());
+      Assert.assertEquals(issues.get("TEST-0").getUpdated(), loadedIssues.get("TEST-0").getUpdated());
+      Assert.assertEquals(0, loadedIssueStore.store(loadedIssues, dirtyIssueKeys(loadedIssues)));
+
+      // The log is compacted into the snapshot when it grows
+      for (int i = 0; i < 4; i++) {
+         loadedIssues.get("TEST-" + i).setSummary("Changed " + i);
+      }
+      Assert.assertEquals(4, loadedIssueStore.store(loadedIssues, dirtyIssueKeys(loadedIssues)));
+      loadedIssueStore.awaitCompaction();
+      Assert.assertFalse(loadedIssueStore.getLogFile().exists());
+      Assert.assertEquals(0, loadedIssueStore.getLogRecords());
+
+      loadedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(10, loadedIssues.size());
+      Assert.assertEquals("Changed 2", loadedIssues.get("TEST-2").getSummary());
+   }
+
+   @Test
+   public void testStoreDeletedIssues() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(10);
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      issueStore.store(issues, dirtyIssueKeys(issues));
+
+      // The issues no longer stored are deleted by a log record without rewriting the snapshot
+      issues.remove("TEST-3");
+      Assert.assertEquals(1, issueStore.store(issues, dirtyIssueKeys(Map.of())));
+      Assert.assertEquals(List.of("\"TEST-3\""), FileUtils.readLines(issueStore.getLogFile(), StandardCharsets.UTF_8));
+      Assert.assertEquals(0, issueStore.store(issues, dirtyIssueKeys(Map.of())));
+
+      Map<String, Issue> loadedIssues = new ConcurrentHashMap<>();
+      IssueStore loadedIssueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      loadedIssueStore.load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(9, loadedIssues.size());
+      Assert.assertFalse(loadedIssues.containsKey("TEST-3"));
+      Assert.assertEquals(0, loadedIssueStore.store(loadedIssues, dirtyIssueKeys(loadedIssues)));
+
+      Map<String, Issue> queriedIssues = new ConcurrentHashMap<>();
+      new IssueStore(file, DATE_FORMAT_PATTERN).query(IssueStore.INDEX_STATE,
+         "New"::equals, issue -> queriedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(loadedIssues.keySet(), queriedIssues.keySet());
+   }
+
+   @Test
+   public void testLoadChunksInParallel() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(2500);
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      issueStore.store(issues, dirtyIssueKeys(issues));
+
+      Map<String, Issue> loadedIssues = new ConcurrentHashMap<>();
+      Set<String> loadingThreads = ConcurrentHashMap.newKeySet();
+      IssueStore loadedIssueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      loadedIssueStore.load(issue -> {
+         loadingThreads.add(Thread.currentThread().getName());
+         loadedIssues.put(issue.getKey(), issue);
+      });
+
+      Assert.assertEquals(2500, loadedIssues.size());
+      Assert.assertEquals(2500, loadedIssueStore.getSnapshotRecords());
+      Assert.assertEquals("Test 1234", loadedIssues.get("TEST-1234").getSummary());
+      Assert.assertFalse(loadingThreads.contains(Thread.currentThread().getName()));
+      Assert.assertEquals(0, loadedIssueStore.store(loadedIssues, dirtyIssueKeys(loadedIssues)));
+   }
+
+   @Test
+   public void testLoadLegacyFile() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(5);
+      FileUtils.writeStringToFile(file, new GsonBuilder().setDateFormat(DATE_FORMAT_PATTERN)
+         .setPrettyPrinting().create().toJson(issues.values()), StandardCharsets.UTF_8);
+
+      Map<String, Issue> loadedIssues = new LinkedHashMap<>();
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      issueStore.load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(5, loadedIssues.size());
+      Assert.assertEquals("Test 4", loadedIssues.get("TEST-4").getSummary());
+
+      // The legacy file is rewritten as a snapshot
+      Assert.assertEquals(0, issueStore.store(loadedIssues, dirtyIssueKeys(Map.of())));
+      Assert.assertNotEquals('[', FileUtils.readFileToString(file, StandardCharsets.UTF_8).charAt(0));
+
+      loadedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(5, loadedIssues.size());
+   }
+
+   @Test
+   public void testOffloadDescriptions() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(3);
+      issues.values().forEach(issue -> issue.setDescription("Description of " + issue.getKey()));
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      issueStore.store(issues, dirtyIssueKeys(issues));
+      Assert.assertTrue(issueStore.getDescriptionsFile().exists());
+      Assert.assertFalse(FileUtils.readFileToString(file, StandardCharsets.UTF_8).contains("Description of"));
+      Assert.assertEquals("Description of TEST-1", issues.get("TEST-1").getDescription());
+
+      Map<String, Issue> loadedIssues = new LinkedHashMap<>();
+      IssueStore loadedIssueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      loadedIssueStore.load(issue -> loadedIssues.put(issue.getKey(), issue.compact()));
+      Assert.assertEquals("Description of TEST-2", loadedIssues.get("TEST-2").getDescription());
+      Assert.assertSame(loadedIssues.get("TEST-0").getState(), loadedIssues.get("TEST-2").getState());
+
+      // Changed descriptions are written to a new generation and the unreferenced ones are dropped
+      File previousDescriptionsFile = loadedIssueStore.getDescriptionsFile();
+      for (Issue issue : loadedIssues.values()) {
+         issue.setDescription("Changed description of " + issue.getKey());
+      }
+      loadedIssueStore.store(loadedIssues, dirtyIssueKeys(loadedIssues));
+      Assert.assertEquals("Changed description of TEST-0", loadedIssues.get("TEST-0").getDescription());
+      Assert.assertFalse(FileUtils.readFileToString(loadedIssueStore.getDescriptionsFile(),
+         StandardCharsets.UTF_8).contains("Description of"));
+
+      // The new generation replaces the previous one with the snapshot recording it
+      Assert.assertNotEquals(previousDescriptionsFile, loadedIssueStore.getDescriptionsFile());
+      Assert.assertFalse(previousDescriptionsFile.exists());
+
+      loadedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals("Changed description of TEST-1", loadedIssues.get("TEST-1").getDescription());
+   }
+
+   @Test
+   public void testQueryIssues() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(2500);
+      for (int i = 0; i < 2000; i++) {
+         issues.get("TEST-" + i).setTargetRelease(i < 1000 ? "7.11." + (i % 3) + ".GA" : "7.12.0.GA");
+      }
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      issueStore.store(issues, dirtyIssueKeys(issues));
+      Assert.assertTrue(issueStore.getIndexFile().exists());
+
+      Map<String, Issue> queriedIssues = new LinkedHashMap<>();
+      IssueStore queriedIssueStore = new IssueStore(file, DATE_FORMAT_PATTERN);
+      Assert.assertEquals(1000, queriedIssueStore.query(IssueStore.INDEX_TARGET_RELEASE,
+         value -> value.startsWith("7.11."), issue -> queriedIssues.put(issue.getKey(), issue)));
+      Assert.assertTrue(queriedIssueStore.isPartial());
+      Assert.assertEquals("7.11.1.GA", queriedIssues.get("TEST-1").getTargetRelease());
+
+      // Only the changed issues of the subset are appended, the snapshot is not rewritten
+      queriedIssues.get("TEST-1").setTargetRelease("7.12.0.GA");
+      Assert.assertEquals(1, queriedIssueStore.store(queriedIssues, dirtyIssueKeys(queriedIssues)));
+      Assert.assertEquals(1, FileUtils.readLines(queriedIssueStore.getLogFile(), StandardCharsets.UTF_8).size());
+
+      // The log records replace the snapshot records matching the query
+      queriedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).query(IssueStore.INDEX_TARGET_RELEASE,
+         value -> value.startsWith("7.11."), issue -> queriedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(999, queriedIssues.size());
+      Assert.assertFalse(queriedIssues.containsKey("TEST-1"));
+
+      queriedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).query(IssueStore.INDEX_TARGET_RELEASE,
+         "7.12.0.GA"::equals, issue -> queriedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(1001, queriedIssues.size());
+      Assert.assertEquals("Test 1", queriedIssues.get("TEST-1").getSummary());
+
+      Map<String, Issue> loadedIssues = new ConcurrentHashMap<>();
+      new IssueStore(file, DATE_FORMAT_PATTERN).load(issue -> loadedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(2500, loadedIssues.size());
+      Assert.assertEquals("7.12.0.GA", loadedIssues.get("TEST-1").getTargetRelease());
+
+      // A stale index is ignored and the whole snapshot is scanned
+      FileUtils.writeStringToFile(issueStore.getIndexFile(), "{}", StandardCharsets.UTF_8);
+      queriedIssues.clear();
+      new IssueStore(file, DATE_FORMAT_PATTERN).query(IssueStore.INDEX_STATE,
+         "New"::equals, issue -> queriedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(2500, queriedIssues.size());
+   }
+
+   @Test
+   public void testIgnoreStaleSnapshotIndex() throws Exception {
+      File file = new File(temporaryFolder.getRoot(), "issues.json");
+      Map<String, Issue> issues = createIssues(2500);
+      issues.values().forEach(issue -> issue.setTargetRelease("7.11.1.GA"));
+
+      IssueStore issueStore = new IssueStore(file, DATE_FORMAT_PATTERN).setCompactionRatio(0);
+      issueStore.store(issues, dirtyIssueKeys(issues));
+      byte[] staleIndex = FileUtils.readFileToByteArray(issueStore.getIndexFile());
+
+      // A rewrite of the same length is detected by the snapshot generation
+      long snapshotLength = file.length();
+      issues.get("TEST-2499").setTargetRelease("7.11.2.GA");
+      issueStore.store(issues, dirtyIssueKeys(issues));
+      Assert.assertEquals(snapshotLength, file.length());
+      FileUtils.writeByteArrayToFile(issueStore.getIndexFile(), staleIndex);
+
+      Map<String, Issue> queriedIssues = new ConcurrentHashMap<>();
+      new IssueStore(file, DATE_FORMAT_PATTERN).query(IssueStore.INDEX_TARGET_RELEASE,
+         "7.11.2.GA"::equals, issue -> queriedIssues.put(issue.getKey(), issue));
+      Assert.assertEquals(Set.of("TEST-2499"), queriedIssues.keySet());
+   }
+
+   private Map<String, Issue> createIssues(int count) {
+      Map<String, Issue> issues = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+         issues.put("TEST-" + i, new Issue().setKey("TEST-" + i).setSummary("Test " + i).setState("New")
+            .setCreated(new Date(1000000L * i)).setUpdated(new Date(2000000L * i)));
+      }
+      return issues;
+   }
+
+   private Set<String> dirtyIssueKeys(Map<String, Issue> issues) {
+      Set<String> dirtyIssueKeys = ConcurrentHashMap.newKeySet();
+      dirtyIssueKeys.addAll(issues.keySet());
+      return dirtyIssueKeys;
+   }
+}
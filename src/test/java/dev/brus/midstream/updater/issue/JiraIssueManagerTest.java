@@ -0,0 +1,162 @@
+package dev.brus.midstream.updater.issue;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.JiraIssueManager;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JiraIssueManagerTest {
+   private final static String TEST_USER_NAME = "test";
+
+   @Test
+   public void testLoadIssuesByKeys() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      try {
+         JiraIssueManager issueManager = new JiraIssueManager(
+            mockWebServer.url("rest/api/2").toString(), null, "ARTEMIS");
+
+         mockWebServer.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .setBody(createBulkfetchResponse("ARTEMIS-1", "ARTEMIS-2").toString()));
+
+         issueManager.loadIssues(List.of("ARTEMIS-1", "ARTEMIS-2", "ARTEMIS-3", "ENTMQBR-1"));
+
+         Assert.assertEquals(2, issueManager.getIssues().size());
+         Assert.assertNotNull(issueManager.getIssue("ARTEMIS-1"));
+         Assert.assertNotNull(issueManager.getIssue("ARTEMIS-2"));
+         Assert.assertNull(issueManager.getIssue("ARTEMIS-3"));
+
+         RecordedRequest bulkfetchRequest = mockWebServer.takeRequest();
+         Assert.assertTrue(bulkfetchRequest.getPath().contains("issue/bulkfetch"));
+         try (InputStreamReader inputStreamReader = new InputStreamReader(bulkfetchRequest.getBody().inputStream())) {
+            JsonObject requestObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
+            JsonArray issueIdsOrKeys = requestObject.getAsJsonArray("issueIdsOrKeys");
+            Assert.assertEquals(3, issueIdsOrKeys.size());
+         }
+
+         Assert.assertEquals(1, mockWebServer.getRequestCount());
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
+   @Test
+   public void testReadThrough() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      try {
+         JiraIssueManager issueManager = new JiraIssueManager(
+            mockWebServer.url("rest/api/2").toString(), null, "ARTEMIS");
+
+         Assert.assertNull(issueManager.getIssue("ARTEMIS-1"));
+         Assert.assertEquals(0, mockWebServer.getRequestCount());
+
+         issueManager.setReadThrough(true);
+
+         mockWebServer.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .setBody(createBulkfetchResponse("ARTEMIS-1").toString()));
+         mockWebServer.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .setBody(createBulkfetchResponse().toString()));
+
+         Issue issue = issueManager.getIssue("ARTEMIS-1");
+         Assert.assertNotNull(issue);
+         Assert.assertEquals("Test ARTEMIS-1", issue.getSummary());
+         Assert.assertSame(issue, issueManager.getIssue("ARTEMIS-1"));
+
+         Assert.assertNull(issueManager.getIssue("ARTEMIS-2"));
+         Assert.assertNull(issueManager.getIssue("ARTEMIS-2"));
+         Assert.assertNull(issueManager.getIssue("ENTMQBR-2"));
+
+         Assert.assertEquals(2, mockWebServer.getRequestCount());
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
+   @Test
+   public void testLoadIssuesWithGzipEncoding() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      try {
+         JiraIssueManager issueManager = new JiraIssueManager(
+            mockWebServer.url("rest/api/2").toString(), null, "ARTEMIS");
+
+         Buffer gzipBody = new Buffer();
+         try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(gzipBody.outputStream())) {
+            gzipOutputStream.write(createBulkfetchResponse("ARTEMIS-1", "ARTEMIS-2", "ARTEMIS-3")
+               .toString().getBytes(StandardCharsets.UTF_8));
+         }
+
+         mockWebServer.enqueue(new MockResponse()
+            .addHeader("Content-Type", "application/json; charset=utf-8")
+            .addHeader("Content-Encoding", "gzip")
+            .setBody(gzipBody));
+
+         issueManager.loadIssues(List.of("ARTEMIS-1", "ARTEMIS-2", "ARTEMIS-3"));
+
+         Assert.assertEquals(3, issueManager.getIssues().size());
+         Assert.assertEquals("Test ARTEMIS-2", issueManager.getIssue("ARTEMIS-2").getSummary());
+
+         RecordedRequest bulkfetchRequest = mockWebServer.takeRequest();
+         Assert.assertEquals("gzip", bulkfetchRequest.getHeader("Accept-Encoding"));
+
+         Assert.assertEquals(1, issueManager.getTransport().getRequestCount());
+         Assert.assertTrue(issueManager.getTransport().getReceivedBytes() > 0);
+         Assert.assertTrue(issueManager.getTransport().getReceivedBytes() < issueManager.getTransport().getDecodedBytes());
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
+   private JsonObject createBulkfetchResponse(String... issueKeys) {
+      JsonObject bulkfetchResponse = new JsonObject();
+      JsonArray issuesArray = new JsonArray();
+      for (String issueKey : issueKeys) {
+         JsonObject issueObject = new JsonObject();
+         {
+            issueObject.addProperty("key", issueKey);
+            JsonObject fieldsObject = new JsonObject();
+            {
+               JsonObject userObject = new JsonObject();
+               userObject.addProperty("name", TEST_USER_NAME);
+               fieldsObject.add("creator", userObject);
+               fieldsObject.add("reporter", userObject);
+
+               JsonObject statusObject = new JsonObject();
+               statusObject.addProperty("name", "Open");
+               fieldsObject.add("status", statusObject);
+
+               JsonObject issueTypeObject = new JsonObject();
+               issueTypeObject.addProperty("name", "Bug");
+               fieldsObject.add("issuetype", issueTypeObject);
+
+               fieldsObject.addProperty("summary", "Test " + issueKey);
+               fieldsObject.addProperty("created", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.addProperty("updated", "2000-01-01T00:00:00.000+0000");
+            }
+            issueObject.add("fields", fieldsObject);
+         }
+         issuesArray.add(issueObject);
+      }
+      bulkfetchResponse.add("issues", issuesArray);
+      return bulkfetchResponse;
+   }
+}
@@ -1,19 +1,31 @@
 package dev.brus.midstream.updater.issue;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import dev.brus.downstream.updater.issue.Issue;
+import dev.brus.downstream.updater.issue.IssueLink;
 import dev.brus.downstream.updater.issue.IssueManager;
+import dev.brus.downstream.updater.issue.IssueSecurityImpact;
+import dev.brus.downstream.updater.issue.IssueUpdate;
 import dev.brus.downstream.updater.issue.JiraIssueManager;
 import dev.brus.downstream.updater.issue.RedHatIssueStateMachine;
 import dev.brus.downstream.updater.issue.RedHatJiraIssueManager;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -98,6 +110,153 @@ public class RedHatJiraIssueManagerTest {
       mockWebServer.shutdown();
    }
 
+   @Test
+   public void testUpdateIssue() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      String upstreamServerBaseURL = "https://issues.apache.org/jira";
+      IssueManager upstreamIssueManager = Mockito.spy(new JiraIssueManager(upstreamServerBaseURL + "/rest/api/2",
+         null, "ARTEMIS"));
+
+      String upstreamIssueKey = "ARTEMIS-100";
+      String upstreamIssueUrl = upstreamServerBaseURL + "/browse/" + upstreamIssueKey;
+      Mockito.when(upstreamIssueManager.getIssue(upstreamIssueKey)).thenReturn(
+         new Issue().setKey(upstreamIssueKey).setUrl(upstreamIssueUrl));
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString()));
+
+      issueManager.load();
+
+      String downstreamIssueKey = "ENTMQBR-100";
+      JsonObject downstreamIssueObject = new JsonObject();
+      {
+         downstreamIssueObject.addProperty("key", downstreamIssueKey);
+         downstreamIssueObject.add("fields", new JsonObject());
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(downstreamIssueObject.toString()));
+
+      mockWebServer.enqueue(new MockResponse());
+
+      issueManager.updateIssue(new IssueUpdate(downstreamIssueKey)
+         .setTargetRelease("1.0.0.GA")
+         .addLabels("CR1", "upstream-test-coverage")
+         .addUpstreamIssues(upstreamIssueKey));
+
+      Assert.assertEquals(3, mockWebServer.getRequestCount());
+
+      mockWebServer.takeRequest();
+      mockWebServer.takeRequest();
+
+      RecordedRequest putIssueRecordedRequest = mockWebServer.takeRequest();
+      Assert.assertEquals("PUT", putIssueRecordedRequest.getMethod());
+
+      try (InputStreamReader inputStreamReader = new InputStreamReader(putIssueRecordedRequest.getBody().inputStream())) {
+         JsonObject issueObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
+
+         JsonObject issueFields = issueObject.getAsJsonObject("fields");
+         Assert.assertEquals("1.0.0.GA", issueFields.getAsJsonObject(issueManager.getFieldIdByName(
+            RedHatJiraIssueManager.FIELD_TARGET_RELEASE)).get("name").getAsString());
+         Assert.assertEquals(upstreamIssueUrl, issueFields.get(issueManager.getFieldIdByName(
+            RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA)).getAsString());
+
+         JsonArray labelOperations = issueObject.getAsJsonObject("update").getAsJsonArray("labels");
+         Assert.assertEquals(2, labelOperations.size());
+         Assert.assertEquals("CR1", labelOperations.get(0).getAsJsonObject().get("add").getAsString());
+      }
+
+      mockWebServer.shutdown();
+   }
+
+   @Test
+   public void testWriteIssuesLabels() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), Mockito.mock(IssueManager.class));
+
+      AtomicBoolean bulkEditSupported = new AtomicBoolean(true);
+      List<String> bulkEditBodies = new CopyOnWriteArrayList<>();
+      AtomicInteger bulkTaskPolls = new AtomicInteger();
+      List<String> putIssuePaths = new CopyOnWriteArrayList<>();
+      mockWebServer.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            if (path.endsWith("/bulk/issues/fields")) {
+               if (!bulkEditSupported.get()) {
+                  return new MockResponse().setResponseCode(404);
+               }
+               bulkEditBodies.add(request.getBody().readUtf8());
+               return new MockResponse().setResponseCode(201).setBody("{\"taskId\":\"1\"}");
+            } else if (path.endsWith("/bulk/queue/1")) {
+               // The bulk edit task is polled until it completes
+               return new MockResponse().setResponseCode(200).setBody(bulkTaskPolls.incrementAndGet() < 2 ?
+                  "{\"taskId\":\"1\",\"status\":\"RUNNING\"}" :
+                  "{\"taskId\":\"1\",\"status\":\"COMPLETE\",\"processedAccessibleIssues\":[10001]," +
+                  "\"failedAccessibleIssues\":{\"ENTMQBR-2\":[\"Issue locked\"]},\"invalidOrInaccessibleIssueCount\":0}");
+            } else if (request.getMethod().equals("PUT")) {
+               putIssuePaths.add(path);
+               if (path.endsWith("/issue/ENTMQBR-3")) {
+                  return new MockResponse().setResponseCode(400).setBody("{\"errorMessages\":[\"Issue locked\"]}");
+               }
+               return new MockResponse().setResponseCode(204);
+            }
+            return new MockResponse().setResponseCode(404);
+         }
+      });
+
+      try {
+         Map<String, List<String>> issuesLabels = new LinkedHashMap<>();
+         issuesLabels.put("ENTMQBR-1", List.of("CR1", "upstream-test-coverage"));
+         issuesLabels.put("ENTMQBR-2", List.of("upstream-test-coverage", "CR1"));
+         issuesLabels.put("ENTMQBR-3", List.of("CR1"));
+
+         // The identical labels of the first two issues are added with a single bulk edit,
+         // the issue failed by the bulk edit task is updated on its own
+         Map<String, Exception> results = issueManager.writeIssuesLabels(issuesLabels);
+
+         Assert.assertEquals(1, results.size());
+         Assert.assertNotNull(results.get("ENTMQBR-3"));
+         Assert.assertEquals(1, bulkEditBodies.size());
+         Assert.assertTrue(bulkEditBodies.get(0).contains("ENTMQBR-1"));
+         Assert.assertTrue(bulkEditBodies.get(0).contains("ENTMQBR-2"));
+         Assert.assertEquals(2, bulkTaskPolls.get());
+         Assert.assertEquals(4, putIssuePaths.size());
+         Assert.assertFalse(putIssuePaths.stream().anyMatch(path -> path.endsWith("/issue/ENTMQBR-1")));
+         Assert.assertTrue(putIssuePaths.stream().anyMatch(path -> path.endsWith("/issue/ENTMQBR-2")));
+
+         // The issues are updated in parallel when the bulk edit is not supported
+         bulkEditSupported.set(false);
+         putIssuePaths.clear();
+
+         results = issueManager.writeIssuesLabels(issuesLabels);
+
+         Assert.assertEquals(1, results.size());
+         Assert.assertEquals(1, bulkEditBodies.size());
+         Assert.assertEquals(5, putIssuePaths.size());
+      } finally {
+         mockWebServer.shutdown();
+      }
+   }
+
    @Test
    public void testCreateIssue() throws Exception {
       MockWebServer mockWebServer = new MockWebServer();
@@ -172,6 +331,96 @@ public class RedHatJiraIssueManagerTest {
       mockWebServer.shutdown();
    }
 
+   @Test
+   public void testCloneIssue() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      String upstreamServerBaseURL = "https://issues.apache.org/jira";
+      IssueManager upstreamIssueManager = Mockito.mock(IssueManager.class);
+
+      String upstreamIssueKey = "ARTEMIS-100";
+      String upstreamIssueUrl = upstreamServerBaseURL + "/browse/" + upstreamIssueKey;
+      Mockito.when(upstreamIssueManager.getIssue(upstreamIssueKey)).thenReturn(
+         new Issue().setKey(upstreamIssueKey).setUrl(upstreamIssueUrl));
+
+      RedHatJiraIssueManager issueManager = Mockito.spy(new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager));
+
+      Issue cloningIssue = new Issue().setKey("ENTMQBR-100").setSummary("Test").setType("Bug");
+      cloningIssue.getIssues().add(upstreamIssueKey);
+      Mockito.doReturn(cloningIssue).when(issueManager).getIssue("ENTMQBR-100");
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+
+      // The link and the transition requests are concurrent
+      AtomicInteger postIssueCount = new AtomicInteger();
+      List<String> putIssueBodies = new CopyOnWriteArrayList<>();
+      mockWebServer.setDispatcher(new Dispatcher() {
+         @Override
+         public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            if (path.endsWith("/field")) {
+               return new MockResponse().setBody(fieldResponse.toString());
+            } else if (path.endsWith("/issue/") && request.getMethod().equals("POST")) {
+               if (postIssueCount.incrementAndGet() == 1) {
+                  return new MockResponse().setResponseCode(400).setBody(
+                     "{\"errors\":{\"" + RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA + "\":\"Field cannot be set\"}}");
+               }
+               return new MockResponse().setBody("{\"key\":\"ENTMQBR-200\"}");
+            } else if (path.endsWith("/issue/ENTMQBR-200") && request.getMethod().equals("PUT")) {
+               putIssueBodies.add(request.getBody().readUtf8());
+               return new MockResponse().setResponseCode(204);
+            } else if (path.endsWith("/issueLink")) {
+               return new MockResponse().setResponseCode(201);
+            } else if (path.endsWith("/issue/ENTMQBR-200")) {
+               return createIssueStatusResponse("ENTMQBR-200", "New");
+            } else if (path.contains("/issue/ENTMQBR-200/transitions") && request.getMethod().equals("GET")) {
+               return createIssueTransitionsResponse(1, "To Do");
+            } else if (path.contains("/issue/ENTMQBR-200/transitions")) {
+               return new MockResponse().setResponseCode(204);
+            }
+            return new MockResponse().setResponseCode(404);
+         }
+      });
+
+      issueManager.load();
+
+      Issue clonedIssue = issueManager.cloneIssue("ENTMQBR-100", "[1.0] Test", "1.0.0.GA",
+         List.of("label"), "Cloners", "To Do");
+
+      Assert.assertEquals("ENTMQBR-200", clonedIssue.getKey());
+      Assert.assertEquals("To Do", clonedIssue.getState());
+      Assert.assertEquals(List.of(upstreamIssueKey), clonedIssue.getIssues());
+      Assert.assertEquals(List.of("label"), clonedIssue.getLabels());
+      Assert.assertEquals(List.of(clonedIssue), issueManager.getIssuesBySummary("[1.0] Test"));
+
+      Assert.assertEquals(2, postIssueCount.get());
+      Assert.assertEquals(1, putIssueBodies.size());
+      Assert.assertTrue(putIssueBodies.get(0).contains(upstreamIssueUrl));
+      Assert.assertNotNull(clonedIssue.getCreated());
+      Assert.assertEquals(clonedIssue.getCreated(), clonedIssue.getUpdated());
+      Assert.assertEquals(8, mockWebServer.getRequestCount());
+
+      // The status of the created issues is only loaded for the first issue of each type
+      clonedIssue = issueManager.cloneIssue("ENTMQBR-100", "[1.1] Test", "1.1.0.GA",
+         List.of("label"), "Cloners", "To Do");
+
+      Assert.assertEquals("To Do", clonedIssue.getState());
+      Assert.assertEquals(3, postIssueCount.get());
+      Assert.assertEquals(11, mockWebServer.getRequestCount());
+
+      mockWebServer.shutdown();
+   }
+
    @Test
    public void testTransitionIssue() throws Exception {
       MockWebServer mockWebServer = new MockWebServer();
@@ -235,6 +484,149 @@ public class RedHatJiraIssueManagerTest {
       mockWebServer.shutdown();
    }
 
+   @Test
+   public void testTransitionIssueWithCachedWorkflow() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      IssueManager upstreamIssueManager = Mockito.mock(IssueManager.class);
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      mockWebServer.enqueue(createIssueStatusResponse("ENTMQBR-100", "New"));
+      mockWebServer.enqueue(createIssueTransitionsResponse(0, "Done"));
+      mockWebServer.enqueue(new MockResponse());
+
+      issueManager.transitionIssue("ENTMQBR-100", "Done");
+
+      // The cached transitions are used until a transition fails
+      mockWebServer.enqueue(createIssueStatusResponse("ENTMQBR-101", "New"));
+      mockWebServer.enqueue(new MockResponse().setResponseCode(400));
+      mockWebServer.enqueue(createIssueStatusResponse("ENTMQBR-101", "New"));
+      mockWebServer.enqueue(createIssueTransitionsResponse(1, "Done"));
+      mockWebServer.enqueue(new MockResponse());
+
+      issueManager.transitionIssue("ENTMQBR-101", "Done");
+
+      Assert.assertEquals(8, mockWebServer.getRequestCount());
+      Assert.assertEquals(Integer.valueOf(1), issueManager.getIssueWorkflow().getTransitions("Bug").get("New").get("Done"));
+
+      // The transitions of an issue type are not used for other issue types
+      Assert.assertFalse(issueManager.getIssueWorkflow().isKnownStatus("Story", "New"));
+
+      for (int i = 0; i < 7; i++) {
+         mockWebServer.takeRequest();
+      }
+
+      RecordedRequest transitionIssueRecordedRequest = mockWebServer.takeRequest();
+      Assert.assertEquals("POST", transitionIssueRecordedRequest.getMethod());
+      Assert.assertTrue(transitionIssueRecordedRequest.getBody().readUtf8().contains("\"1\""));
+
+      mockWebServer.shutdown();
+   }
+
+   @Test
+   public void testLoadWithMetadataFile() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      File metadataFile = File.createTempFile("downstream-metadata", ".json");
+      metadataFile.delete();
+
+      try {
+         RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+            null, "ENTMQBR", new RedHatIssueStateMachine(), null);
+         issueManager.setMetadataFile(metadataFile);
+
+         mockWebServer.enqueue(createFieldResponse("stale_"));
+
+         issueManager.load();
+
+         Assert.assertEquals(1, mockWebServer.getRequestCount());
+         Assert.assertTrue(metadataFile.exists());
+
+         RedHatJiraIssueManager cachedIssueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+            null, "ENTMQBR", new RedHatIssueStateMachine(), null);
+         cachedIssueManager.setMetadataFile(metadataFile);
+         cachedIssueManager.load();
+
+         Assert.assertEquals(1, mockWebServer.getRequestCount());
+         Assert.assertEquals("stale_" + RedHatJiraIssueManager.FIELD_TARGET_RELEASE,
+            cachedIssueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_TARGET_RELEASE));
+
+         // The stale field id fails all the retries and triggers a single refresh
+         for (int i = 0; i < 3; i++) {
+            mockWebServer.enqueue(new MockResponse().setResponseCode(400)
+               .setBody("{\"errors\":{\"stale_Target Release\":\"Field cannot be set\"}}"));
+         }
+         mockWebServer.enqueue(createFieldResponse(""));
+         mockWebServer.enqueue(new MockResponse());
+
+         cachedIssueManager.setIssueTargetRelease("ENTMQBR-100", "1.0.0.GA");
+
+         Assert.assertEquals(6, mockWebServer.getRequestCount());
+         Assert.assertEquals(RedHatJiraIssueManager.FIELD_TARGET_RELEASE,
+            cachedIssueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_TARGET_RELEASE));
+
+         RecordedRequest putIssueRecordedRequest = null;
+         for (int i = 0; i < 6; i++) {
+            putIssueRecordedRequest = mockWebServer.takeRequest();
+         }
+         Assert.assertNotNull(putIssueRecordedRequest);
+         try (InputStreamReader inputStreamReader = new InputStreamReader(putIssueRecordedRequest.getBody().inputStream())) {
+            JsonObject issueObject = JsonParser.parseReader(inputStreamReader).getAsJsonObject();
+            Assert.assertTrue(issueObject.getAsJsonObject("fields").has(RedHatJiraIssueManager.FIELD_TARGET_RELEASE));
+         }
+      } finally {
+         metadataFile.delete();
+         mockWebServer.shutdown();
+      }
+   }
+
+   @Test
+   public void testCreateIssueWithCachedFields() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      File metadataFile = File.createTempFile("downstream-metadata", ".json");
+      metadataFile.delete();
+
+      try {
+         RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+            null, "ENTMQBR", new RedHatIssueStateMachine(), null);
+         issueManager.setMetadataFile(metadataFile);
+         mockWebServer.enqueue(createFieldResponse("stale_"));
+         issueManager.load();
+
+         RedHatJiraIssueManager cachedIssueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+            null, "ENTMQBR", new RedHatIssueStateMachine(), null);
+         cachedIssueManager.setMetadataFile(metadataFile);
+         cachedIssueManager.load();
+
+         // The create request is not retried when it could have been processed
+         mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("{\"errorMessages\":[\"Timeout\"]}"));
+         try {
+            cachedIssueManager.createIssue("Test", "Test", "Bug", null, "1.0.0.GA", List.of());
+            Assert.fail();
+         } catch (IOException e) {
+            Assert.assertEquals(2, mockWebServer.getRequestCount());
+         }
+
+         // The create request is not retried when the rejected fields are not cached
+         mockWebServer.enqueue(new MockResponse().setResponseCode(400).setBody("{\"errors\":{\"summary\":\"Too long\"}}"));
+         try {
+            cachedIssueManager.createIssue("Test", "Test", "Bug", null, "1.0.0.GA", List.of());
+            Assert.fail();
+         } catch (IOException e) {
+            Assert.assertEquals(3, mockWebServer.getRequestCount());
+         }
+      } finally {
+         metadataFile.delete();
+         mockWebServer.shutdown();
+      }
+   }
+
    @Test
    public void testLoadDocumentationIssue() throws Exception {
       MockWebServer mockWebServer = new MockWebServer();
@@ -343,6 +735,418 @@ public class RedHatJiraIssueManagerTest {
 
       mockWebServer.shutdown();
    }
+
+   @Test
+   public void testLoadIssueLinks() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      IssueManager upstreamIssueManager = new JiraIssueManager("https://issues.apache.org/jira/rest/api/2",
+         null, "ARTEMIS");
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString()));
+
+      issueManager.load();
+
+      JsonObject jqlSearchResponse = new JsonObject();
+      {
+         JsonArray issuesArray = new JsonArray();
+         JsonObject issueIdObject = new JsonObject();
+         issueIdObject.addProperty("id", "100");
+         issuesArray.add(issueIdObject);
+         jqlSearchResponse.add("issues", issuesArray);
+         jqlSearchResponse.addProperty("total", 1);
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(jqlSearchResponse.toString()));
+
+      JsonObject bulkfetchResponse = new JsonObject();
+      {
+         JsonArray issuesArray = new JsonArray();
+         JsonObject downstreamIssueObject = new JsonObject();
+         {
+            downstreamIssueObject.addProperty("key", "ENTMQBR-100");
+            JsonObject fieldsObject = new JsonObject();
+            {
+               JsonObject userObject = new JsonObject();
+               userObject.addProperty("name", TEST_USER_NAME);
+               fieldsObject.add("creator", userObject);
+               fieldsObject.add("reporter", userObject);
+
+               JsonObject statusObject = new JsonObject();
+               statusObject.addProperty("name", "New");
+               fieldsObject.add("status", statusObject);
+
+               JsonObject issueTypeObject = new JsonObject();
+               issueTypeObject.addProperty("name", "Bug");
+               fieldsObject.add("issuetype", issueTypeObject);
+
+               fieldsObject.addProperty("summary", "Test");
+               fieldsObject.addProperty("created", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.addProperty("updated", "2000-01-01T00:00:00.000+0000");
+
+               JsonArray issueLinksArray = new JsonArray();
+               issueLinksArray.add(createIssueLink("Cloners", "outwardIssue", "ENTMQBR-10", "Test"));
+               issueLinksArray.add(createIssueLink("Related", "inwardIssue", "ENTMQBR-20", "See PATCH-1"));
+               fieldsObject.add("issuelinks", issueLinksArray);
+            }
+            downstreamIssueObject.add("fields", fieldsObject);
+         }
+         issuesArray.add(downstreamIssueObject);
+
+         JsonObject patchedIssueObject = downstreamIssueObject.deepCopy();
+         patchedIssueObject.addProperty("key", "ENTMQBR-101");
+         patchedIssueObject.getAsJsonObject("fields").getAsJsonArray("issuelinks")
+            .add(createIssueLink("Blocks", "inwardIssue", "PATCH-2", "Patch"));
+         issuesArray.add(patchedIssueObject);
+
+         bulkfetchResponse.add("issues", issuesArray);
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(bulkfetchResponse.toString()));
+
+      issueManager.loadIssues();
+
+      Issue issue = issueManager.getIssue("ENTMQBR-100");
+      Assert.assertEquals(2, issue.getIssueLinks().size());
+      Assert.assertEquals(List.of("ENTMQBR-10"), issue.getLinkedIssueKeys("Cloners", IssueLink.Direction.OUTWARD));
+      Assert.assertEquals(List.of(), issue.getLinkedIssueKeys("Cloners", IssueLink.Direction.INWARD));
+      Assert.assertEquals(List.of("ENTMQBR-20"), issue.getLinkedIssueKeys("Related", IssueLink.Direction.INWARD));
+      Assert.assertFalse(issue.isPatch());
+
+      Issue patchedIssue = issueManager.getIssue("ENTMQBR-101");
+      Assert.assertTrue(patchedIssue.isPatch());
+      Assert.assertTrue(patchedIssue.isCustomer());
+
+      mockWebServer.takeRequest();
+      mockWebServer.takeRequest();
+      RecordedRequest bulkfetchRequest = mockWebServer.takeRequest();
+      Assert.assertTrue(bulkfetchRequest.getPath().contains("issue/bulkfetch"));
+      Assert.assertTrue(bulkfetchRequest.getBody().readUtf8().contains("\"issuelinks\""));
+
+      mockWebServer.shutdown();
+   }
+
+   private JsonObject createIssueLink(String type, String direction, String key, String summary) {
+      JsonObject issueLinkObject = new JsonObject();
+      JsonObject typeObject = new JsonObject();
+      typeObject.addProperty("name", type);
+      issueLinkObject.add("type", typeObject);
+      JsonObject linkedIssueObject = new JsonObject();
+      linkedIssueObject.addProperty("key", key);
+      JsonObject linkedIssueFieldsObject = new JsonObject();
+      linkedIssueFieldsObject.addProperty("summary", summary);
+      linkedIssueObject.add("fields", linkedIssueFieldsObject);
+      issueLinkObject.add(direction, linkedIssueObject);
+      return issueLinkObject;
+   }
+
+   @Test
+   public void testLoadIssueCustomFields() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      String upstreamServerBaseURL = "https://issues.apache.org/jira";
+      IssueManager upstreamIssueManager = Mockito.spy(new JiraIssueManager(upstreamServerBaseURL + "/rest/api/2",
+         null, "ARTEMIS"));
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString()));
+
+      issueManager.load();
+
+      String downstreamIssueKey = "ENTMQBR-100";
+
+      JsonObject jqlSearchResponse = new JsonObject();
+      {
+         JsonArray issuesArray = new JsonArray();
+         JsonObject issueIdObject = new JsonObject();
+         issueIdObject.addProperty("id", "100");
+         issuesArray.add(issueIdObject);
+         jqlSearchResponse.add("issues", issuesArray);
+         jqlSearchResponse.addProperty("total", 1);
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(jqlSearchResponse.toString()));
+
+      JsonObject bulkfetchResponse = new JsonObject();
+      {
+         JsonArray issuesArray = new JsonArray();
+         JsonObject downstreamIssueObject = new JsonObject();
+         {
+            downstreamIssueObject.addProperty("expand", "renderedFields");
+            downstreamIssueObject.addProperty("id", "100");
+            JsonObject fieldsObject = new JsonObject();
+            {
+               JsonObject userObject = new JsonObject();
+               userObject.addProperty("accountId", TEST_USER_NAME);
+               userObject.add("avatarUrls", new JsonObject());
+               fieldsObject.add("creator", userObject);
+               fieldsObject.add("reporter", userObject);
+               fieldsObject.add("assignee", null);
+
+               JsonObject statusObject = new JsonObject();
+               statusObject.addProperty("name", "New");
+               statusObject.add("statusCategory", new JsonObject());
+               fieldsObject.add("status", statusObject);
+
+               JsonObject issueTypeObject = new JsonObject();
+               issueTypeObject.addProperty("name", "Vulnerability");
+               fieldsObject.add("issuetype", issueTypeObject);
+
+               JsonObject descriptionObject = new JsonObject();
+               descriptionObject.addProperty("type", "doc");
+               fieldsObject.add("description", descriptionObject);
+
+               fieldsObject.addProperty("summary", "Test");
+               fieldsObject.addProperty("created", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.addProperty("updated", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.add("labels", new JsonArray());
+               fieldsObject.add("components", new JsonArray());
+               fieldsObject.add("issuelinks", new JsonArray());
+
+               JsonObject targetReleaseObject = new JsonObject();
+               targetReleaseObject.addProperty("name", "AMQ 7.11.0.GA");
+               fieldsObject.add(issueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_TARGET_RELEASE), targetReleaseObject);
+
+               fieldsObject.addProperty(issueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA),
+                  upstreamServerBaseURL + "/browse/ARTEMIS-100, " + upstreamServerBaseURL + "/browse/ARTEMIS-101");
+
+               JsonObject severityObject = new JsonObject();
+               severityObject.addProperty("value", "Important");
+               fieldsObject.add(issueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_SEVERITY), severityObject);
+
+               fieldsObject.addProperty(issueManager.getFieldIdByName(RedHatJiraIssueManager.FIELD_SFDC_CASES_COUNTER), 1);
+            }
+            downstreamIssueObject.add("fields", fieldsObject);
+            downstreamIssueObject.addProperty("key", downstreamIssueKey);
+         }
+         issuesArray.add(downstreamIssueObject);
+         bulkfetchResponse.add("issues", issuesArray);
+         bulkfetchResponse.add("issueErrors", new JsonArray());
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(bulkfetchResponse.toString()));
+
+      issueManager.loadIssues();
+
+      Issue issue = issueManager.getIssue(downstreamIssueKey);
+      Assert.assertNotNull(issue);
+      Assert.assertEquals(TEST_USER_NAME, issue.getCreator());
+      Assert.assertNull(issue.getAssignee());
+      Assert.assertEquals("New", issue.getState());
+      Assert.assertEquals("{\"type\":\"doc\"}", issue.getDescription());
+      Assert.assertEquals("AMQ 7.11.0.GA", issue.getTargetRelease());
+      Assert.assertEquals(List.of("ARTEMIS-100", "ARTEMIS-101"), issue.getIssues());
+      Assert.assertEquals(IssueSecurityImpact.IMPORTANT, issue.getSecurityImpact());
+      Assert.assertTrue(issue.isCustomer());
+      Assert.assertFalse(issue.isPatch());
+
+      mockWebServer.shutdown();
+   }
+
+   @Test
+   public void testLoadIssuesWithFilter() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      String upstreamServerBaseURL = "https://issues.apache.org/jira";
+      IssueManager upstreamIssueManager = Mockito.spy(new JiraIssueManager(upstreamServerBaseURL + "/rest/api/2",
+         null, "ARTEMIS"));
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA.equals(fieldName) ? "customfield_100" : fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString()));
+
+      issueManager.load();
+      issueManager.setIssuesFilter(RedHatJiraIssueManager.ISSUES_FILTER_UPSTREAM + "," + RedHatJiraIssueManager.ISSUES_FILTER_UNRESOLVED);
+
+      // The filtered search fails, i.e. because the JQL is not valid
+      mockWebServer.enqueue(new MockResponse()
+         .setResponseCode(400)
+         .setBody("{\"errorMessages\":[\"Error in the JQL Query\"]}")
+         .addHeader("Content-Type", "application/json"));
+
+      mockWebServer.enqueue(new MockResponse()
+         .setResponseCode(200)
+         .setBody("{\"issues\": [], \"total\": 0}")
+         .addHeader("Content-Type", "application/json"));
+
+      issueManager.loadIssues();
+
+      Assert.assertNotNull(issueManager.getLastReconciliation());
+
+      mockWebServer.takeRequest();
+
+      RecordedRequest filteredJqlRequest = mockWebServer.takeRequest();
+      Assert.assertTrue(filteredJqlRequest.getPath().contains("search/jql"));
+      try (InputStreamReader inputStreamReader = new InputStreamReader(filteredJqlRequest.getBody().inputStream())) {
+         String jql = JsonParser.parseReader(inputStreamReader).getAsJsonObject().get("jql").getAsString();
+         Assert.assertEquals("project = 'ENTMQBR' AND (cf[100] is not EMPTY OR resolution = Unresolved)", jql);
+      }
+
+      RecordedRequest fullJqlRequest = mockWebServer.takeRequest();
+      Assert.assertTrue(fullJqlRequest.getPath().contains("search/jql"));
+      try (InputStreamReader inputStreamReader = new InputStreamReader(fullJqlRequest.getBody().inputStream())) {
+         String jql = JsonParser.parseReader(inputStreamReader).getAsJsonObject().get("jql").getAsString();
+         Assert.assertEquals("project = 'ENTMQBR'", jql);
+      }
+
+      mockWebServer.shutdown();
+   }
+
+   @Test
+   public void testReconcileIssuesWithFilter() throws Exception {
+      MockWebServer mockWebServer = new MockWebServer();
+      mockWebServer.start();
+
+      IssueManager upstreamIssueManager = new JiraIssueManager("https://issues.apache.org/jira/rest/api/2",
+         null, "ARTEMIS");
+
+      RedHatJiraIssueManager issueManager = new RedHatJiraIssueManager(mockWebServer.url("rest/api/2").toString(),
+         null, "ENTMQBR", new RedHatIssueStateMachine(), upstreamIssueManager);
+
+      JsonArray fieldResponse = new JsonArray();
+      {
+         RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+            JsonObject fieldObject = new JsonObject();
+            fieldObject.addProperty("id", RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA.equals(fieldName) ? "customfield_100" : fieldName);
+            fieldObject.addProperty("name", fieldName);
+            fieldResponse.add(fieldObject);
+         });
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString()));
+
+      issueManager.load();
+      issueManager.setIssuesFilter(RedHatJiraIssueManager.ISSUES_FILTER_UPSTREAM);
+      issueManager.setIssuesReconciliationInterval(0);
+
+      // The first load is filtered
+      enqueueIssues(mockWebServer, "ENTMQBR-1", "ENTMQBR-2");
+      issueManager.loadIssues();
+      Assert.assertNotNull(issueManager.getIssue("ENTMQBR-2"));
+
+      // The reconciliation reloads the matching issues and the incremental load refreshes
+      // the issues no longer matching, i.e. ENTMQBR-2 is still cached
+      Thread.sleep(10);
+      enqueueIssues(mockWebServer, "ENTMQBR-1", "ENTMQBR-3");
+      enqueueIssues(mockWebServer, "ENTMQBR-2");
+      issueManager.loadIssues(new Date());
+
+      Assert.assertNotNull(issueManager.getIssue("ENTMQBR-1"));
+      Assert.assertNotNull(issueManager.getIssue("ENTMQBR-2"));
+      Assert.assertNotNull(issueManager.getIssue("ENTMQBR-3"));
+
+      mockWebServer.takeRequest();
+      mockWebServer.takeRequest();
+      mockWebServer.takeRequest();
+
+      RecordedRequest reconciliationJqlRequest = mockWebServer.takeRequest();
+      Assert.assertTrue(reconciliationJqlRequest.getPath().contains("search/jql"));
+      try (InputStreamReader inputStreamReader = new InputStreamReader(reconciliationJqlRequest.getBody().inputStream())) {
+         String jql = JsonParser.parseReader(inputStreamReader).getAsJsonObject().get("jql").getAsString();
+         Assert.assertEquals("project = 'ENTMQBR' AND (cf[100] is not EMPTY)", jql);
+      }
+      mockWebServer.takeRequest();
+
+      RecordedRequest incrementalJqlRequest = mockWebServer.takeRequest();
+      Assert.assertTrue(incrementalJqlRequest.getPath().contains("search/jql"));
+      try (InputStreamReader inputStreamReader = new InputStreamReader(incrementalJqlRequest.getBody().inputStream())) {
+         String jql = JsonParser.parseReader(inputStreamReader).getAsJsonObject().get("jql").getAsString();
+         Assert.assertTrue(jql, jql.startsWith("project = 'ENTMQBR' AND updated >= "));
+         Assert.assertFalse(jql, jql.contains("cf[100]"));
+      }
+
+      mockWebServer.shutdown();
+   }
+
+   private void enqueueIssues(MockWebServer mockWebServer, String... issueKeys) {
+      JsonObject jqlSearchResponse = new JsonObject();
+      JsonObject bulkfetchResponse = new JsonObject();
+      {
+         JsonArray idsArray = new JsonArray();
+         JsonArray issuesArray = new JsonArray();
+         for (String issueKey : issueKeys) {
+            JsonObject idObject = new JsonObject();
+            idObject.addProperty("id", issueKey);
+            idsArray.add(idObject);
+
+            JsonObject issueObject = new JsonObject();
+            issueObject.addProperty("key", issueKey);
+            JsonObject fieldsObject = new JsonObject();
+            {
+               JsonObject statusObject = new JsonObject();
+               statusObject.addProperty("name", "New");
+               fieldsObject.add("status", statusObject);
+
+               JsonObject issueTypeObject = new JsonObject();
+               issueTypeObject.addProperty("name", "Bug");
+               fieldsObject.add("issuetype", issueTypeObject);
+
+               fieldsObject.addProperty("summary", "Test");
+               fieldsObject.addProperty("created", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.addProperty("updated", "2000-01-01T00:00:00.000+0000");
+               fieldsObject.add("labels", new JsonArray());
+            }
+            issueObject.add("fields", fieldsObject);
+            issuesArray.add(issueObject);
+         }
+         jqlSearchResponse.add("issues", idsArray);
+         bulkfetchResponse.add("issues", issuesArray);
+      }
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(jqlSearchResponse.toString()));
+      mockWebServer.enqueue(new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(bulkfetchResponse.toString()));
+   }
+
    @Test
    public void testLoadingMultipleIssues() throws Exception {
       MockWebServer mockWebServer = new MockWebServer();
@@ -641,4 +1445,61 @@ public class RedHatJiraIssueManagerTest {
          mockWebServer.shutdown();
       }
    }
-}
\ No newline at end of file
+
+   private MockResponse createFieldResponse(String fieldIdPrefix) {
+      JsonArray fieldResponse = new JsonArray();
+      RedHatJiraIssueManager.FIELDS.forEach(fieldName -> {
+         JsonObject fieldObject = new JsonObject();
+         fieldObject.addProperty("id", fieldIdPrefix + fieldName);
+         fieldObject.addProperty("name", fieldName);
+         fieldResponse.add(fieldObject);
+      });
+      return new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(fieldResponse.toString());
+   }
+
+   private MockResponse createIssueStatusResponse(String issueKey, String status) {
+      JsonObject issueObject = new JsonObject();
+      {
+         issueObject.addProperty("key", issueKey);
+         JsonObject fieldsObject = new JsonObject();
+         {
+            JsonObject statusObject = new JsonObject();
+            statusObject.addProperty("name", status);
+            fieldsObject.add("status", statusObject);
+
+            JsonObject issueTypeObject = new JsonObject();
+            issueTypeObject.addProperty("name", "Bug");
+            fieldsObject.add("issuetype", issueTypeObject);
+         }
+         issueObject.add("fields", fieldsObject);
+      }
+
+      return new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(issueObject.toString());
+   }
+
+   private MockResponse createIssueTransitionsResponse(int transitionId, String finalStatus) {
+      JsonObject transitionsObject = new JsonObject();
+      {
+         JsonArray transitionsArray = new JsonArray();
+         {
+            JsonObject transitionObject = new JsonObject();
+            transitionObject.addProperty("id", String.valueOf(transitionId));
+
+            JsonObject toObject = new JsonObject();
+            toObject.addProperty("name", finalStatus);
+            transitionObject.add("to", toObject);
+
+            transitionsArray.add(transitionObject);
+         }
+         transitionsObject.add("transitions", transitionsArray);
+      }
+
+      return new MockResponse()
+         .addHeader("Content-Type", "application/json; charset=utf-8")
+         .setBody(transitionsObject.toString());
+   }
+}
@@ -0,0 +1,78 @@
+package dev.brus.midstream.updater.issue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.brus.downstream.updater.issue.SingleFlightCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SingleFlightCacheTest {
+
+   @Test
+   public void testConcurrentLoadsShareOneRequest() throws Exception {
+      AtomicInteger loads = new AtomicInteger();
+      CountDownLatch loadLatch = new CountDownLatch(1);
+      SingleFlightCache<String> cache = new SingleFlightCache<>(key -> {
+         loads.incrementAndGet();
+         loadLatch.await(10, TimeUnit.SECONDS);
+         return "Issue " + key;
+      });
+
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+         List<Future<String>> futures = new ArrayList<>();
+         for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> cache.get("ENTMQBR-1")));
+         }
+
+         while (cache.getHits() + cache.getMisses() < 4) {
+            Thread.sleep(10);
+         }
+         loadLatch.countDown();
+
+         for (Future<String> future : futures) {
+            Assert.assertEquals("Issue ENTMQBR-1", future.get());
+         }
+      } finally {
+         executor.shutdown();
+      }
+
+      Assert.assertEquals(1, loads.get());
+      Assert.assertEquals(0.75, cache.getHitRate(), 0.001);
+
+      cache.get("ENTMQBR-1");
+      Assert.assertEquals(1, loads.get());
+
+      cache.invalidate("ENTMQBR-1");
+      cache.get("ENTMQBR-1");
+      Assert.assertEquals(2, loads.get());
+   }
+
+   @Test
+   public void testFailedLoadIsNotCached() throws Exception {
+      AtomicInteger loads = new AtomicInteger();
+      SingleFlightCache<String> cache = new SingleFlightCache<>(key -> {
+         if (loads.incrementAndGet() == 1) {
+            throw new IllegalStateException("Load failed");
+         }
+         return "Issue " + key;
+      });
+
+      try {
+         cache.get("ENTMQBR-1");
+         Assert.fail("Load should fail");
+      } catch (IllegalStateException e) {
+         Assert.assertEquals("Load failed", e.getMessage());
+      }
+
+      Assert.assertEquals("Issue ENTMQBR-1", cache.get("ENTMQBR-1"));
+      Assert.assertEquals(2, loads.get());
+   }
+}
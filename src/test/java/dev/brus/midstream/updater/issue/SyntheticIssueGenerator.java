@@ -0,0 +1,181 @@
+package dev.brus.midstream.updater.issue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import dev.brus.downstream.updater.issue.RedHatJiraIssueManager;
+
+// Generates the same issues for the same seed without keeping them in memory
+public class SyntheticIssueGenerator {
+   public final static List<String> STATUSES = List.of("New", "Backlog", "To Do", "In Progress",
+      "Code Review", "Dev Complete", "Testing", "Review", "Verified", "Release Pending", "Resolved", "Closed");
+
+   private final static List<String> TYPES = List.of("Bug", "Task", "Story", "Enhancement");
+   private final static List<String> LABELS = List.of("CR1", "CR2", "upstream-test-coverage", "no-testing-needed", "bug", "enhancement");
+   private final static List<String> RELEASES = List.of("7.10.0.GA", "7.11.0.GA", "7.11.1.GA", "7.12.0.GA");
+   private final static List<String> USERS = List.of("alice", "bob", "carol", "dave");
+
+   private final static long BASE_TIMESTAMP = 1577836800000L;
+
+   private final String projectKey;
+   private final int issueCount;
+   private final long seed;
+
+   private String upstreamIssueBaseUrl;
+   private String upstreamProjectKey;
+   private int upstreamIssueCount;
+
+   public SyntheticIssueGenerator(String projectKey, int issueCount, long seed) {
+      this.projectKey = projectKey;
+      this.issueCount = issueCount;
+      this.seed = seed;
+   }
+
+   public String getProjectKey() {
+      return projectKey;
+   }
+
+   public int getIssueCount() {
+      return issueCount;
+   }
+
+   public SyntheticIssueGenerator setUpstreamIssues(String upstreamIssueBaseUrl, String upstreamProjectKey, int upstreamIssueCount) {
+      this.upstreamIssueBaseUrl = upstreamIssueBaseUrl;
+      this.upstreamProjectKey = upstreamProjectKey;
+      this.upstreamIssueCount = upstreamIssueCount;
+      return this;
+   }
+
+   public String getIssueKey(int number) {
+      return projectKey + "-" + number;
+   }
+
+   public String getIssueId(int number) {
+      return String.valueOf(100000 + number);
+   }
+
+   // Returns the issue number of a key or an id, 0 if it doesn't belong to the project
+   public int getIssueNumber(String issueIdOrKey) {
+      try {
+         int number = issueIdOrKey.startsWith(projectKey + "-") ?
+            Integer.parseInt(issueIdOrKey.substring(projectKey.length() + 1)) : Integer.parseInt(issueIdOrKey) - 100000;
+         return number >= 1 && number <= issueCount ? number : 0;
+      } catch (NumberFormatException e) {
+         return 0;
+      }
+   }
+
+   public String getStatus(int number) {
+      return STATUSES.get(new Random(seed + number).nextInt(STATUSES.size()));
+   }
+
+   public JsonObject createJiraIssue(int number, Map<String, String> fieldIds) {
+      Random random = new Random(seed + number);
+      String status = STATUSES.get(random.nextInt(STATUSES.size()));
+
+      JsonObject issueObject = new JsonObject();
+      issueObject.addProperty("id", getIssueId(number));
+      issueObject.addProperty("key", getIssueKey(number));
+
+      JsonObject fieldsObject = new JsonObject();
+      fieldsObject.add("creator", createJiraUser(USERS.get(random.nextInt(USERS.size()))));
+      fieldsObject.add("reporter", createJiraUser(USERS.get(random.nextInt(USERS.size()))));
+      fieldsObject.add("assignee", random.nextBoolean() ? createJiraUser(USERS.get(random.nextInt(USERS.size()))) : null);
+
+      JsonObject statusObject = new JsonObject();
+      statusObject.addProperty("name", status);
+      fieldsObject.add("status", statusObject);
+
+      JsonObject issueTypeObject = new JsonObject();
+      issueTypeObject.addProperty("name", TYPES.get(random.nextInt(TYPES.size())));
+      fieldsObject.add("issuetype", issueTypeObject);
+
+      if (status.equals("Closed") || status.equals("Resolved")) {
+         JsonObject resolutionObject = new JsonObject();
+         resolutionObject.addProperty("name", "Done");
+         fieldsObject.add("resolution", resolutionObject);
+      }
+
+      fieldsObject.addProperty("summary", "Synthetic issue " + number + " " + Long.toHexString(random.nextLong()));
+      fieldsObject.addProperty("description", "Synthetic description of issue " + number);
+      fieldsObject.addProperty("created", formatDate(BASE_TIMESTAMP + number * 60000L, "yyyy-MM-dd'T'HH:mm:ss.SSSZ"));
+      fieldsObject.addProperty("updated", formatDate(BASE_TIMESTAMP + number * 60000L + random.nextInt(86400000), "yyyy-MM-dd'T'HH:mm:ss.SSSZ"));
+      fieldsObject.add("labels", createLabels(random));
+      fieldsObject.add("components", new JsonArray());
+
+      String targetReleaseFieldId = fieldIds.get(RedHatJiraIssueManager.FIELD_TARGET_RELEASE);
+      if (targetReleaseFieldId != null && random.nextBoolean()) {
+         JsonObject targetReleaseObject = new JsonObject();
+         targetReleaseObject.addProperty("name", RELEASES.get(random.nextInt(RELEASES.size())));
+         fieldsObject.add(targetReleaseFieldId, targetReleaseObject);
+      }
+
+      String upstreamJiraFieldId = fieldIds.get(RedHatJiraIssueManager.FIELD_UPSTREAM_JIRA);
+      if (upstreamJiraFieldId != null && upstreamIssueCount > 0 && random.nextInt(4) > 0) {
+         fieldsObject.addProperty(upstreamJiraFieldId, upstreamIssueBaseUrl + "/" +
+            upstreamProjectKey + "-" + (1 + random.nextInt(upstreamIssueCount)));
+      }
+
+      issueObject.add("fields", fieldsObject);
+
+      return issueObject;
+   }
+
+   public JsonObject createGithubIssue(int number, String owner, String repo) {
+      Random random = new Random(seed + number);
+
+      JsonObject issueObject = new JsonObject();
+      issueObject.addProperty("number", number);
+      issueObject.addProperty("title", "Synthetic pull request " + number);
+      issueObject.addProperty("body", "Synthetic body of pull request " + number);
+      issueObject.addProperty("state", random.nextInt(4) > 0 ? "closed" : "open");
+      issueObject.addProperty("html_url", "https://github.com/" + owner + "/" + repo + "/issues/" + number);
+      issueObject.addProperty("created_at", formatDate(BASE_TIMESTAMP + number * 60000L, "yyyy-MM-dd'T'HH:mm:ss'Z'"));
+      issueObject.addProperty("updated_at", formatDate(BASE_TIMESTAMP + number * 60000L + random.nextInt(86400000), "yyyy-MM-dd'T'HH:mm:ss'Z'"));
+
+      JsonObject userObject = new JsonObject();
+      userObject.addProperty("login", USERS.get(random.nextInt(USERS.size())));
+      issueObject.add("user", userObject);
+      issueObject.add("assignee", null);
+
+      JsonArray labelsArray = new JsonArray();
+      for (JsonElement labelElement : createLabels(random)) {
+         JsonObject labelObject = new JsonObject();
+         labelObject.addProperty("name", labelElement.getAsString());
+         labelsArray.add(labelObject);
+      }
+      issueObject.add("labels", labelsArray);
+
+      return issueObject;
+   }
+
+   private JsonArray createLabels(Random random) {
+      JsonArray labelsArray = new JsonArray();
+      for (String label : LABELS) {
+         if (random.nextInt(4) == 0) {
+            labelsArray.add(label);
+         }
+      }
+      return labelsArray;
+   }
+
+   private JsonObject createJiraUser(String name) {
+      JsonObject userObject = new JsonObject();
+      userObject.addProperty("name", name);
+      userObject.addProperty("accountId", name);
+      return userObject;
+   }
+
+   private static String formatDate(long timestamp, String pattern) {
+      SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+      dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+      return dateFormat.format(new Date(timestamp));
+   }
+}
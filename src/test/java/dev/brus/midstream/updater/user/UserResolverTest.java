@@ -0,0 +1,79 @@
+package dev.brus.midstream.updater.user;
+
+import java.util.concurrent.TimeUnit;
+
+import dev.brus.downstream.updater.user.User;
+import dev.brus.downstream.updater.user.UserResolver;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class UserResolverTest {
+   private final static Logger logger = LoggerFactory.getLogger(UserResolverTest.class);
+
+   @Test
+   public void testLookups() {
+      User user = createUser(0);
+      User otherUser = createUser(1).setDownstreamUserId(null);
+      User duplicatedUser = createUser(2).setUsername(user.getUsername());
+
+      UserResolver userResolver = new UserResolver(new User[] {user, otherUser, duplicatedUser});
+
+      Assert.assertSame(user, userResolver.getUserFromUsername("user0"));
+      Assert.assertSame(otherUser, userResolver.getUserFromUpstreamUsername("upstream1"));
+      Assert.assertSame(otherUser, userResolver.getUserFromDownstreamUsername("downstream1"));
+      Assert.assertSame(user, userResolver.getUserFromDownstreamUserId("id0"));
+      Assert.assertSame(otherUser, userResolver.getUserFromEmailAddress("user1@example.com"));
+      Assert.assertSame(otherUser, userResolver.getUserFromEmailAddress("user1@example.org"));
+
+      Assert.assertNull(userResolver.getUserFromUsername(null));
+      Assert.assertNull(userResolver.getUserFromDownstreamUserId(null));
+      Assert.assertNull(userResolver.getUserFromEmailAddress("user3@example.com"));
+
+      // The indexes are rebuilt when the users change
+      userResolver.setUsers(new User[] {otherUser});
+      Assert.assertNull(userResolver.getUserFromUsername("user0"));
+      Assert.assertSame(otherUser, userResolver.getUserFromUsername("user1"));
+   }
+
+   @Test
+   public void testLookupsOnLargeDirectory() {
+      int userCount = Integer.getInteger("userresolver.users", 5000);
+      int rounds = Integer.getInteger("userresolver.rounds", 100);
+
+      User[] users = new User[userCount];
+      for (int i = 0; i < userCount; i++) {
+         users[i] = createUser(i);
+      }
+
+      long startTime = System.nanoTime();
+      UserResolver userResolver = new UserResolver(users);
+      long indexTime = System.nanoTime() - startTime;
+
+      startTime = System.nanoTime();
+      for (int round = 0; round < rounds; round++) {
+         for (int i = 0; i < userCount; i++) {
+            User user = users[i];
+            Assert.assertSame(user, userResolver.getUserFromUsername(user.getUsername()));
+            Assert.assertSame(user, userResolver.getUserFromUpstreamUsername(user.getUpstreamUsername()));
+            Assert.assertSame(user, userResolver.getUserFromDownstreamUserId(user.getDownstreamUserId()));
+            Assert.assertSame(user, userResolver.getUserFromEmailAddress(user.getEmailAddresses()[1]));
+         }
+      }
+      long lookupTime = System.nanoTime() - startTime;
+
+      logger.info(userCount + " users indexed in " + TimeUnit.NANOSECONDS.toMillis(indexTime) + " ms, " +
+         (lookupTime / (4L * rounds * userCount)) + " ns per lookup");
+   }
+
+   private User createUser(int n) {
+      return new User()
+         .setName("User " + n)
+         .setUsername("user" + n)
+         .setUpstreamUsername("upstream" + n)
+         .setDownstreamUsername("downstream" + n)
+         .setDownstreamUserId("id" + n)
+         .setEmailAddresses(new String[] {"user" + n + "@example.com", "user" + n + "@example.org"});
+   }
+}
@@ -1,5 +1,6 @@
 package dev.brus.midstream.updater.util;
 
+import dev.brus.downstream.updater.issue.Issue;
 import dev.brus.downstream.updater.util.ReleaseVersion;
 import org.junit.Assert;
 import org.junit.Test;
@@ -62,4 +63,28 @@ public class ReleaseVersionTest {
       Assert.assertTrue(ReleaseVersion.fromString("7.12.1.OPR.1.CR1") .compareTo(ReleaseVersion.fromString("7.12.1.OPR.1.CR1")) == 0);
       Assert.assertFalse(ReleaseVersion.fromString("7.12.1.OPR.1.CR1") .compareTo(ReleaseVersion.fromString("7.12.1.OPR.1.CR1")) < 0);
    }
+
+   @Test
+   public void testParse() {
+      Assert.assertSame(ReleaseVersion.parse("7.10.0.CR1"), ReleaseVersion.parse("7.10.0.CR1"));
+      Assert.assertSame(ReleaseVersion.fromString("7.10.0.CR1"), ReleaseVersion.parse("7.10.0.CR1"));
+      Assert.assertNull(ReleaseVersion.parse("Future GA"));
+      Assert.assertNull(ReleaseVersion.parse("Future GA"));
+      Assert.assertNull(ReleaseVersion.parse(null));
+
+      try {
+         ReleaseVersion.fromString("Future GA");
+         Assert.fail("Invalid release parsed");
+      } catch (IllegalArgumentException e) {
+         // Expected
+      }
+   }
+
+   @Test
+   public void testTargetReleaseVersion() {
+      Issue issue = new Issue().setTargetRelease("7.10.0.GA");
+      Assert.assertEquals("7.10.0.GA", issue.getTargetReleaseVersion().toString());
+      Assert.assertNull(issue.setTargetRelease("Future GA").getTargetReleaseVersion());
+      Assert.assertNull(issue.setTargetRelease(null).getTargetReleaseVersion());
+   }
 }